@@ -0,0 +1,66 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.annotation.BoundedConcurrency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@link BoundedConcurrencyAspect} 의 호출당 준비 비용 비교.
+ * <ul>
+ *     <li>{@code reflectiveLookup}: 기존 방식. 호출마다 어노테이션을 읽고 Semaphore Bean 을 조회</li>
+ *     <li>{@code dispatchTable}: {@link BoundedConcurrencyRegistry} 가 기동 시점에 만든 테이블 조회</li>
+ * </ul>
+ * 두 벤치마크 모두 허가 획득/반납까지 포함합니다.
+ */
+@State(Scope.Benchmark)
+public class BoundedConcurrencyDispatchBenchmark {
+
+    private DefaultListableBeanFactory beanFactory;
+    private BoundedConcurrencyRegistry registry;
+    private SampleService target;
+    private Method method;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("benchmarkSemaphore", new Semaphore(Integer.MAX_VALUE / 2));
+
+        registry = new BoundedConcurrencyRegistry();
+        registry.setBeanFactory(beanFactory);
+        target = new SampleService();
+        registry.postProcessAfterInitialization(target, "sampleService");
+        method = SampleService.class.getMethod("work");
+    }
+
+    @Benchmark
+    public int reflectiveLookup() throws InterruptedException {
+        BoundedConcurrency annotation = method.getAnnotation(BoundedConcurrency.class);
+        Semaphore semaphore = beanFactory.getBean(annotation.value(), Semaphore.class);
+        semaphore.acquire();
+        semaphore.release();
+        return semaphore.availablePermits();
+    }
+
+    @Benchmark
+    public int dispatchTable() throws InterruptedException {
+        BoundedConcurrencyDescriptor descriptor = registry.descriptorOf(method, target);
+        descriptor.semaphore().acquire();
+        descriptor.unitPermit().release();
+        return descriptor.semaphore().availablePermits();
+    }
+
+    public static class SampleService {
+
+        @BoundedConcurrency("benchmarkSemaphore")
+        public CompletableFuture<Void> work() {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
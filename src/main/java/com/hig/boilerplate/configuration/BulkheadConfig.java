@@ -0,0 +1,44 @@
+package com.hig.boilerplate.configuration;
+
+import com.hig.boilerplate.core.bulkhead.AdaptiveBulkheadLimiter;
+import com.hig.boilerplate.core.bulkhead.BulkheadProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+    /**
+     * Replica 커넥션 풀 전용 Bulkhead.
+     * <p>
+     * {@code resilience4j.bulkhead.instances} 에 같은 이름의 설정이 있으면 그대로 사용하고,
+     * 없으면 기본 Bulkhead 의 설정을 바탕으로 동시 호출 수만 Replica 풀 크기 - 1 (1개는 여유분)로 맞춰 생성합니다.
+     * </p>
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "boilerplate.datasource.replica", name = "enabled", havingValue = "true")
+    public Bulkhead replicaBulkhead(BulkheadRegistry bulkheadRegistry,
+                                    BulkheadProperties properties,
+                                    @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                    ObjectProvider<AdaptiveBulkheadLimiter> adaptiveLimiter) {
+        int poolSize = replicaDataSource.getMaximumPoolSize();
+        adaptiveLimiter.ifAvailable(limiter -> limiter.registerCeiling(properties.replicaName(), poolSize));
+
+        return bulkheadRegistry.find(properties.replicaName())
+            .orElseGet(() -> {
+                BulkheadConfig base = bulkheadRegistry.bulkhead(properties.defaultName()).getBulkheadConfig();
+                return bulkheadRegistry.bulkhead(properties.replicaName(), BulkheadConfig.from(base)
+                    .maxConcurrentCalls(Math.max(1, poolSize - 1))
+                    .build());
+            });
+    }
+}
@@ -0,0 +1,38 @@
+package com.hig.boilerplate.configuration;
+
+import com.hig.boilerplate.core.bulkhead.AdaptiveBulkheadLimiter;
+import com.hig.boilerplate.core.bulkhead.BulkheadProperties;
+import com.hig.boilerplate.core.cluster.ClusterBudgetProperties;
+import com.hig.boilerplate.core.cluster.ClusterConnectionBudget;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 클러스터 전체 Primary 커넥션 예산 구성.
+ * <p>
+ * 노드 생존 신호 테이블({@code node_heartbeat})은 Liquibase 로 생성되므로 마이그레이션 이후에 시작합니다.
+ * </p>
+ */
+@Configuration
+@EnableConfigurationProperties(ClusterBudgetProperties.class)
+public class ClusterBudgetConfig {
+
+    @Bean
+    @DependsOnDatabaseInitialization
+    @ConditionalOnProperty(prefix = "boilerplate.cluster-budget", name = "enabled", havingValue = "true")
+    public ClusterConnectionBudget clusterConnectionBudget(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                                           BulkheadRegistry bulkheadRegistry,
+                                                           BulkheadProperties bulkheadProperties,
+                                                           ObjectProvider<AdaptiveBulkheadLimiter> adaptiveLimiter,
+                                                           ClusterBudgetProperties properties) {
+        return new ClusterConnectionBudget(primaryDataSource,
+            bulkheadRegistry.bulkhead(bulkheadProperties.defaultName()), adaptiveLimiter.getIfAvailable(), properties);
+    }
+}
@@ -0,0 +1,46 @@
+package com.hig.boilerplate.configuration;
+
+import com.hig.boilerplate.core.aop.BoundedConcurrencyRegistry;
+import com.hig.boilerplate.core.bulkhead.AdaptiveBulkheadLimiter;
+import com.hig.boilerplate.core.bulkhead.BulkheadProperties;
+import com.hig.boilerplate.core.tuning.ConcurrencyEndpoint;
+import com.hig.boilerplate.core.tuning.ConcurrencyOverrideStore;
+import com.hig.boilerplate.core.tuning.ConcurrencyTuner;
+import com.hig.boilerplate.core.tuning.ConcurrencyTuningProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 실행 중 동시성 한도 변경 구성.
+ * <p>
+ * 변경 내용 저장({@code boilerplate.tuning.persist})에는 Bulkhead 를 거치지 않도록 Primary 커넥션 풀을 직접 사용합니다.
+ * </p>
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyTuningProperties.class)
+public class ConcurrencyTuningConfig {
+
+    @Bean
+    public ConcurrencyTuner concurrencyTuner(BulkheadRegistry bulkheadRegistry,
+                                             BoundedConcurrencyRegistry concurrencyRegistry,
+                                             ObjectProvider<AdaptiveBulkheadLimiter> adaptiveLimiter,
+                                             BulkheadProperties bulkheadProperties,
+                                             @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                             ApplicationEventPublisher eventPublisher,
+                                             ConcurrencyTuningProperties properties) {
+        ConcurrencyOverrideStore store = properties.persist() ? new ConcurrencyOverrideStore(primaryDataSource) : null;
+        return new ConcurrencyTuner(bulkheadRegistry, concurrencyRegistry, adaptiveLimiter.getIfAvailable(),
+            bulkheadProperties.reservedName(), store, eventPublisher, properties);
+    }
+
+    @Bean
+    public ConcurrencyEndpoint concurrencyEndpoint(ConcurrencyTuner concurrencyTuner) {
+        return new ConcurrencyEndpoint(concurrencyTuner);
+    }
+}
@@ -0,0 +1,121 @@
+package com.hig.boilerplate.configuration;
+
+import com.hig.boilerplate.core.bulkhead.AdaptiveBulkheadLimiter;
+import com.hig.boilerplate.core.bulkhead.BulkheadDataSource;
+import com.hig.boilerplate.core.bulkhead.BulkheadProperties;
+import com.hig.boilerplate.core.bulkhead.PermitHoldWatchdog;
+import com.hig.boilerplate.core.bulkhead.PriorityBulkheadScheduler;
+import com.hig.boilerplate.core.bulkhead.StatementTrackingDataSource;
+import com.hig.boilerplate.core.deadline.DeadlineDataSource;
+import com.hig.boilerplate.core.deadline.DeadlineProperties;
+import com.hig.boilerplate.core.metrics.ConcurrencyMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource 구성 (Primary / Replica 읽기·쓰기 분리).
+ * <p>
+ * 애플리케이션이 사용하는 {@link DataSource}는 {@link LazyConnectionDataSourceProxy} 입니다.
+ * 실제 커넥션은 첫 쿼리가 실행되는 시점에 풀에서 가져오며, 그 전에 {@code Connection#setReadOnly(true)} 가 호출된 경우
+ * (즉 {@code @Transactional(readOnly = true)} 트랜잭션) Replica 풀에서, 그 외에는 Primary 풀에서 가져옵니다.
+ * </p>
+ * <p>
+ * Replica 는 {@code boilerplate.datasource.replica.enabled=true} 일 때만 구성되며, 비활성화 시 모든 요청은 Primary 로 향합니다.
+ * Replica 풀에 대응하는 Bulkhead 는 {@link BulkheadConfig} 에서 Replica 풀 크기를 기준으로 구성됩니다.
+ * </p>
+ * <p>
+ * {@code boilerplate.bulkhead.mode=connection} 이면 각 풀을 {@link BulkheadDataSource} 로 감싸
+ * 실제 물리 커넥션을 빌리는 동안에만 Bulkhead 퍼밋을 점유하도록 합니다.
+ * </p>
+ * <p>
+ * 요청 처리 시한 전파({@code boilerplate.deadline.enabled=true})를 사용하면 각 풀을 {@link DeadlineDataSource} 로 감싸
+ * 남은 시간을 {@code statement_timeout} 으로 설정합니다.
+ * </p>
+ * <p>
+ * {@code method} 모드에서 점유 시간 감시의 SQL 취소({@code boilerplate.bulkhead.watchdog.cancel-after})를 사용하면
+ * 각 풀을 {@link StatementTrackingDataSource} 로 감싸 실행 중인 Statement 를 기록합니다.
+ * </p>
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+    }
+
+    /**
+     * 읽기 전용 트랜잭션을 처리할 Replica 커넥션 풀.
+     * <p>
+     * {@code boilerplate.datasource.replica.*} 의 값이 Hikari 설정으로 그대로 바인딩됩니다. (jdbc-url, maximum-pool-size 등)
+     * </p>
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "boilerplate.datasource.replica", name = "enabled", havingValue = "true")
+    @ConfigurationProperties("boilerplate.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource,
+                                 BulkheadRegistry bulkheadRegistry,
+                                 BulkheadProperties bulkheadProperties,
+                                 ObjectProvider<AdaptiveBulkheadLimiter> adaptiveLimiter,
+                                 ObjectProvider<PriorityBulkheadScheduler> priorityScheduler,
+                                 ObjectProvider<PermitHoldWatchdog> watchdog,
+                                 ConcurrencyMetrics concurrencyMetrics,
+                                 DeadlineProperties deadlineProperties) {
+        boolean connectionMode = bulkheadProperties.mode() == BulkheadProperties.PermitMode.CONNECTION;
+        AdaptiveBulkheadLimiter limiter = adaptiveLimiter.getIfAvailable();
+        PriorityBulkheadScheduler scheduler = priorityScheduler.getIfAvailable();
+        PermitHoldWatchdog holdWatchdog = watchdog.getIfAvailable();
+        boolean statementTimeout = deadlineProperties.enabled() && deadlineProperties.statementTimeout();
+        // CONNECTION 모드에서는 BulkheadDataSource 가 커넥션별로 Statement 를 기록
+        boolean trackStatements = !connectionMode && holdWatchdog != null
+            && bulkheadProperties.watchdog().cancelAfter().isPositive();
+
+        DataSource primaryPool = statementTimeout ? new DeadlineDataSource(primaryDataSource) : primaryDataSource;
+        if (trackStatements) {
+            primaryPool = new StatementTrackingDataSource(primaryPool);
+        }
+        DataSource primary = connectionMode
+            ? new BulkheadDataSource(primaryPool, bulkheadRegistry,
+                bulkheadProperties.defaultName(), bulkheadProperties.reservedName(), limiter, scheduler, holdWatchdog,
+                bulkheadProperties.forkedPermit(), concurrencyMetrics)
+            : primaryPool;
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+
+        replicaDataSource.ifAvailable(replica -> {
+            DataSource replicaPool = statementTimeout ? new DeadlineDataSource(replica) : replica;
+            if (trackStatements) {
+                replicaPool = new StatementTrackingDataSource(replicaPool);
+            }
+            dataSource.setReadOnlyDataSource(connectionMode
+                ? new BulkheadDataSource(replicaPool, bulkheadRegistry,
+                    bulkheadProperties.replicaName(), bulkheadProperties.reservedName(), limiter, scheduler, holdWatchdog,
+                    bulkheadProperties.forkedPermit(), concurrencyMetrics)
+                : replicaPool);
+        });
+        return dataSource;
+    }
+}
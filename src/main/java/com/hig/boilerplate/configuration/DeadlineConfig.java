@@ -0,0 +1,27 @@
+package com.hig.boilerplate.configuration;
+
+import com.hig.boilerplate.core.deadline.DeadlineExecutionInterceptor;
+import com.hig.boilerplate.core.deadline.DeadlineProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 요청 처리 시한 전파 구성.
+ * <p>
+ * 시한은 {@link com.hig.boilerplate.core.filter.RequestDeadlineFilter} 가 바인딩하며,
+ * DB 커넥션에는 {@link DataSourceConfig} 가, Bulkhead 대기에는 {@link com.hig.boilerplate.core.bulkhead.PriorityBulkheadScheduler} 가 적용합니다.
+ * AWS SDK 클라이언트는 아래 Interceptor 를 등록해야 시한이 적용됩니다.
+ * </p>
+ */
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "boilerplate.deadline", name = "enabled", havingValue = "true")
+    public DeadlineExecutionInterceptor deadlineExecutionInterceptor() {
+        return new DeadlineExecutionInterceptor();
+    }
+}
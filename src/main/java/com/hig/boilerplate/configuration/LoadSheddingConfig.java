@@ -0,0 +1,32 @@
+package com.hig.boilerplate.configuration;
+
+import com.hig.boilerplate.core.filter.LoadSheddingFilter;
+import com.hig.boilerplate.core.shedding.LoadSheddingProperties;
+import com.hig.boilerplate.core.shedding.SaturationMonitor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * HTTP 진입 시점의 부하 차단 구성.
+ */
+@Configuration
+@EnableConfigurationProperties(LoadSheddingProperties.class)
+public class LoadSheddingConfig {
+
+    /**
+     * Spring Security 필터 체인(기본 order -100)을 비롯한 모든 필터보다 먼저 실행되도록 가장 높은 우선순위로 등록합니다.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "boilerplate.load-shedding", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(SaturationMonitor saturationMonitor,
+                                                                         LoadSheddingProperties properties) {
+        FilterRegistrationBean<LoadSheddingFilter> registration =
+            new FilterRegistrationBean<>(new LoadSheddingFilter(saturationMonitor, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
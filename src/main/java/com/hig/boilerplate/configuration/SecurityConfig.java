@@ -0,0 +1,49 @@
+package com.hig.boilerplate.configuration;
+
+import com.hig.boilerplate.core.tuning.ConcurrencyTuningProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Spring Security 구성.
+ * <p>
+ * Actuator 는 운영 도구에서 호출하므로 세션 없이 HTTP Basic 으로 인증하며,
+ * 동시성 한도 변경({@code POST /actuator/concurrency/**})은 {@code boilerplate.tuning.role} 역할이 있어야 합니다.
+ * 그 밖의 요청은 Spring Boot 기본 구성과 같습니다.
+ * </p>
+ */
+@Configuration
+public class SecurityConfig {
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http,
+                                                           ConcurrencyTuningProperties tuningProperties) throws Exception {
+        return http
+            .securityMatcher("/actuator/**")
+            .authorizeHttpRequests(authorize -> authorize
+                .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                .requestMatchers(HttpMethod.POST, "/actuator/concurrency/**").hasRole(tuningProperties.role())
+                .anyRequest().authenticated())
+            .httpBasic(Customizer.withDefaults())
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .build();
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http) throws Exception {
+        return http
+            .authorizeHttpRequests(authorize -> authorize.anyRequest().authenticated())
+            .formLogin(Customizer.withDefaults())
+            .httpBasic(Customizer.withDefaults())
+            .build();
+    }
+}
@@ -1,10 +1,13 @@
 package com.hig.boilerplate.configuration;
 
+import com.hig.boilerplate.core.async.RequestContextTaskDecorator;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -17,10 +20,23 @@ import java.util.concurrent.Executors;
 @Profile({"default", "local", "dev", "prod"})
 public class ThreadPoolConfig implements AsyncConfigurer {
 
+    // 제출한 스레드의 Bulkhead 스코프, 처리 시한, MDC, SecurityContext 를 작업 스레드로 전달
+    private final TaskDecorator taskDecorator = new RequestContextTaskDecorator();
+
+    /**
+     * {@code @Async} 기본 Executor (작업마다 Virtual Thread 생성).
+     * <p>
+     * 요청 컨텍스트는 {@link RequestContextTaskDecorator} 로 전달됩니다.
+     * 트랜잭션 안에서 fork 한 작업이 DB 에 접근하면 부모의 퍼밋을 기다리지 않고
+     * {@code boilerplate.bulkhead.forked-permit} 에 따라 예비 Bulkhead 의 퍼밋을 빌리거나 거절됩니다.
+     * </p>
+     */
     @Override
     @Bean("getAsyncExecutor")
     public Executor getAsyncExecutor() {
-        return Executors.newVirtualThreadPerTaskExecutor();
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+        executor.setTaskDecorator(taskDecorator);
+        return executor;
     }
 
     /**
@@ -54,6 +70,7 @@ public class ThreadPoolConfig implements AsyncConfigurer {
         executor.setMaxPoolSize(coreCount);
         executor.setQueueCapacity(100); // 큐는 비교적 작게 설정하는 것이 좋습니다.
         executor.setThreadNamePrefix("CpuBound-");
+        executor.setTaskDecorator(taskDecorator);
         executor.initialize();
         return executor;
     }
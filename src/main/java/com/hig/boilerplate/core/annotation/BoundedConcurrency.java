@@ -21,7 +21,7 @@ import java.lang.annotation.Target;
  * <p>
  * 1. 제어하려는 비동기 메서드에 {@code @Async("myExecutor")}와 함께 이 어노테이션을 적용합니다.<br>
  * 2. {@code value} 속성에는 제어에 사용할 Spring bean으로 등록된 {@link java.util.concurrent.Semaphore}의 이름을 지정합니다.<br>
- * 3. 메서드는 반드시 {@code CompletableFuture<T>}를 반환해야 합니다.
+ * 3. 비동기 메서드는 {@code CompletableFuture<T>}를 반환합니다. (동기 메서드는 아래 "동기 메서드와 스트림 반환" 참고)
  * </p>
  *
  * <pre><code>
@@ -38,7 +38,7 @@ import java.lang.annotation.Target;
  *
  *     {@literal @Bean("myTaskSemaphore")}
  *     public Semaphore myTaskSemaphore() {
- *         // 최대 동시 실행 수 + 큐 용량
+ *         // 최대 동시 실행 수 + 큐 용량 (executor 만 지정하면 자동으로 산출됩니다. 아래 "Executor 용량에 맞춘 Semaphore 자동 등록" 참고)
  *         return new Semaphore(100 + 500);
  *     }
  * }
@@ -80,6 +80,18 @@ import java.lang.annotation.Target;
  * }
  * </code></pre>
  *
+ * <h3>Executor 용량에 맞춘 Semaphore 자동 등록</h3>
+ * <p>
+ * Semaphore 의 허가 수를 Executor 설정과 따로 관리하면 두 값이 어긋나 {@code TaskRejectedException} 이 발생할 수 있습니다.
+ * {@code value} 를 생략하고 {@link #executor()} 만 지정하면, 기동 시점에 {@code ThreadPoolTaskExecutor} 의
+ * {@code maxPoolSize + queueCapacity} 만큼의 허가를 가진 {@code executor + "Semaphore"} Bean 이 자동으로 등록됩니다.
+ * </p>
+ * <pre><code>
+ * {@literal @BoundedConcurrency(executor = "cpuBoundExecutor")} // cpuBoundExecutorSemaphore 자동 등록
+ * {@literal @Async("cpuBoundExecutor")}
+ * public CompletableFuture<String/> calculate(Long id) { ... }
+ * </code></pre>
+ *
  * <h3>결과 처리 방식</h3>
  * <h4>1. 논블로킹(Non-blocking) 방식 (권장)</h4>
  * <p>
@@ -120,6 +132,106 @@ import java.lang.annotation.Target;
  * return "결과: " + result;
  * </code></pre>
  *
+ * <h3>논블로킹 허가 획득 (ASYNC)</h3>
+ * <p>
+ * 기본 방식({@link Acquisition#BLOCKING})은 허가를 얻을 때까지 스레드를 대기시킵니다.
+ * {@code acquisition = Acquisition.ASYNC} 로 지정하면 허가를 기다리지 않고 즉시 {@code CompletableFuture}를 반환하며,
+ * 허가가 확보된 시점에 {@link #executor()} 로 지정한 Executor 에서 메서드를 실행합니다. 대기 중에는 어떤 스레드도 점유하지 않습니다.
+ * </p>
+ * <p>
+ * 반환된 Future 를 취소하거나 {@code orTimeout} 으로 실패시키면, 대기 중인 작업은 Executor 대기열에서 제거되고
+ * 실행 중인 작업은 interrupt 되며, 허가는 작업이 실제로 멈춘 뒤에 반납됩니다.
+ * (BLOCKING 모드에서 호출자가 받는 Future 는 {@code @Async}가 만든 것이므로 취소가 실행 중인 작업에 전달되지 않습니다.)
+ * </p>
+ * <p>
+ * 이 모드에서는 {@code @Async}를 함께 선언하지 않습니다. {@code @Async}는 다른 Aspect 보다 먼저 적용되어
+ * 메서드를 Executor 에 넘긴 뒤 그 스레드 위에서 허가를 기다리게 되므로, 실행 위임은 이 어노테이션이 직접 담당합니다.
+ * </p>
+ * <pre><code>
+ * {@literal @BoundedConcurrency(value = "myTaskSemaphore", acquisition = Acquisition.ASYNC, executor = "myTaskExecutor")}
+ * public CompletableFuture<String/> doSomethingAsync(Long id) {
+ *     return CompletableFuture.completedFuture("결과");
+ * }
+ * </code></pre>
+ *
+ * <h3>대기 시간 제한과 포화 시 처리</h3>
+ * <p>
+ * 기본적으로 허가를 얻을 때까지 무기한 대기합니다. {@link #maxWait()} 로 최대 대기 시간을 지정할 수 있으며,
+ * {@link #mode()} 로 허가를 얻지 못했을 때의 처리 방식을 선택합니다.
+ * </p>
+ * <ul>
+ *     <li>{@link Mode#BLOCK}: {@code maxWait} 동안(미지정 시 무기한) 대기한 뒤,
+ *     실패하면 {@link com.hig.boilerplate.core.exception.BoundedConcurrencyRejectedException}</li>
+ *     <li>{@link Mode#FAIL_FAST}: 대기하지 않고 즉시 {@link com.hig.boilerplate.core.exception.BoundedConcurrencyRejectedException}</li>
+ *     <li>{@link Mode#FALLBACK}: {@code maxWait} 동안(미지정 시 대기 없이) 시도한 뒤, 실패하면 {@link #fallbackMethod()} 의 결과를 반환</li>
+ * </ul>
+ * <p>
+ * 메서드가 {@code CompletableFuture}를 반환하므로 거절 예외는 실패한 Future 로 전달됩니다.
+ * fallback 메서드는 같은 클래스에 선언하며, 원래 메서드와 같은 인자를 받거나 마지막 인자로 예외({@code Throwable})를 추가로 받을 수 있습니다.
+ * </p>
+ * <pre><code>
+ * {@literal @BoundedConcurrency(value = "myTaskSemaphore", maxWait = "200ms", mode = Mode.FALLBACK, fallbackMethod = "cached")}
+ * {@literal @Async("myTaskExecutor")}
+ * public CompletableFuture<String/> doSomethingAsync(Long id) { ... }
+ *
+ * private CompletableFuture<String/> cached(Long id, Throwable cause) {
+ *     return CompletableFuture.completedFuture("기본값");
+ * }
+ * </code></pre>
+ *
+ * <h3>키별 동시 실행 제한</h3>
+ * <p>
+ * {@link #key()} 에 SpEL 표현식(예: {@code #userId}, {@code #tenant.id})을 지정하면, 같은 키의 호출은 {@link #permitsPerKey()} 개까지만 동시에 실행됩니다.
+ * 특정 사용자나 테넌트의 요청이 몰려도 전역 Semaphore 의 허가를 독점하지 못하므로, 다른 키의 호출은 영향을 받지 않습니다.
+ * 키별 Semaphore 는 사용 중인 호출이 없으면 자동으로 제거되며, 평가 결과가 null 이면 키별 제한을 적용하지 않습니다.
+ * 키별 Semaphore 는 메서드마다 따로 관리되므로, 같은 Semaphore 를 쓰는 다른 메서드와 키 값이 같아도 키별 허가를 나누어 쓰지 않습니다.
+ * </p>
+ * <p>
+ * 동시에 추적하는 키 수는 {@link #maxTrackedKeys()} 로 제한되며, 한도에 도달하면 새로운 키의 호출은 거절됩니다.
+ * 키 공간은 16개의 stripe 로 나뉘고 한도도 stripe 마다 {@code maxTrackedKeys / 16} 개씩 나누어 적용되므로,
+ * 키의 해시가 한쪽으로 몰리면 전체 키 수가 한도보다 적어도 거절이 시작될 수 있습니다.
+ * </p>
+ * <pre><code>
+ * {@literal @BoundedConcurrency(value = "myTaskSemaphore", key = "#tenantId", permitsPerKey = 10)}
+ * {@literal @Async("myTaskExecutor")}
+ * public CompletableFuture<String/> doSomethingAsync(String tenantId, Long id) { ... }
+ * </code></pre>
+ *
+ * <h3>가중치 허가</h3>
+ * <p>
+ * 기본적으로 호출 하나는 허가 하나를 점유합니다. 처리량이 호출마다 크게 다르다면 {@link #weight()} 에
+ * SpEL 표현식(예: {@code #ids.size()})을 지정하여 그만큼의 허가를 한 번에 얻고, 완료 시 한 번에 반납하도록 할 수 있습니다.
+ * 가중치는 1 이상, Semaphore 의 전체 허가 수 이하로 보정됩니다. 키별 제한({@link #permitsPerKey()})은 가중치와 무관하게 호출 수 기준입니다.
+ * </p>
+ * <pre><code>
+ * {@literal @BoundedConcurrency(value = "myTaskSemaphore", weight = "#ids.size()")}
+ * {@literal @Async("myTaskExecutor")}
+ * public CompletableFuture<Void/> processBatch(List<Long/> ids) { ... }
+ * </code></pre>
+ *
+ * <h3>동기 메서드와 스트림 반환</h3>
+ * <p>
+ * Virtual Thread 위에서 동작하는 동기 메서드에도 그대로 적용할 수 있으며, 반환 타입에 따라 허가 반납 시점이 정해집니다.
+ * </p>
+ * <ul>
+ *     <li>{@code CompletableFuture}: Future 가 완료될 때</li>
+ *     <li>{@code Stream}(및 {@code IntStream} 등): Stream 을 닫을 때. 반드시 try-with-resources 로 닫아야 합니다.</li>
+ *     <li>{@code Iterator}: 끝까지 순회하거나, 순회 중 예외가 발생하거나, {@code AutoCloseable} 로서 닫힐 때</li>
+ *     <li>{@code Flow.Publisher}: 구독이 완료, 실패, 취소될 때</li>
+ *     <li>그 외: 메서드가 반환될 때 ({@code finally})</li>
+ * </ul>
+ * <p>
+ * {@code Iterator}, {@code Flow.Publisher} 는 허가 반납용 래퍼로 감싸 반환하므로 반환 타입을 인터페이스 그대로 선언해야 합니다.
+ * {@link Acquisition#ASYNC} 모드는 {@code CompletableFuture} 만 지원합니다.
+ * </p>
+ * <pre><code>
+ * {@literal @BoundedConcurrency("reportSemaphore")}
+ * public Report buildReport(Long id) { ... } // 반환 시 허가 반납
+ *
+ * {@literal @BoundedConcurrency("reportSemaphore")}
+ * public Stream<Row/> streamRows(Long id) { ... } // Stream.close() 시 허가 반납
+ * </code></pre>
+ *
  * <h3>주의사항 (Self-Invocation)</h3>
  * <p>
  * Spring AOP의 프록시 기반 동작 방식 때문에, 이 어노테이션이 붙은 메서드를 같은 클래스 내의 다른 메서드에서
@@ -134,9 +246,96 @@ import java.lang.annotation.Target;
 public @interface BoundedConcurrency {
     /**
      * 제어에 사용할 {@link java.util.concurrent.Semaphore} Spring Bean의 이름을 지정합니다.
+     * 생략하면 {@link #executor()} 의 용량으로 만든 {@code executor + "Semaphore"} Bean 을 사용합니다.
      * @return Semaphore Bean의 이름
      */
-    String value();
-}
+    String value() default "";
+
+    /**
+     * 허가를 얻는 방식을 지정합니다.
+     * @return 허가 획득 방식 (기본값 {@link Acquisition#BLOCKING})
+     */
+    Acquisition acquisition() default Acquisition.BLOCKING;
+
+    /**
+     * 허가를 얻은 뒤 메서드를 실행할 {@link java.util.concurrent.Executor} Spring Bean의 이름을 지정합니다.
+     * {@link Acquisition#ASYNC} 모드에서 필수이며, {@link #value()} 를 생략한 경우 Semaphore 의 허가 수를 이 Executor 에서 산출합니다.
+     * @return Executor Bean의 이름
+     */
+    String executor() default "";
+
+    /**
+     * 허가를 기다릴 최대 시간을 지정합니다. {@code 500ms}, {@code 2s} 형식이나 {@code ${...}} 프로퍼티 참조를 사용할 수 있습니다.
+     * @return 최대 대기 시간 (기본값은 미지정)
+     */
+    String maxWait() default "";
+
+    /**
+     * 허가를 얻지 못했을 때의 처리 방식을 지정합니다.
+     * @return 포화 시 처리 방식 (기본값 {@link Mode#BLOCK})
+     */
+    Mode mode() default Mode.BLOCK;
+
+    /**
+     * {@link Mode#FALLBACK} 모드에서 허가를 얻지 못했을 때 대신 호출할 같은 클래스의 메서드 이름을 지정합니다.
+     * @return fallback 메서드 이름
+     */
+    String fallbackMethod() default "";
+
+    /**
+     * 키별 동시 실행 제한에 사용할 키를 SpEL 표현식으로 지정합니다. (예: {@code #userId}, {@code #tenant.id})
+     * @return 키 표현식 (기본값은 키별 제한 없음)
+     */
+    String key() default "";
 
+    /**
+     * {@link #key()} 가 같은 호출이 동시에 가질 수 있는 허가 수를 지정합니다. {@code key} 를 지정한 경우 필수입니다.
+     * @return 키당 허가 수
+     */
+    int permitsPerKey() default 0;
+
+    /**
+     * {@link #key()} 별 제한에서 동시에 추적할 수 있는 최대 키 수를 지정합니다. 한도에 도달하면 새로운 키의 호출은 거절됩니다.
+     * 한도는 16개의 stripe 에 {@code maxTrackedKeys / 16} 개씩 나누어 적용됩니다.
+     * @return 동시에 추적할 최대 키 수
+     */
+    int maxTrackedKeys() default 10_000;
 
+    /**
+     * 호출 하나가 점유할 허가 수를 SpEL 표현식으로 지정합니다. (예: {@code #ids.size()})
+     * @return 가중치 표현식 (기본값은 호출당 1개)
+     */
+    String weight() default "";
+
+    /**
+     * Semaphore 허가 획득 방식.
+     */
+    enum Acquisition {
+        /**
+         * 허가를 얻을 때까지 호출 스레드를 대기시킵니다.
+         */
+        BLOCKING,
+        /**
+         * 즉시 {@code CompletableFuture}를 반환하고, 허가가 확보되면 {@link BoundedConcurrency#executor()} 에서 메서드를 실행합니다.
+         */
+        ASYNC
+    }
+
+    /**
+     * 허가를 얻지 못했을 때의 처리 방식.
+     */
+    enum Mode {
+        /**
+         * {@link BoundedConcurrency#maxWait()} 동안(미지정 시 무기한) 대기하고, 시간 내에 얻지 못하면 거절합니다.
+         */
+        BLOCK,
+        /**
+         * 대기하지 않고 즉시 거절합니다.
+         */
+        FAIL_FAST,
+        /**
+         * {@link BoundedConcurrency#maxWait()} 동안(미지정 시 대기 없이) 시도하고, 얻지 못하면 fallback 메서드를 호출합니다.
+         */
+        FALLBACK
+    }
+}
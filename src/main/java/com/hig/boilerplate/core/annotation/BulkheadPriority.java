@@ -0,0 +1,51 @@
+package com.hig.boilerplate.core.annotation;
+
+import com.hig.boilerplate.core.bulkhead.RequestPriority;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>DB Bulkhead 가 포화되었을 때 이 작업이 퍼밋을 기다리는 우선순위 등급을 지정하는 어노테이션입니다.</p>
+ *
+ * <p>
+ * {@code boilerplate.bulkhead.priority.enabled=true} 이면 Bulkhead 대기자는 도착 순서가 아니라 등급별 가중치에 따라
+ * 퍼밋을 받습니다. 배치 작업이나 관리자 내보내기에 {@link RequestPriority#BATCH} 를 지정하면, 포화 상태에서도
+ * 사용자 API 호출이 그 뒤에 줄 서지 않습니다. 낮은 등급도 가중치만큼의 최소 몫은 보장되므로 완전히 굶지는 않습니다.
+ * </p>
+ *
+ * <h3>사용법</h3>
+ * <p>
+ * 클래스 또는 메서드에 적용할 수 있으며, 메서드에 선언된 값이 클래스에 선언된 값보다,
+ * 어노테이션이 요청 단위 등급({@link com.hig.boilerplate.core.filter.RequestPriorityFilter})보다 우선합니다.
+ * </p>
+ *
+ * <pre><code>
+ * {@literal @Service}
+ * {@literal @BulkheadPriority(RequestPriority.BATCH)}
+ * public class OrderExportService {
+ *     {@literal @Transactional(readOnly = true)}
+ *     public void export(YearMonth month) { ... }
+ * }
+ * </code></pre>
+ *
+ * <h3>주의사항</h3>
+ * <p>
+ * {@link DatabaseBulkhead} 와 마찬가지로 트랜잭션의 진입점에서만 효과가 있으며,
+ * 이미 퍼밋을 가진 스코프 안의 중첩 호출은 바깥 호출의 등급을 그대로 사용합니다.
+ * </p>
+ */
+@Documented
+@Inherited
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BulkheadPriority {
+    /**
+     * @return 퍼밋 대기 시 적용할 우선순위 등급
+     */
+    RequestPriority value();
+}
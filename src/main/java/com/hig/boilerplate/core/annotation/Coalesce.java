@@ -0,0 +1,44 @@
+package com.hig.boilerplate.core.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>같은 인자로 동시에 들어온 읽기 전용 호출을 하나의 실행으로 합치는(single-flight) 어노테이션입니다.</p>
+ *
+ * <p>
+ * 캐시가 비는 순간 수백 개의 Virtual Thread 가 같은 조회 메서드를 같은 인자로 호출하면,
+ * 각각이 Bulkhead 퍼밋을 얻고 같은 쿼리를 실행합니다.
+ * 이 어노테이션이 선언된 메서드는 메서드와 인자({@code equals}/{@code hashCode})가 같은 호출이 실행 중이면
+ * 새로 실행하지 않고 먼저 시작한 호출(leader)의 결과나 예외를 함께 받습니다.
+ * Bulkhead 퍼밋과 DB 커넥션은 leader 만 사용합니다.
+ * </p>
+ *
+ * <h3>사용법</h3>
+ * <pre><code>
+ * {@literal @Coalesce}
+ * {@literal @Transactional(readOnly = true)}
+ * public ProductDto findProduct(long productId) { ... }
+ * </code></pre>
+ *
+ * <h3>주의사항</h3>
+ * <ul>
+ *     <li>읽기 전용 트랜잭션이거나 트랜잭션이 없는 메서드에만 사용할 수 있습니다. 쓰기 트랜잭션에 선언하면 호출 시 {@link IllegalStateException} 이 발생합니다.</li>
+ *     <li>같은 결과 객체가 여러 호출자에게 전달되므로 반환 값은 변경하지 않는 DTO / record 여야 합니다.</li>
+ *     <li>이미 트랜잭션(Bulkhead 스코프) 안에서 호출되면 합치지 않고 그대로 실행합니다.
+ *     바깥 트랜잭션이 쓴 내용을 보지 못하는 다른 스레드의 결과를 받지 않도록 하기 위함입니다.</li>
+ *     <li>결과를 보관하지 않으므로 실행이 끝난 뒤에 들어온 호출은 다시 실행됩니다. (캐시가 아님)</li>
+ *     <li>leader 가 실패하면 follower 는 leader 가 던진 예외 객체를 그대로 받으므로, 스택 트레이스는 leader 의 것입니다.
+ *     단, leader 가 자신의 처리 시한이 지나 {@link com.hig.boilerplate.core.exception.DeadlineExceededException} 으로 실패했고
+ *     follower 의 시한이 남아 있으면 follower 는 다시 합류하거나 직접 실행합니다.
+ *     leader 의 시한으로 설정된 {@code statement_timeout} 에 걸린 쿼리 취소 같은 다른 실패는 그대로 전달됩니다.</li>
+ * </ul>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesce {
+}
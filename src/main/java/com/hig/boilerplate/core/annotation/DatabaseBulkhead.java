@@ -0,0 +1,62 @@
+package com.hig.boilerplate.core.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>DB 접근 시 사용할 Bulkhead 를 지정하는 어노테이션입니다.</p>
+ *
+ * <p>
+ * {@link com.hig.boilerplate.core.aop.TransactionalBulkheadAspect} 는 기본적으로 모든 트랜잭션과 Repository 호출에
+ * 하나의 기본 Bulkhead({@code boilerplate.bulkhead.default-name})를 적용합니다.
+ * 느린 리포팅 쿼리처럼 성격이 다른 작업이 같은 세마포어를 나눠 쓰면, 그 작업이 퍼밋을 오래 점유하는 동안
+ * 주문 처리와 같은 핵심 경로가 커넥션을 얻지 못하게 됩니다.
+ * 이 어노테이션으로 해당 작업을 별도의 Bulkhead 로 분리하면 서로의 동시성 한도에 영향을 주지 않습니다.
+ * </p>
+ *
+ * <h3>사용법</h3>
+ * <p>
+ * 클래스 또는 메서드에 적용할 수 있으며, 메서드에 선언된 값이 클래스에 선언된 값보다 우선합니다.
+ * Bulkhead 의 크기는 다른 Bulkhead 와 동일하게 {@code resilience4j.bulkhead.instances.<이름>} 에서 설정합니다.
+ * 모든 Bulkhead 의 {@code maxConcurrentCalls} 합이 커넥션 풀 크기를 넘지 않도록 구성하는 것을 권장합니다.
+ * 설정되지 않은 이름을 지정하면 해당 메서드를 호출할 때 {@link IllegalStateException} 이 발생합니다.
+ * </p>
+ *
+ * <pre><code>
+ * resilience4j:
+ *   bulkhead:
+ *     instances:
+ *       orderDatabase:
+ *         maxConcurrentCalls: 15
+ *       reporting:
+ *         maxConcurrentCalls: 4
+ *
+ * {@literal @Service}
+ * {@literal @DatabaseBulkhead("reporting")}
+ * public class SalesReportService {
+ *     {@literal @Transactional(readOnly = true)}
+ *     public Report monthly(YearMonth month) { ... }
+ * }
+ * </code></pre>
+ *
+ * <h3>주의사항</h3>
+ * <p>
+ * 이미 퍼밋을 가진 스코프 안에서 호출된 경우(중첩 호출)에는 바깥 호출의 Bulkhead 를 그대로 사용합니다.
+ * 따라서 이 어노테이션은 트랜잭션의 진입점이 되는 메서드나 클래스에 선언해야 효과가 있습니다.
+ * </p>
+ */
+@Documented
+@Inherited
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DatabaseBulkhead {
+    /**
+     * 사용할 Bulkhead 의 이름을 지정합니다.
+     * @return {@code resilience4j.bulkhead.instances} 에 정의된 Bulkhead 이름
+     */
+    String value();
+}
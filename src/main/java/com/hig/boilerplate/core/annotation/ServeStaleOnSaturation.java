@@ -0,0 +1,62 @@
+package com.hig.boilerplate.core.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>DB 가 포화되어 호출이 거절되면 같은 인자로 마지막에 성공한 결과를 대신 반환하는 어노테이션입니다.</p>
+ *
+ * <p>
+ * Bulkhead 가 가득 차면 1초 전에 응답한 데이터라도 조회 요청은 모두 실패합니다.
+ * 이 어노테이션이 선언된 메서드는 메서드와 인자({@code equals}/{@code hashCode})별로 마지막 성공 결과를 보관하고,
+ * 다음 예외로 실패하면 보관한 결과를 반환하여 DB 장애 동안 조회 기능이 점진적으로 저하되도록 합니다.
+ * </p>
+ * <ul>
+ *     <li>{@link com.hig.boilerplate.core.exception.BulkheadRejectedException}, {@code BulkheadFullException} - DB Bulkhead 퍼밋을 얻지 못함</li>
+ *     <li>{@link com.hig.boilerplate.core.exception.BoundedConcurrencyRejectedException} - {@link BoundedConcurrency} 허가를 얻지 못함</li>
+ *     <li>{@code CallNotPermittedException} - DB 호출을 감싼 CircuitBreaker 가 열려 있음</li>
+ *     <li>{@code CannotCreateTransactionException}, {@code DataAccessResourceFailureException} - 커넥션을 얻지 못하는 등 DB 에 접근할 수 없음</li>
+ * </ul>
+ * <p>
+ * 오래된 결과를 반환한 HTTP 요청에는 {@code X-Served-Stale: true} 와 결과의 나이({@code Age}, 초) 헤더를 추가합니다.
+ * 반환 횟수는 {@code stale.served} 지표로 기록합니다.
+ * </p>
+ *
+ * <h3>사용법</h3>
+ * <pre><code>
+ * {@literal @ServeStaleOnSaturation(maxEntries = 10_000, maxStaleness = "10m")}
+ * {@literal @Transactional(readOnly = true)}
+ * public ProductDto findProduct(long productId) { ... }
+ * </code></pre>
+ *
+ * <h3>주의사항</h3>
+ * <ul>
+ *     <li>읽기 전용 트랜잭션이거나 트랜잭션이 없는 메서드에만 사용할 수 있습니다. 쓰기 트랜잭션에 선언하면 호출 시 {@link IllegalStateException} 이 발생합니다.</li>
+ *     <li>결과를 만든 뒤 반환하는 동기 메서드에만 사용할 수 있습니다. {@code void}, {@code Future}, {@code CompletionStage} 를 반환하면 예외가 발생합니다.</li>
+ *     <li>같은 결과 객체가 여러 호출자에게 전달되므로 반환 값은 변경하지 않는 DTO / record 여야 합니다. 인자도 캐시 키로 보관되므로 변경하지 않아야 합니다.</li>
+ *     <li>이미 트랜잭션(Bulkhead 스코프) 안에서 호출되면 그대로 실행합니다.
+ *     안쪽에서 발생한 예외로 바깥 트랜잭션이 이미 rollback-only 로 표시되므로 결과를 대신 반환할 수 없기 때문입니다.</li>
+ *     <li>{@link Coalesce} 와 함께 선언하면 합쳐진 호출이 모두 실패할 때 각각 보관한 결과를 반환합니다.</li>
+ * </ul>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ServeStaleOnSaturation {
+
+    /**
+     * 보관할 결과의 최대 개수를 지정합니다. 넘으면 가장 오래 사용하지 않은 결과부터 제거합니다.
+     * @return 메서드당 최대 보관 개수
+     */
+    int maxEntries() default 1000;
+
+    /**
+     * 대신 반환할 수 있는 결과의 최대 나이를 지정합니다. {@code 30s}, {@code 5m} 형식이나 {@code ${...}} 프로퍼티 참조를 사용할 수 있습니다.
+     * 이보다 오래된 결과만 있으면 원래 예외를 그대로 던집니다.
+     * @return 최대 나이 (기본값 5분)
+     */
+    String maxStaleness() default "5m";
+}
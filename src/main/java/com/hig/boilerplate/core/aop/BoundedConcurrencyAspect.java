@@ -1,18 +1,32 @@
 package com.hig.boilerplate.core.aop;
 
 import com.hig.boilerplate.core.annotation.BoundedConcurrency;
+import com.hig.boilerplate.core.concurrency.AsyncSemaphore;
+import com.hig.boilerplate.core.concurrency.KeyedSemaphores;
+import com.hig.boilerplate.core.exception.BoundedConcurrencyRejectedException;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationContext;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.BaseStream;
 
 /**
  * {@link BoundedConcurrency} 어노테이션을 처리하는 AOP Aspect 입니다.
@@ -20,6 +34,23 @@ import java.util.concurrent.Semaphore;
  * 이 Aspect는 {@code @BoundedConcurrency}가 붙은 메서드 실행을 가로채,
  * 메서드 실행 전에 지정된 {@link Semaphore}의 허가를 획득하고,
  * 메서드가 반환한 {@link CompletableFuture}가 완료될 때 허가를 반납하는 로직을 수행합니다.
+ * 메서드별 실행 정보는 {@link BoundedConcurrencyRegistry} 가 기동 시점에 만들어 두며, 호출 경로에서는 이를 조회하기만 합니다.
+ * </p>
+ * <p>
+ * {@link BoundedConcurrency.Acquisition#ASYNC} 모드에서는 허가를 기다리지 않고 즉시 {@link CompletableFuture}를 반환하며,
+ * 허가가 확보된 시점에 {@link BoundedConcurrency#executor()} 로 지정된 Executor 에서 원래의 메서드를 실행합니다.
+ * 호출자가 반환된 Future 를 취소하면 대기 중인 작업은 대기열에서 제거되고, 실행 중인 작업은 interrupt 됩니다. ({@link BoundedInvocation})
+ * </p>
+ * <p>
+ * {@link BoundedConcurrency#maxWait()} 안에 허가를 얻지 못하면 {@link BoundedConcurrency#mode()} 에 따라
+ * {@link BoundedConcurrencyRejectedException} 으로 실패하거나 fallback 메서드의 결과를 반환합니다.
+ * </p>
+ * <p>
+ * {@link BoundedConcurrency#key()} 가 지정되면 전역 Semaphore 에 앞서 키별 Semaphore({@link KeyedSemaphores})의 허가를 먼저 얻습니다.
+ * </p>
+ * <p>
+ * 허가 대기 / 점유 시간, 거절과 interrupt 횟수, 실행 중인 호출 수는 Semaphore 이름과 메서드별로
+ * {@code bounded.concurrency.permit.*} 지표에 기록됩니다. ({@link com.hig.boilerplate.core.metrics.ConcurrencyMetrics})
  * </p>
  *
  * <h3>사용법</h3>
@@ -37,55 +68,341 @@ import java.util.concurrent.Semaphore;
 public class BoundedConcurrencyAspect {
 
     private static final Logger log = LoggerFactory.getLogger(BoundedConcurrencyAspect.class);
-    private final ApplicationContext context;
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+    private final BoundedConcurrencyRegistry registry;
 
-    public BoundedConcurrencyAspect(ApplicationContext context) {
-        this.context = context;
+    public BoundedConcurrencyAspect(BoundedConcurrencyRegistry registry) {
+        this.registry = registry;
     }
 
     @Around("@annotation(com.hig.boilerplate.core.annotation.BoundedConcurrency)")
     public Object controlConcurrency(ProceedingJoinPoint joinPoint) throws Throwable {
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        BoundedConcurrency annotation = method.getAnnotation(BoundedConcurrency.class);
+        BoundedConcurrencyDescriptor descriptor = registry.descriptorOf(signature.getMethod(), joinPoint.getTarget());
+        Method method = descriptor.method();
 
-        // 어노테이션에 지정된 이름으로 Semaphore Bean을 찾는다.
-        Semaphore semaphore = context.getBean(annotation.value(), Semaphore.class);
+        if (descriptor.acquisition() == BoundedConcurrency.Acquisition.ASYNC) {
+            return controlAsync(joinPoint, descriptor);
+        }
 
+        BoundedConcurrencyPermit permit;
+        long acquiredAt;
         try {
             // Semaphore 허가 요청
-            semaphore.acquire();
-            log.trace("Semaphore acquired for [{}]. available permits: {}", method.getName(), semaphore.availablePermits());
+            long requestedAt = System.nanoTime();
+            permit = acquire(joinPoint, descriptor);
+            if (permit == null) {
+                return reject(joinPoint, descriptor);
+            }
+            acquiredAt = System.nanoTime();
+            descriptor.meters().acquired(acquiredAt - requestedAt);
+            if (log.isTraceEnabled()) {
+                log.trace("Semaphore acquired for [{}]. available permits: {}", method.getName(), descriptor.semaphore().availablePermits());
+            }
         } catch (InterruptedException e) {
             log.warn("Semaphore acquire interrupted for method [{}].", method.getName(), e);
+            descriptor.meters().interrupted();
             Thread.currentThread().interrupt();
-            // 메서드가 CompletableFuture를 반환할 경우를 대비해 실패한 Future를 반환
-            if (CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
-                return CompletableFuture.failedFuture(e);
-            }
-            throw e;
+            return failed(descriptor, e);
         } catch (Exception e) {
             log.warn("Semaphore acquire failed for method [{}].", method.getName(), e);
-            if (CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
-                return CompletableFuture.failedFuture(e);
-            }
-            throw e;
+            return failed(descriptor, e);
         }
 
-        // 원래의 메서드를 실행하고, 완료되면(whenComplete) Semaphore를 반납
+        // 원래의 메서드를 실행하고, 반환 타입에 맞는 시점에 Semaphore를 반납
+        Object result;
         try {
-            // joinPoint.proceed()는 @Async가 적용된 프록시 메서드를 실행
-            // 반환 값은 CompletableFuture
-            return ((CompletableFuture<?>) joinPoint.proceed())
-                .whenComplete((result, throwable) -> {
-                    semaphore.release();
-                    log.trace("Semaphore released for [{}]. available permits: {}", method.getName(), semaphore.availablePermits());
-                });
+            // joinPoint.proceed()는 @Async가 적용된 경우 프록시 메서드를 실행
+            result = joinPoint.proceed();
         } catch (Throwable e) {
-            // joinPoint.proceed() 자체에서 예외가 발생한 경우 (e.g. CompletableFuture가 아닌 타입을 반환)
-            semaphore.release();
+            permit.release(acquiredAt);
             log.trace("Semaphore released for [{}] due to an exception during proceed.", method.getName(), e);
             throw e;
         }
+        if (result == null || descriptor.returnKind() == BoundedConcurrencyDescriptor.ReturnKind.VALUE) {
+            // 동기 메서드 (Virtual Thread 위의 블로킹 호출 등)
+            permit.release(acquiredAt);
+            return result;
+        }
+        return switch (descriptor.returnKind()) {
+            case FUTURE -> ((CompletableFuture<?>) result)
+                .whenComplete((value, throwable) -> {
+                    permit.release(acquiredAt);
+                    if (log.isTraceEnabled()) {
+                        log.trace("Semaphore released for [{}]. available permits: {}",
+                            method.getName(), descriptor.semaphore().availablePermits());
+                    }
+                });
+            case STREAM -> PermitReleasingResults.stream((BaseStream<?, ?>) result, permit, acquiredAt);
+            case ITERATOR -> PermitReleasingResults.iterator((Iterator<?>) result, permit, acquiredAt);
+            case PUBLISHER -> PermitReleasingResults.publisher((Flow.Publisher<?>) result, permit, acquiredAt);
+            case VALUE -> result;
+        };
+    }
+
+    /**
+     * 허가 획득 실패를 반환 타입에 맞게 전달합니다. Future 를 반환하는 메서드는 실패한 Future 로, 그 외에는 예외로 전달합니다.
+     */
+    private static Object failed(BoundedConcurrencyDescriptor descriptor, Exception e) throws Exception {
+        if (descriptor.returnKind() == BoundedConcurrencyDescriptor.ReturnKind.FUTURE) {
+            return CompletableFuture.failedFuture(e);
+        }
+        throw e;
+    }
+
+    /**
+     * 키 Semaphore(지정된 경우)와 전역 Semaphore 의 허가를 순서대로 요청합니다.
+     * 전역 Semaphore 에서는 {@link BoundedConcurrency#weight()} 만큼의 허가를 한 번에 얻습니다.
+     * 키 허가를 먼저 얻으므로, 한 키의 호출이 몰려도 전역 허가를 쥔 채 대기하지 않습니다.
+     *
+     * @return 획득한 허가. 최대 대기 시간 안에 얻지 못했으면 null
+     */
+    private BoundedConcurrencyPermit acquire(ProceedingJoinPoint joinPoint, BoundedConcurrencyDescriptor descriptor)
+        throws InterruptedException {
+        long startedAt = System.nanoTime();
+        int permits = weightOf(joinPoint, descriptor);
+        KeyedSemaphores.Lease lease = null;
+        Object key = keyOf(joinPoint, descriptor);
+        if (key != null) {
+            lease = descriptor.keyedSemaphores().lease(key);
+            if (lease == null) {
+                return null;
+            }
+            boolean acquired = false;
+            try {
+                acquired = acquire(lease.semaphore(), 1, descriptor.maxWait());
+            } finally {
+                if (!acquired) {
+                    lease.close();
+                }
+            }
+            if (!acquired) {
+                return null;
+            }
+        }
+
+        boolean acquired = false;
+        try {
+            acquired = acquire(descriptor.semaphore(), permits, remaining(descriptor.maxWait(), startedAt));
+            return acquired ? permitOf(descriptor, permits, lease) : null;
+        } finally {
+            if (!acquired) {
+                BoundedConcurrencyPermit.releaseKey(lease);
+            }
+        }
+    }
+
+    private static boolean acquire(AsyncSemaphore semaphore, int permits, Duration maxWait) throws InterruptedException {
+        if (maxWait == null) {
+            semaphore.acquire(permits);
+            return true;
+        }
+        return maxWait.isZero() ? semaphore.tryAcquire(permits) : semaphore.tryAcquire(permits, maxWait);
+    }
+
+    /**
+     * 허가를 기다리지 않고 즉시 결과 Future 를 반환합니다.
+     * 허가가 확보되면 지정된 Executor 에서 원래의 메서드를 실행하고, 그 결과로 반환한 Future 를 완료시킵니다.
+     */
+    private CompletableFuture<Object> controlAsync(ProceedingJoinPoint joinPoint, BoundedConcurrencyDescriptor descriptor) {
+        long startedAt = System.nanoTime();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+
+        int permits = weightOf(joinPoint, descriptor);
+        Object key = keyOf(joinPoint, descriptor);
+        if (key == null) {
+            acquireAsync(joinPoint, descriptor, permits, null, startedAt, result);
+            return result;
+        }
+
+        KeyedSemaphores.Lease lease = descriptor.keyedSemaphores().lease(key);
+        if (lease == null) {
+            pipe(rejectAsync(joinPoint, descriptor), result);
+            return result;
+        }
+        CompletableFuture<Void> keyPermit = lease.semaphore().acquireAsync(descriptor.maxWait());
+        cancelWith(result, keyPermit);
+        keyPermit.whenComplete((granted, throwable) -> {
+            if (throwable != null) {
+                lease.close();
+                acquireFailed(joinPoint, descriptor, throwable, result);
+                return;
+            }
+            if (result.isDone()) {
+                // 허가를 받는 사이 호출자가 결과를 취소한 경우
+                BoundedConcurrencyPermit.releaseKey(lease);
+                return;
+            }
+            acquireAsync(joinPoint, descriptor, permits, lease, startedAt, result);
+        });
+        return result;
+    }
+
+    /**
+     * 전역 Semaphore 의 허가를 비동기로 요청하고, 확보되면 Executor 에 실행을 위임합니다.
+     */
+    private void acquireAsync(ProceedingJoinPoint joinPoint, BoundedConcurrencyDescriptor descriptor, int permits,
+                              KeyedSemaphores.Lease lease, long startedAt, CompletableFuture<Object> result) {
+        Method method = descriptor.method();
+        AsyncSemaphore semaphore = descriptor.semaphore();
+
+        CompletableFuture<Void> acquired = semaphore.acquireAsync(permits, remaining(descriptor.maxWait(), startedAt));
+        cancelWith(result, acquired);
+        acquired.whenComplete((granted, throwable) -> {
+            if (throwable != null) {
+                BoundedConcurrencyPermit.releaseKey(lease);
+                acquireFailed(joinPoint, descriptor, throwable, result);
+                return;
+            }
+            BoundedConcurrencyPermit permit = permitOf(descriptor, permits, lease);
+            long acquiredAt = System.nanoTime();
+            descriptor.meters().acquired(acquiredAt - startedAt);
+            if (result.isDone()) {
+                // 허가를 받는 사이 호출자가 결과를 취소한 경우
+                permit.release(acquiredAt);
+                return;
+            }
+            if (log.isTraceEnabled()) {
+                log.trace("Semaphore acquired for [{}]. available permits: {}", method.getName(), semaphore.availablePermits());
+            }
+            BoundedInvocation.dispatch(joinPoint, descriptor.executor(), permit, acquiredAt, result);
+        });
+    }
+
+    private void acquireFailed(ProceedingJoinPoint joinPoint, BoundedConcurrencyDescriptor descriptor,
+                               Throwable throwable, CompletableFuture<Object> result) {
+        if (throwable instanceof TimeoutException) {
+            // 최대 대기 시간 초과
+            pipe(rejectAsync(joinPoint, descriptor), result);
+        } else if (throwable instanceof CancellationException) {
+            // 호출자가 결과를 취소하여 대기가 중단됨
+            descriptor.meters().interrupted();
+            result.completeExceptionally(throwable);
+        } else {
+            result.completeExceptionally(throwable);
+        }
+    }
+
+    /**
+     * {@link BoundedConcurrency#key()} 를 호출 인자로 평가합니다.
+     *
+     * @return 키. 키가 지정되지 않았거나 평가 결과가 null 이면 null (키별 제한을 적용하지 않음)
+     */
+    private Object keyOf(ProceedingJoinPoint joinPoint, BoundedConcurrencyDescriptor descriptor) {
+        if (descriptor.key() == null) {
+            return null;
+        }
+        return descriptor.key().getValue(evaluationContextOf(joinPoint, descriptor));
+    }
+
+    /**
+     * {@link BoundedConcurrency#weight()} 를 호출 인자로 평가합니다.
+     *
+     * @return 이번 호출이 점유할 허가 수. 1 이상, 전역 Semaphore 의 전체 허가 수 이하로 보정
+     */
+    private int weightOf(ProceedingJoinPoint joinPoint, BoundedConcurrencyDescriptor descriptor) {
+        if (descriptor.weight() == null) {
+            return 1;
+        }
+        Number weight = descriptor.weight().getValue(evaluationContextOf(joinPoint, descriptor), Number.class);
+        if (weight == null) {
+            return 1;
+        }
+        // 전체 허가 수보다 큰 가중치는 영원히 허가를 얻지 못하므로 상한을 둠
+        return (int) Math.clamp(weight.longValue(), 1, descriptor.semaphore().capacity());
+    }
+
+    private EvaluationContext evaluationContextOf(ProceedingJoinPoint joinPoint, BoundedConcurrencyDescriptor descriptor) {
+        return new MethodBasedEvaluationContext(
+            joinPoint.getTarget(), descriptor.method(), joinPoint.getArgs(), PARAMETER_NAME_DISCOVERER);
+    }
+
+    /**
+     * 여러 단계에 걸쳐 허가를 얻을 때, 앞 단계에서 소요한 시간을 뺀 남은 대기 시간을 계산합니다.
+     */
+    private static Duration remaining(Duration maxWait, long startedAt) {
+        if (maxWait == null || maxWait.isZero()) {
+            return maxWait;
+        }
+        long remaining = maxWait.toNanos() - (System.nanoTime() - startedAt);
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    /**
+     * 호출자가 결과를 취소하거나 {@code orTimeout} 등으로 먼저 실패시키면 허가 대기도 함께 취소합니다.
+     */
+    private static void cancelWith(CompletableFuture<Object> result, CompletableFuture<Void> permit) {
+        result.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                permit.cancel(false);
+            }
+        });
+    }
+
+    /**
+     * 키와 가중치가 없는 호출은 상태가 없으므로 미리 만들어 둔 허가를 공유하여 호출마다 객체를 만들지 않습니다.
+     */
+    private static BoundedConcurrencyPermit permitOf(BoundedConcurrencyDescriptor descriptor, int permits,
+                                                     KeyedSemaphores.Lease lease) {
+        if (permits == 1 && lease == null) {
+            return descriptor.unitPermit();
+        }
+        return new BoundedConcurrencyPermit(descriptor.semaphore(), permits, lease, descriptor.meters());
+    }
+
+    /**
+     * 허가를 얻지 못한 호출을 처리합니다. fallback 메서드가 있으면 그 결과를, 없으면 거절 예외를 반환합니다.
+     */
+    private Object reject(ProceedingJoinPoint joinPoint, BoundedConcurrencyDescriptor descriptor) throws Exception {
+        BoundedConcurrencyRejectedException rejected =
+            new BoundedConcurrencyRejectedException(descriptor.semaphoreName(), descriptor.method().getName());
+        log.debug("Semaphore [{}] rejected method [{}].", descriptor.semaphoreName(), descriptor.method().getName());
+        descriptor.meters().rejected();
+
+        if (descriptor.fallbackMethod() != null) {
+            return invokeFallback(joinPoint, descriptor, rejected);
+        }
+        return failed(descriptor, rejected);
+    }
+
+    private CompletableFuture<?> rejectAsync(ProceedingJoinPoint joinPoint, BoundedConcurrencyDescriptor descriptor) {
+        try {
+            return (CompletableFuture<?>) reject(joinPoint, descriptor);
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Object invokeFallback(ProceedingJoinPoint joinPoint, BoundedConcurrencyDescriptor descriptor,
+                                  BoundedConcurrencyRejectedException rejected) throws Exception {
+        Object[] args = joinPoint.getArgs();
+        if (descriptor.fallbackWithException()) {
+            args = Arrays.copyOf(args, args.length + 1);
+            args[args.length - 1] = rejected;
+        }
+        try {
+            return descriptor.fallbackMethod().invoke(joinPoint.getTarget(), args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getTargetException();
+            if (descriptor.returnKind() == BoundedConcurrencyDescriptor.ReturnKind.FUTURE) {
+                return CompletableFuture.failedFuture(cause);
+            }
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    private static void pipe(CompletableFuture<?> source, CompletableFuture<Object> target) {
+        source.whenComplete((value, throwable) -> pipe(value, throwable, target));
+    }
+
+    private static void pipe(Object value, Throwable throwable, CompletableFuture<Object> target) {
+        if (throwable != null) {
+            target.completeExceptionally(throwable);
+        } else {
+            target.complete(value);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.annotation.BoundedConcurrency;
+import com.hig.boilerplate.core.concurrency.AsyncSemaphore;
+import com.hig.boilerplate.core.concurrency.KeyedSemaphores;
+import com.hig.boilerplate.core.metrics.PermitMeters;
+import org.springframework.expression.Expression;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.stream.BaseStream;
+
+/**
+ * {@link BoundedConcurrency} 가 적용된 메서드 하나에 대한 실행 정보입니다.
+ * {@link BoundedConcurrencyRegistry} 가 기동 시점에 어노테이션 해석과 Bean 조회 결과를 담아 만들며, 호출 경로에서는 읽기만 합니다.
+ *
+ * @param method                대상 메서드
+ * @param returnKind            반환 타입에 따른 허가 반납 시점
+ * @param semaphoreName         Semaphore Bean 이름
+ * @param semaphore             허가를 관리하는 Semaphore
+ * @param acquisition           허가 획득 방식
+ * @param maxWait               허가를 기다릴 최대 시간. null 이면 무기한, 0 이면 대기하지 않음
+ * @param key                   키별 제한에 사용할 키 표현식. 키별 제한이 없으면 null
+ * @param keyedSemaphores       키별 Semaphore. 키별 제한이 없으면 null
+ * @param weight                호출 하나가 점유할 허가 수 표현식. 지정하지 않았으면 null (1개)
+ * @param executor              ASYNC 모드에서 메서드를 실행할 Executor. 그 외에는 null
+ * @param fallbackMethod        허가를 얻지 못했을 때 대신 호출할 메서드. 없으면 null
+ * @param fallbackWithException fallback 메서드가 마지막 인자로 예외를 받는지 여부
+ * @param meters                이 메서드의 허가 대기 / 점유 지표 ({@code bounded.concurrency.permit.*})
+ * @param unitPermit            키와 가중치 없이 허가 하나를 점유한 호출이 공유하는 허가
+ */
+record BoundedConcurrencyDescriptor(
+    Method method,
+    ReturnKind returnKind,
+    String semaphoreName,
+    AsyncSemaphore semaphore,
+    BoundedConcurrency.Acquisition acquisition,
+    Duration maxWait,
+    Expression key,
+    KeyedSemaphores keyedSemaphores,
+    Expression weight,
+    Executor executor,
+    Method fallbackMethod,
+    boolean fallbackWithException,
+    PermitMeters meters,
+    BoundedConcurrencyPermit unitPermit
+) {
+
+    /**
+     * 반환 타입별 허가 반납 시점.
+     */
+    enum ReturnKind {
+        /**
+         * {@link CompletableFuture}: Future 완료 시
+         */
+        FUTURE,
+        /**
+         * {@link BaseStream}: Stream 을 닫을 때
+         */
+        STREAM,
+        /**
+         * {@link Iterator}: 끝까지 순회하거나 닫을 때
+         */
+        ITERATOR,
+        /**
+         * {@link Flow.Publisher}: 구독이 완료, 실패, 취소될 때
+         */
+        PUBLISHER,
+        /**
+         * 그 외 동기 메서드: 메서드가 반환될 때
+         */
+        VALUE;
+
+        static ReturnKind of(Class<?> returnType) {
+            if (CompletableFuture.class.isAssignableFrom(returnType)) {
+                return FUTURE;
+            }
+            if (BaseStream.class.isAssignableFrom(returnType)) {
+                return STREAM;
+            }
+            // 감싼 객체를 반환하므로 인터페이스 타입 그대로 선언된 경우만 지원
+            if (returnType == Iterator.class) {
+                return ITERATOR;
+            }
+            if (returnType == Flow.Publisher.class) {
+                return PUBLISHER;
+            }
+            return VALUE;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.concurrency.AsyncSemaphore;
+import com.hig.boilerplate.core.concurrency.KeyedSemaphores;
+import com.hig.boilerplate.core.metrics.PermitMeters;
+
+/**
+ * {@link com.hig.boilerplate.core.annotation.BoundedConcurrency} 호출 하나가 점유한 허가입니다.
+ * 전역 Semaphore 와 (지정된 경우) 키 Semaphore 를 함께 반납합니다.
+ * <p>
+ * 키와 가중치가 없는 호출은 상태가 없으므로 {@link BoundedConcurrencyDescriptor#unitPermit()} 를 공유합니다.
+ * 그래서 획득 시각은 허가가 아닌 반납하는 쪽이 들고 있다가 {@link #release(long)} 에 넘깁니다.
+ * </p>
+ *
+ * @param semaphore 전역 Semaphore
+ * @param permits   전역 Semaphore 에서 얻은 허가 수
+ * @param lease     키 Semaphore 사용권. 키별 제한이 없으면 null
+ * @param meters    점유 시간을 기록할 지표. 기록하지 않으면 null
+ */
+record BoundedConcurrencyPermit(AsyncSemaphore semaphore, int permits, KeyedSemaphores.Lease lease, PermitMeters meters) {
+
+    /**
+     * @param acquiredAt 허가를 획득한 시각 ({@link System#nanoTime()})
+     */
+    void release(long acquiredAt) {
+        // 가중치만큼의 허가를 한 번에 반납하여 대기자가 일부만 받는 일이 없도록 함
+        semaphore.release(permits);
+        releaseKey(lease);
+        if (meters != null) {
+            meters.released(System.nanoTime() - acquiredAt);
+        }
+    }
+
+    /**
+     * 키 Semaphore 의 허가를 반납하고 사용권을 닫습니다.
+     */
+    static void releaseKey(KeyedSemaphores.Lease lease) {
+        if (lease != null) {
+            lease.semaphore().release();
+            lease.close();
+        }
+    }
+}
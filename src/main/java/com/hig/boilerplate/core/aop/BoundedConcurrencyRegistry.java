@@ -0,0 +1,292 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.annotation.BoundedConcurrency;
+import com.hig.boilerplate.core.concurrency.AsyncSemaphore;
+import com.hig.boilerplate.core.concurrency.KeyedSemaphores;
+import com.hig.boilerplate.core.exception.BoundedConcurrencyRejectedException;
+import com.hig.boilerplate.core.metrics.ConcurrencyMetrics;
+import com.hig.boilerplate.core.metrics.PermitMeters;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link BoundedConcurrency} 가 적용된 메서드를 기동 시점에 찾아 검증하고, 실행 정보를 미리 만들어 두는 Registry 입니다.
+ * <p>
+ * 모든 Bean 의 초기화 직후 {@code @BoundedConcurrency} 메서드를 찾아 다음을 검증하며, 하나라도 실패하면 애플리케이션 기동이 실패합니다.
+ * </p>
+ * <ul>
+ *     <li>반환 타입이 허가 반납 시점을 정할 수 있는 타입인지 (ASYNC 모드는 {@link CompletableFuture} 만 허용)</li>
+ *     <li>Semaphore Bean(또는 이를 산출할 Executor)이 존재하는지</li>
+ *     <li>ASYNC 모드의 Executor, FALLBACK 모드의 fallback 메서드, SpEL 표현식이 올바른지</li>
+ * </ul>
+ * <p>
+ * 검증을 마친 메서드는 불변 {@code Method → BoundedConcurrencyDescriptor} 테이블에 등록되며,
+ * {@link BoundedConcurrencyAspect} 는 호출마다 이 테이블을 조회하기만 하므로 리플렉션이나 Bean 조회를 하지 않습니다.
+ * </p>
+ *
+ * <h3>Semaphore 자동 등록</h3>
+ * <p>
+ * {@code @BoundedConcurrency(executor = "cpuBoundExecutor")} 처럼 Semaphore 이름을 생략하면
+ * {@code cpuBoundExecutorSemaphore} 라는 이름으로 {@code maxPoolSize + queueCapacity} 개의 허가를 가진 Semaphore 가 등록됩니다.
+ * 허가 수가 Executor 가 동시에 받아들일 수 있는 작업 수와 항상 같으므로 {@code TaskRejectedException} 없이
+ * 호출자에게 배압(backpressure)을 전달할 수 있습니다.
+ * 같은 이름의 Semaphore Bean 이 이미 있다면 그대로 사용하며, 용량을 알 수 없는 Executor(Virtual Thread 등)는
+ * Semaphore 를 직접 등록해야 합니다.
+ * </p>
+ */
+@Slf4j
+@Component
+public class BoundedConcurrencyRegistry implements BeanPostProcessor, BeanFactoryAware {
+
+    private static final String SEMAPHORE_SUFFIX = "Semaphore";
+    private static final ExpressionParser EXPRESSION_PARSER = new SpelExpressionParser();
+
+    private ConfigurableListableBeanFactory beanFactory;
+    // Semaphore Bean 이름별 비동기 대기열 (모든 허가 반납은 이 래퍼를 통해야 비동기 대기자가 깨어남)
+    private final Map<String, AsyncSemaphore> semaphores = new ConcurrentHashMap<>();
+    // 호출 경로에서 조회하는 불변 테이블. 등록 시에만 새 테이블로 교체 (copy-on-write)
+    // fallback 메서드와 호출 위치 태그가 대상 클래스에 따라 달라지므로 메서드와 대상 클래스로 구분
+    private volatile Map<MethodClassKey, BoundedConcurrencyDescriptor> descriptors = Map.of();
+    private final ReentrantLock registerLock = new ReentrantLock();
+
+    /**
+     * @return 어노테이션이 사용할 Semaphore Bean 이름. {@code value} 가 비어 있으면 {@code executor + "Semaphore"}
+     */
+    static String semaphoreName(BoundedConcurrency annotation) {
+        return annotation.value().isEmpty() ? annotation.executor() + SEMAPHORE_SUFFIX : annotation.value();
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Class<?> targetClass = AopProxyUtils.ultimateTargetClass(bean);
+        if (!AnnotationUtils.isCandidateClass(targetClass, BoundedConcurrency.class)) {
+            return bean;
+        }
+        ReflectionUtils.doWithMethods(targetClass, method -> register(method, targetClass),
+            method -> AnnotatedElementUtils.hasAnnotation(method, BoundedConcurrency.class));
+        return bean;
+    }
+
+    /**
+     * 메서드의 실행 정보를 반환합니다. 기동 시점에 등록되지 않은 메서드(인터페이스 기반 프록시 등)는 최초 호출 시 등록합니다.
+     */
+    BoundedConcurrencyDescriptor descriptorOf(Method method, Object target) {
+        Class<?> targetClass = AopProxyUtils.ultimateTargetClass(target);
+        BoundedConcurrencyDescriptor descriptor = descriptors.get(new MethodClassKey(method, targetClass));
+        if (descriptor != null) {
+            return descriptor;
+        }
+        return register(method, targetClass);
+    }
+
+    /**
+     * @return Semaphore Bean 이름별 비동기 대기열. 실행 중 크기 변경({@link AsyncSemaphore#resize(int)})에 사용
+     */
+    public Map<String, AsyncSemaphore> semaphores() {
+        return Collections.unmodifiableMap(semaphores);
+    }
+
+    /**
+     * @return 등록된 모든 메서드의 실행 정보
+     */
+    Collection<BoundedConcurrencyDescriptor> descriptors() {
+        return descriptors.values();
+    }
+
+    private BoundedConcurrencyDescriptor register(Method method, Class<?> targetClass) {
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        registerLock.lock();
+        try {
+            BoundedConcurrencyDescriptor descriptor = descriptors.get(key);
+            if (descriptor != null) {
+                return descriptor;
+            }
+            descriptor = describe(method, targetClass);
+            Map<MethodClassKey, BoundedConcurrencyDescriptor> next = new HashMap<>(descriptors);
+            next.put(key, descriptor);
+            descriptors = Map.copyOf(next);
+            log.debug("@BoundedConcurrency method registered: {} -> semaphore [{}]", method, descriptor.semaphoreName());
+            return descriptor;
+        } finally {
+            registerLock.unlock();
+        }
+    }
+
+    private BoundedConcurrencyDescriptor describe(Method method, Class<?> targetClass) {
+        BoundedConcurrency annotation = AnnotatedElementUtils.findMergedAnnotation(method, BoundedConcurrency.class);
+        BoundedConcurrency.Mode mode = annotation.mode();
+
+        Class<?> returnType = method.getReturnType();
+        BoundedConcurrencyDescriptor.ReturnKind returnKind = BoundedConcurrencyDescriptor.ReturnKind.of(returnType);
+        if (Iterator.class.isAssignableFrom(returnType) && returnKind != BoundedConcurrencyDescriptor.ReturnKind.ITERATOR
+            || Flow.Publisher.class.isAssignableFrom(returnType) && returnKind != BoundedConcurrencyDescriptor.ReturnKind.PUBLISHER) {
+            // 구현 타입을 반환하면 허가 반납용 래퍼로 감쌀 수 없음
+            throw new IllegalStateException("@BoundedConcurrency method must declare Iterator or Flow.Publisher as its return type: " + method);
+        }
+        if (annotation.value().isEmpty() && annotation.executor().isEmpty()) {
+            throw new IllegalStateException("@BoundedConcurrency requires a semaphore name or an executor: " + method);
+        }
+
+        // 어노테이션에 지정된 이름(생략 시 Executor 에서 파생된 이름)으로 Semaphore Bean을 찾는다.
+        String semaphoreName = semaphoreName(annotation);
+        registerSemaphoreIfAbsent(method, annotation, semaphoreName);
+        AsyncSemaphore semaphore = semaphoreOf(method, semaphoreName);
+
+        Duration maxWait = null;
+        if (!annotation.maxWait().isEmpty()) {
+            maxWait = DurationStyle.detectAndParse(beanFactory.resolveEmbeddedValue(annotation.maxWait()));
+        }
+        if (mode == BoundedConcurrency.Mode.FAIL_FAST || (mode == BoundedConcurrency.Mode.FALLBACK && maxWait == null)) {
+            maxWait = Duration.ZERO;
+        }
+
+        Expression key = null;
+        KeyedSemaphores keyed = null;
+        if (!annotation.key().isEmpty()) {
+            if (annotation.permitsPerKey() < 1) {
+                throw new IllegalStateException("@BoundedConcurrency(key) requires a positive permitsPerKey: " + method);
+            }
+            if (annotation.maxTrackedKeys() < 1) {
+                throw new IllegalStateException("@BoundedConcurrency(key) requires a positive maxTrackedKeys: " + method);
+            }
+            key = EXPRESSION_PARSER.parseExpression(annotation.key());
+            // 키 표현식의 의미는 메서드마다 다르므로(같은 #id 라도 사용자 / 주문 등) 키 Semaphore 는 메서드별로 따로 둔다
+            keyed = new KeyedSemaphores(annotation.permitsPerKey(), annotation.maxTrackedKeys());
+        }
+
+        Expression weight = annotation.weight().isEmpty() ? null : EXPRESSION_PARSER.parseExpression(annotation.weight());
+
+        Executor executor = null;
+        if (annotation.acquisition() == BoundedConcurrency.Acquisition.ASYNC) {
+            validateAsync(method, annotation);
+            executor = beanFactory.getBean(annotation.executor(), Executor.class);
+        }
+
+        Method fallbackMethod = null;
+        boolean fallbackWithException = false;
+        if (mode == BoundedConcurrency.Mode.FALLBACK) {
+            fallbackMethod = findFallback(method, targetClass, annotation.fallbackMethod(), true);
+            fallbackWithException = fallbackMethod != null;
+            if (fallbackMethod == null) {
+                fallbackMethod = findFallback(method, targetClass, annotation.fallbackMethod(), false);
+            }
+            if (fallbackMethod == null) {
+                throw new IllegalStateException("@BoundedConcurrency(mode = FALLBACK) fallback method ["
+                    + annotation.fallbackMethod() + "] not found on " + targetClass.getName() + ": " + method);
+            }
+            ReflectionUtils.makeAccessible(fallbackMethod);
+        }
+
+        // ConcurrencyMetrics Bean 이 없는 구성(벤치마크 등)에서는 actuator 가 없을 때와 같이 전역 registry 에 기록
+        PermitMeters meters = beanFactory.getBeanProvider(ConcurrencyMetrics.class)
+            .getIfAvailable(() -> new ConcurrencyMetrics(beanFactory.getBeanProvider(MeterRegistry.class)))
+            .semaphore(semaphoreName, ConcurrencyMetrics.callSiteOf(targetClass, method));
+
+        return new BoundedConcurrencyDescriptor(method, returnKind, semaphoreName, semaphore, annotation.acquisition(),
+            maxWait, key, keyed, weight, executor, fallbackMethod, fallbackWithException, meters,
+            new BoundedConcurrencyPermit(semaphore, 1, null, meters));
+    }
+
+    /**
+     * Semaphore 이름을 생략하고 Executor 만 지정한 경우, Executor 의 용량으로 Semaphore Bean 을 만들어 등록합니다.
+     */
+    private void registerSemaphoreIfAbsent(Method method, BoundedConcurrency annotation, String semaphoreName) {
+        if (beanFactory.containsBean(semaphoreName) || annotation.executor().isEmpty()) {
+            return;
+        }
+
+        Executor executor = beanFactory.getBean(annotation.executor(), Executor.class);
+        if (!(executor instanceof ThreadPoolTaskExecutor threadPool)) {
+            throw new IllegalStateException("Cannot derive semaphore [" + semaphoreName + "] from executor ["
+                + annotation.executor() + "] (" + executor.getClass().getName() + "). Register a Semaphore bean explicitly: " + method);
+        }
+        int permits = threadPool.getMaxPoolSize() + threadPool.getQueueCapacity();
+        beanFactory.registerSingleton(semaphoreName, new Semaphore(permits));
+        log.info("Semaphore [{}] registered with {} permits (executor [{}] maxPoolSize {} + queueCapacity {}).",
+            semaphoreName, permits, annotation.executor(), threadPool.getMaxPoolSize(), threadPool.getQueueCapacity());
+    }
+
+    /**
+     * 원래 메서드와 같은 인자(필요 시 마지막에 {@code Throwable} 추가)를 받고 반환 타입이 호환되는 fallback 메서드를 찾습니다.
+     */
+    private Method findFallback(Method method, Class<?> targetClass, String name, boolean withException) {
+        if (name.isEmpty()) {
+            return null;
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (Method candidate : ReflectionUtils.getUniqueDeclaredMethods(targetClass)) {
+            if (!candidate.getName().equals(name)
+                || candidate.getParameterCount() != parameterTypes.length + (withException ? 1 : 0)
+                || !method.getReturnType().isAssignableFrom(candidate.getReturnType())) {
+                continue;
+            }
+            Class<?>[] candidateTypes = candidate.getParameterTypes();
+            if (!Arrays.equals(candidateTypes, 0, parameterTypes.length, parameterTypes, 0, parameterTypes.length)) {
+                continue;
+            }
+            if (withException && !candidateTypes[parameterTypes.length].isAssignableFrom(BoundedConcurrencyRejectedException.class)) {
+                continue;
+            }
+            return candidate;
+        }
+        return null;
+    }
+
+    private void validateAsync(Method method, BoundedConcurrency annotation) {
+        if (annotation.executor().isEmpty()) {
+            throw new IllegalStateException("@BoundedConcurrency(acquisition = ASYNC) requires an executor: " + method);
+        }
+        if (!CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
+            throw new IllegalStateException("@BoundedConcurrency(acquisition = ASYNC) method must return CompletableFuture: " + method);
+        }
+        // @Async 는 다른 Aspect 보다 먼저 실행되어 이미 Executor 스레드 위에서 허가를 기다리게 되므로 함께 사용할 수 없음
+        if (AnnotatedElementUtils.hasAnnotation(method, Async.class)
+            || AnnotatedElementUtils.hasAnnotation(method.getDeclaringClass(), Async.class)) {
+            throw new IllegalStateException("@BoundedConcurrency(acquisition = ASYNC) must not be combined with @Async: " + method);
+        }
+    }
+
+    private AsyncSemaphore semaphoreOf(Method method, String name) {
+        if (!beanFactory.containsBean(name)) {
+            throw new IllegalStateException("@BoundedConcurrency semaphore bean [" + name + "] not found: " + method);
+        }
+        return semaphores.computeIfAbsent(name, key -> new AsyncSemaphore(beanFactory.getBean(key, Semaphore.class)));
+    }
+}
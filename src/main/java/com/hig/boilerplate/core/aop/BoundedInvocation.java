@@ -0,0 +1,156 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.async.RequestContextTaskDecorator.DecoratedTask;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link com.hig.boilerplate.core.annotation.BoundedConcurrency.Acquisition#ASYNC} 모드에서 Executor 에 위임하는 메서드 실행 하나입니다.
+ * <p>
+ * 호출자가 반환된 Future 를 취소하거나 {@code orTimeout} 등으로 먼저 실패시키면 실행을 중단합니다.
+ * </p>
+ * <ul>
+ *     <li>아직 대기열에 있으면 대기열에서 제거하고 허가를 즉시 반납합니다.
+ *     {@link com.hig.boilerplate.core.async.RequestContextTaskDecorator} 로 감싸 대기열에 들어간 작업도 함께 찾아 제거합니다.</li>
+ *     <li>실행 중이면 실행 스레드를 interrupt 하고, 메서드가 반환한 Future 도 취소합니다.
+ *     허가는 메서드 본문이 끝나고 반환한 Future 가 완료된 뒤에 반납합니다.</li>
+ * </ul>
+ * <p>
+ * interrupt 는 {@link FutureTask} 를 통해 전달되므로, 실행이 끝나 다른 작업을 처리 중인 스레드가 잘못 interrupt 되지 않습니다.
+ * </p>
+ */
+final class BoundedInvocation implements Runnable {
+
+    // 실행 스레드 interrupt 를 안전하게 처리하기 위해 FutureTask 로 감쌈
+    private final FutureTask<Void> task;
+    private final Executor executor;
+    private final BoundedConcurrencyPermit permit;
+    // 허가를 획득한 시각. 반납 시 점유 시간 기록에 사용
+    private final long acquiredAt;
+    private final CompletableFuture<Object> result;
+    // 실행 또는 실행 전 취소 중 먼저 일어난 쪽만 허가 반납을 책임지도록 보장
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    // 메서드가 반환한 Future. 본문이 끝나기 전에는 null
+    private volatile CompletableFuture<?> returned;
+
+    private BoundedInvocation(ProceedingJoinPoint joinPoint, Executor executor, BoundedConcurrencyPermit permit,
+                              long acquiredAt, CompletableFuture<Object> result) {
+        this.task = new FutureTask<>(() -> {
+            returned = proceed(joinPoint);
+            return null;
+        });
+        this.executor = executor;
+        this.permit = permit;
+        this.acquiredAt = acquiredAt;
+        this.result = result;
+    }
+
+    /**
+     * 실행을 Executor 에 위임합니다. 허가는 이미 획득된 상태여야 하며, 이후 반납은 이 객체가 책임집니다.
+     */
+    static void dispatch(ProceedingJoinPoint joinPoint, Executor executor, BoundedConcurrencyPermit permit,
+                         long acquiredAt, CompletableFuture<Object> result) {
+        new BoundedInvocation(joinPoint, executor, permit, acquiredAt, result).dispatch();
+    }
+
+    private void dispatch() {
+        try {
+            executor.execute(this);
+        } catch (RuntimeException e) {
+            // TaskRejectedException 등 실행 위임 실패
+            if (claimed.compareAndSet(false, true)) {
+                permit.release(acquiredAt);
+                result.completeExceptionally(e);
+            }
+            return;
+        }
+        result.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                abandon();
+            }
+        });
+    }
+
+    @Override
+    public void run() {
+        if (!claimed.compareAndSet(false, true)) {
+            // 실행 전에 취소되어 허가가 이미 반납됨
+            return;
+        }
+        task.run();
+
+        CompletableFuture<?> future = returned;
+        if (future == null) {
+            // 메서드 본문이 예외로 끝났거나 Future 를 반환하기 전에 중단됨
+            permit.release(acquiredAt);
+            if (task.state() == Future.State.FAILED) {
+                result.completeExceptionally(task.exceptionNow());
+            } else {
+                result.cancel(false);
+            }
+            return;
+        }
+        if (result.isDone()) {
+            // 본문 실행 중 호출자가 포기한 경우
+            future.cancel(true);
+        }
+        future.whenComplete((value, throwable) -> {
+            permit.release(acquiredAt);
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    /**
+     * 호출자가 결과를 포기했을 때 실행을 중단합니다.
+     */
+    private void abandon() {
+        if (claimed.compareAndSet(false, true)) {
+            // 아직 실행 전 - 대기열에서 제거하고 허가를 즉시 반납
+            task.cancel(false);
+            removeFromQueue();
+            permit.release(acquiredAt);
+            return;
+        }
+        // 실행 중이면 interrupt (이미 끝났다면 아무 일도 일어나지 않음)
+        task.cancel(true);
+        CompletableFuture<?> future = returned;
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    private void removeFromQueue() {
+        ThreadPoolExecutor threadPool = switch (executor) {
+            case ThreadPoolTaskExecutor taskExecutor -> taskExecutor.getThreadPoolExecutor();
+            case ThreadPoolExecutor pool -> pool;
+            default -> null;
+        };
+        if (threadPool == null || threadPool.remove(this)) {
+            return;
+        }
+        // TaskDecorator 를 쓰는 Executor 의 대기열에는 감싼 작업이 들어 있으므로 원래 작업으로 찾아 제거
+        threadPool.getQueue().removeIf(queued -> queued instanceof DecoratedTask decorated && decorated.delegate() == this);
+    }
+
+    private static CompletableFuture<?> proceed(ProceedingJoinPoint joinPoint) throws Exception {
+        try {
+            return (CompletableFuture<?>) joinPoint.proceed();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+}
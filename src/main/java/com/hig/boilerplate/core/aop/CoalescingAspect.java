@@ -0,0 +1,118 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.annotation.Coalesce;
+import com.hig.boilerplate.core.bulkhead.BulkheadScope;
+import com.hig.boilerplate.core.deadline.RequestDeadline;
+import com.hig.boilerplate.core.exception.DeadlineExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link Coalesce} 가 선언된 메서드의 동시 호출을 하나의 실행으로 합칩니다.
+ * <p>
+ * {@link TransactionalBulkheadAspect} 보다 바깥에서 실행되어야 follower 가 Bulkhead 퍼밋을 얻지 않으므로
+ * {@link StaleOnSaturationAspect} 다음 순서로 적용하며, {@link TransactionalBulkheadAspect} 는 그 다음 순서를 사용합니다.
+ * </p>
+ * <p>
+ * 처리 시한({@link RequestDeadline})이 바인딩되어 있으면 follower 는 남은 시간까지만 leader 를 기다립니다.
+ * leader 가 자신의 처리 시한이 지나 {@link DeadlineExceededException} 으로 실패했는데 follower 의 시한은 남아 있으면,
+ * follower 는 그 예외를 받지 않고 다시 합류하거나 직접 실행합니다.
+ * </p>
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class CoalescingAspect {
+
+    // follower 가 leader 의 결과 대신 다시 시도해야 함을 나타내는 값
+    private static final Object RETRY = new Object();
+
+    // 실행 중인 호출 (leader 의 실행이 끝나면 제거)
+    private final Map<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // 쓰기 트랜잭션을 합치면 호출자마다 기대하는 변경이 한 번만 일어나므로 허용하지 않음
+    private final ReadOnlyTransactionGuard readOnlyGuard = new ReadOnlyTransactionGuard("@Coalesce");
+
+    @Around("@annotation(com.hig.boilerplate.core.annotation.Coalesce)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        readOnlyGuard.verify(method, targetClass);
+
+        // 이미 트랜잭션 안이면 바깥 트랜잭션의 커넥션으로 실행 (다른 스레드의 결과를 받지 않음)
+        BulkheadScope scope = BulkheadScope.current();
+        if (scope != null && scope.ownedByCurrentThread()) {
+            return joinPoint.proceed();
+        }
+
+        CallKey key = new CallKey(method, targetClass, Arrays.asList(joinPoint.getArgs().clone()));
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader;
+        while ((leader = inFlight.putIfAbsent(key, call)) != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Coalesced call to [{}] with in-flight execution.", joinPoint.getSignature().toShortString());
+            }
+            Object result = await(leader, joinPoint);
+            if (result != RETRY) {
+                return result;
+            }
+        }
+
+        try {
+            Object result = joinPoint.proceed();
+            inFlight.remove(key, call);
+            call.complete(result);
+            return result;
+        } catch (Throwable e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> leader, ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestDeadline deadline = RequestDeadline.current();
+        try {
+            return deadline == null
+                ? leader.get()
+                : leader.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DeadlineExceededException && (deadline == null || !deadline.isExpired())) {
+                // leader 가 자신의 더 짧은 시한에 걸려 실패 - 이 호출의 시한은 남아 있으므로 다시 합류하거나 직접 실행
+                return RETRY;
+            }
+            // leader 가 던진 예외를 그대로 전달
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException(joinPoint.getSignature().toShortString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for coalesced call ["
+                + joinPoint.getSignature().toShortString() + "].");
+        }
+    }
+
+    /**
+     * @param args 호출 인자. 각 인자의 {@code equals}/{@code hashCode} 로 같은 호출인지 판단
+     */
+    private record CallKey(Method method, Class<?> targetClass, List<Object> args) {
+    }
+}
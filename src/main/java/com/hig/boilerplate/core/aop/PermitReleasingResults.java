@@ -0,0 +1,168 @@
+package com.hig.boilerplate.core.aop;
+
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.BaseStream;
+
+/**
+ * 지연 소비되는 반환값({@link java.util.stream.Stream}, {@link Iterator}, {@link Flow.Publisher})을 감싸,
+ * 소비가 끝나는 시점에 허가를 반납하도록 합니다.
+ * <p>
+ * 반환값을 끝까지 소비하지 않고 버리면 허가가 반납되지 않으므로, Stream 은 반드시 닫아야 하며(try-with-resources)
+ * 중간에 멈추는 Iterator 는 {@link AutoCloseable#close()} 를 호출해야 합니다.
+ * </p>
+ */
+final class PermitReleasingResults {
+
+    private PermitReleasingResults() {
+    }
+
+    /**
+     * Stream 이 닫힐 때 허가를 반납합니다.
+     */
+    static Object stream(BaseStream<?, ?> stream, BoundedConcurrencyPermit permit, long acquiredAt) {
+        Runnable release = once(permit, acquiredAt);
+        try {
+            return stream.onClose(release);
+        } catch (RuntimeException e) {
+            // 이미 소비되었거나 닫힌 Stream
+            release.run();
+            throw e;
+        }
+    }
+
+    /**
+     * Iterator 를 끝까지 순회하거나, 순회 중 예외가 발생하거나, {@code close()} 될 때 허가를 반납합니다.
+     */
+    static <T> Iterator<T> iterator(Iterator<T> iterator, BoundedConcurrencyPermit permit, long acquiredAt) {
+        return new ReleasingIterator<>(iterator, once(permit, acquiredAt));
+    }
+
+    /**
+     * 첫 구독이 완료, 실패, 취소될 때 허가를 반납합니다.
+     */
+    static <T> Flow.Publisher<T> publisher(Flow.Publisher<T> publisher, BoundedConcurrencyPermit permit, long acquiredAt) {
+        Runnable release = once(permit, acquiredAt);
+        return subscriber -> publisher.subscribe(new ReleasingSubscriber<>(subscriber, release));
+    }
+
+    private static Runnable once(BoundedConcurrencyPermit permit, long acquiredAt) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                permit.release(acquiredAt);
+            }
+        };
+    }
+
+    private static final class ReleasingIterator<T> implements Iterator<T>, AutoCloseable {
+
+        private final Iterator<T> delegate;
+        private final Runnable release;
+
+        private ReleasingIterator(Iterator<T> delegate, Runnable release) {
+            this.delegate = delegate;
+            this.release = release;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                boolean hasNext = delegate.hasNext();
+                if (!hasNext) {
+                    close();
+                }
+                return hasNext;
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public T next() {
+            try {
+                return delegate.next();
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void remove() {
+            delegate.remove();
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            try {
+                delegate.forEachRemaining(action);
+            } finally {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (delegate instanceof AutoCloseable closeable) {
+                    closeable.close();
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to close iterator", e);
+            } finally {
+                release.run();
+            }
+        }
+    }
+
+    private static final class ReleasingSubscriber<T> implements Flow.Subscriber<T> {
+
+        private final Flow.Subscriber<? super T> delegate;
+        private final Runnable release;
+
+        private ReleasingSubscriber(Flow.Subscriber<? super T> delegate, Runnable release) {
+            this.delegate = delegate;
+            this.release = release;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    try {
+                        subscription.cancel();
+                    } finally {
+                        release.run();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onNext(T item) {
+            delegate.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            release.run();
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            release.run();
+            delegate.onComplete();
+        }
+    }
+}
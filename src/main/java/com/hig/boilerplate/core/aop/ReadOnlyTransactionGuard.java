@@ -0,0 +1,47 @@
+package com.hig.boilerplate.core.aop;
+
+import org.springframework.core.MethodClassKey;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 다른 호출의 결과를 대신 반환하는 어노테이션({@code @Coalesce}, {@code @ServeStaleOnSaturation})이
+ * 읽기 전용 트랜잭션 또는 트랜잭션이 없는 메서드에만 선언되었는지 확인합니다.
+ * <p>
+ * 쓰기 트랜잭션의 결과를 대신 반환하면 호출자마다 기대하는 변경이 일어나지 않습니다.
+ * </p>
+ */
+final class ReadOnlyTransactionGuard {
+
+    private final String annotationName;
+    // 읽기 전용 여부를 확인한 메서드
+    private final Set<MethodClassKey> verified = ConcurrentHashMap.newKeySet();
+    private final TransactionAttributeSource transactionAttributeSource = new AnnotationTransactionAttributeSource();
+
+    /**
+     * @param annotationName 오류 메시지에 표시할 어노테이션 이름 (e.g. {@code @Coalesce})
+     */
+    ReadOnlyTransactionGuard(String annotationName) {
+        this.annotationName = annotationName;
+    }
+
+    /**
+     * @throws IllegalStateException 쓰기 트랜잭션 메서드인 경우
+     */
+    void verify(Method method, Class<?> targetClass) {
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        if (verified.contains(key)) {
+            return;
+        }
+        TransactionAttribute attribute = transactionAttributeSource.getTransactionAttribute(method, targetClass);
+        if (attribute != null && !attribute.isReadOnly()) {
+            throw new IllegalStateException(annotationName + " requires a read-only transaction. method [" + method + "]");
+        }
+        verified.add(key);
+    }
+}
@@ -0,0 +1,210 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.annotation.ServeStaleOnSaturation;
+import com.hig.boilerplate.core.bulkhead.BulkheadScope;
+import com.hig.boilerplate.core.exception.BoundedConcurrencyRejectedException;
+import com.hig.boilerplate.core.exception.BulkheadRejectedException;
+import com.hig.boilerplate.core.metrics.ConcurrencyMetrics;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ServeStaleOnSaturation} 이 선언된 메서드의 마지막 성공 결과를 보관했다가, DB 포화로 거절되면 대신 반환합니다.
+ * <p>
+ * Bulkhead 의 거절({@link TransactionalBulkheadAspect})과 합쳐진 호출의 실패({@link CoalescingAspect})를 모두 받아야 하므로
+ * 가장 높은 우선순위로 적용합니다.
+ * </p>
+ * <p>
+ * 보관 개수는 메서드별로 제한하며, 넘으면 가장 오래 사용하지 않은 결과부터 제거합니다.
+ * 성공할 때마다 결과를 갱신하므로 평상시 비용은 메서드별 lock 아래에서의 {@link LinkedHashMap#put} 한 번입니다.
+ * </p>
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StaleOnSaturationAspect {
+
+    static final String STALE_HEADER = "X-Served-Stale";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    // 오래된 결과를 반환해도 쓰기가 누락되지 않도록 읽기 전용 메서드에만 허용
+    private final ReadOnlyTransactionGuard readOnlyGuard = new ReadOnlyTransactionGuard("@ServeStaleOnSaturation");
+    private final Map<MethodClassKey, StaleResults> caches = new ConcurrentHashMap<>();
+
+    public StaleOnSaturationAspect(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    @Around("@annotation(com.hig.boilerplate.core.annotation.ServeStaleOnSaturation)")
+    public Object serveStale(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        StaleResults results = resultsOf(method, targetClass);
+
+        // 이미 트랜잭션 안이면 안쪽 예외로 바깥 트랜잭션이 rollback-only 가 되므로 결과를 대신 반환할 수 없음
+        BulkheadScope scope = BulkheadScope.current();
+        if (scope != null && scope.ownedByCurrentThread()) {
+            return joinPoint.proceed();
+        }
+
+        List<Object> key = Arrays.asList(joinPoint.getArgs().clone());
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            if (!isSaturation(e)) {
+                throw e;
+            }
+            StaleResult stale = results.get(key);
+            long age = stale != null ? System.nanoTime() - stale.storedAt() : 0;
+            if (stale == null || age > results.maxStalenessNanos()) {
+                throw e;
+            }
+            results.served().increment();
+            markStale(age);
+            if (log.isDebugEnabled()) {
+                log.debug("Served stale result of [{}] ({} ms old). {}", joinPoint.getSignature().toShortString(),
+                    TimeUnit.NANOSECONDS.toMillis(age), e.getMessage());
+            }
+            return stale.value();
+        }
+        results.put(key, new StaleResult(result, System.nanoTime()));
+        return result;
+    }
+
+    private StaleResults resultsOf(Method method, Class<?> targetClass) {
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        StaleResults results = caches.get(key);
+        if (results != null) {
+            return results;
+        }
+        return caches.computeIfAbsent(key, k -> describe(method, targetClass));
+    }
+
+    private StaleResults describe(Method method, Class<?> targetClass) {
+        readOnlyGuard.verify(method, targetClass);
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class || Future.class.isAssignableFrom(returnType) || CompletionStage.class.isAssignableFrom(returnType)) {
+            // 비동기 결과는 실패가 호출이 끝난 뒤에 전달되므로 여기서 받을 수 없음
+            throw new IllegalStateException("@ServeStaleOnSaturation requires a synchronous return value: " + method);
+        }
+        ServeStaleOnSaturation annotation = AnnotatedElementUtils.findMergedAnnotation(method, ServeStaleOnSaturation.class);
+        if (annotation.maxEntries() < 1) {
+            throw new IllegalStateException("@ServeStaleOnSaturation maxEntries must be positive: " + method);
+        }
+        long maxStalenessNanos = DurationStyle.detectAndParse(environment.resolvePlaceholders(annotation.maxStaleness())).toNanos();
+        Counter served = Counter.builder("stale.served")
+            .description("Results served from the stale cache because the database was saturated")
+            .tag("method", ConcurrencyMetrics.callSiteOf(targetClass, method))
+            .register(meterRegistry);
+        return new StaleResults(annotation.maxEntries(), maxStalenessNanos, served);
+    }
+
+    /**
+     * DB 가 포화되었거나 접근할 수 없어 실행되지 못한 경우. 쿼리 자체의 오류는 포함하지 않습니다.
+     */
+    static boolean isSaturation(Throwable e) {
+        return e instanceof BulkheadRejectedException
+            || e instanceof BulkheadFullException
+            || e instanceof BoundedConcurrencyRejectedException
+            || e instanceof CallNotPermittedException
+            || e instanceof CannotCreateTransactionException
+            || e instanceof DataAccessResourceFailureException;
+    }
+
+    /**
+     * HTTP 요청 안에서 호출되었으면 응답에 오래된 결과임을 표시합니다.
+     */
+    private static void markStale(long ageNanos) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                response.setHeader(STALE_HEADER, "true");
+                response.setHeader(HttpHeaders.AGE, Long.toString(TimeUnit.NANOSECONDS.toSeconds(ageNanos)));
+            }
+        }
+    }
+
+    /**
+     * @param storedAt 결과를 보관한 시각 ({@link System#nanoTime()})
+     */
+    private record StaleResult(Object value, long storedAt) {
+    }
+
+    /**
+     * 메서드 하나의 최근 성공 결과. 인자 목록을 키로 최대 {@code maxEntries} 개를 최근 사용 순서로 보관합니다.
+     */
+    private static final class StaleResults {
+
+        private final Map<List<Object>, StaleResult> entries;
+        private final long maxStalenessNanos;
+        private final Counter served;
+
+        StaleResults(int maxEntries, long maxStalenessNanos, Counter served) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, StaleResult> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+            this.maxStalenessNanos = maxStalenessNanos;
+            this.served = served;
+        }
+
+        StaleResult get(List<Object> key) {
+            synchronized (entries) {
+                return entries.get(key);
+            }
+        }
+
+        void put(List<Object> key, StaleResult result) {
+            synchronized (entries) {
+                entries.put(key, result);
+            }
+        }
+
+        long maxStalenessNanos() {
+            return maxStalenessNanos;
+        }
+
+        Counter served() {
+            return served;
+        }
+    }
+}
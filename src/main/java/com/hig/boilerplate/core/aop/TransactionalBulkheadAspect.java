@@ -1,57 +1,225 @@
 package com.hig.boilerplate.core.aop;
 
+import com.hig.boilerplate.core.annotation.BulkheadPriority;
+import com.hig.boilerplate.core.annotation.DatabaseBulkhead;
+import com.hig.boilerplate.core.bulkhead.AdaptiveBulkheadLimiter;
+import com.hig.boilerplate.core.bulkhead.BulkheadProperties;
+import com.hig.boilerplate.core.bulkhead.BulkheadScope;
+import com.hig.boilerplate.core.bulkhead.PermitHolder;
+import com.hig.boilerplate.core.bulkhead.PermitHoldWatchdog;
+import com.hig.boilerplate.core.bulkhead.PriorityBulkheadScheduler;
+import com.hig.boilerplate.core.bulkhead.RequestPriority;
+import com.hig.boilerplate.core.exception.BulkheadRejectedException;
+import com.hig.boilerplate.core.exception.DeadlineExceededException;
+import com.hig.boilerplate.core.exception.ForkedPermitCycleException;
+import com.hig.boilerplate.core.metrics.ConcurrencyMetrics;
+import com.hig.boilerplate.core.metrics.PermitMeters;
 import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import io.github.resilience4j.bulkhead.BulkheadRegistry;
-import lombok.RequiredArgsConstructor;
+import io.github.resilience4j.core.exception.AcquirePermissionCancelledException;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Aspect
 @Component
-@Order(Ordered.HIGHEST_PRECEDENCE)
-@RequiredArgsConstructor
+// StaleOnSaturationAspect 가 거절을 받아 처리하고, CoalescingAspect 로 합쳐진 호출(follower)은 퍼밋을 얻지 않도록 두 Aspect 다음 순서를 사용
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
 public class TransactionalBulkheadAspect {
 
     private final BulkheadRegistry bulkheadRegistry;
-    private static final String BULKHEAD_NAME = "orderDatabase";
+    // 적응형 모드(boilerplate.bulkhead.adaptive.enabled)가 꺼져 있으면 null
+    private final AdaptiveBulkheadLimiter adaptiveLimiter;
+    // 우선순위 대기(boilerplate.bulkhead.priority.enabled)가 꺼져 있으면 null
+    private final PriorityBulkheadScheduler priorityScheduler;
+    // 점유 시간 감시(boilerplate.bulkhead.watchdog.enabled)가 꺼져 있으면 null
+    private final PermitHoldWatchdog watchdog;
+    // 퍼밋 대기 / 점유 시간 등 Bulkhead 지표 (bulkhead.permit.*)
+    private final ConcurrencyMetrics metrics;
+    // CONNECTION 모드에서는 퍼밋을 BulkheadDataSource 가 커넥션 단위로 관리하고, 이 Aspect 는 스코프만 바인딩
+    private final boolean connectionMode;
+    // @DatabaseBulkhead 가 없는 DB 접근에 적용할 Bulkhead 이름
+    private final String defaultBulkheadName;
+    // Replica 라우팅이 꺼져 있으면 null. 켜져 있으면 읽기 전용 트랜잭션은 이 Bulkhead 를 사용
+    private final String replicaBulkheadName;
+    // 이미 커넥션을 가진 스코프에서 REQUIRES_NEW 로 추가 커넥션을 얻을 때 사용하는 예비 Bulkhead 이름
+    private final String reservedBulkheadName;
+    // 퍼밋을 쥔 스코프에서 fork 된 작업이 DB 에 접근할 때의 처리
+    private final BulkheadProperties.ForkedPermitPolicy forkedPermitPolicy;
+    // @Transactional 의 readOnly 등 속성 해석용 (트랜잭션 인터셉터와 동일한 규칙)
+    private final TransactionAttributeSource transactionAttributeSource = new AnnotationTransactionAttributeSource();
+    // 메서드별 Bulkhead 적용 정보 캐시 (어노테이션 탐색은 메서드당 한 번만 수행)
+    private final Map<MethodClassKey, BulkheadTarget> bulkheadTargets = new ConcurrentHashMap<>();
 
-    // ThreadLocal 대신 ScopedValue 선언
-    // ScopedValue는 불변이며, 특정 스코프 내에서만 값이 유효함
-    private static final ScopedValue<Boolean> HAS_PERMIT = ScopedValue.newInstance();
+    public TransactionalBulkheadAspect(BulkheadRegistry bulkheadRegistry,
+                                       BulkheadProperties properties,
+                                       ObjectProvider<AdaptiveBulkheadLimiter> adaptiveLimiter,
+                                       ObjectProvider<PriorityBulkheadScheduler> priorityScheduler,
+                                       ObjectProvider<PermitHoldWatchdog> watchdog,
+                                       ConcurrencyMetrics metrics,
+                                       @Value("${boilerplate.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.defaultBulkheadName = properties.defaultName();
+        this.replicaBulkheadName = replicaEnabled ? properties.replicaName() : null;
+        this.reservedBulkheadName = properties.reservedName();
+        this.forkedPermitPolicy = properties.forkedPermit();
+        this.connectionMode = properties.mode() == BulkheadProperties.PermitMode.CONNECTION;
+        this.adaptiveLimiter = adaptiveLimiter.getIfAvailable();
+        this.priorityScheduler = priorityScheduler.getIfAvailable();
+        this.watchdog = watchdog.getIfAvailable();
+        this.metrics = metrics;
+    }
 
     @Pointcut("target(org.springframework.data.repository.Repository) || "
         + "@within(org.springframework.stereotype.Repository) || "
         + "@annotation(org.springframework.transaction.annotation.Transactional) || "
-        + "@within(org.springframework.transaction.annotation.Transactional)")
+        + "@within(org.springframework.transaction.annotation.Transactional) || "
+        + "@annotation(com.hig.boilerplate.core.annotation.DatabaseBulkhead) || "
+        + "@within(com.hig.boilerplate.core.annotation.DatabaseBulkhead)")
     public void databaseAccessLayer() {
 
     }
 
     @Around("databaseAccessLayer()")
     public Object applyBulkhead(ProceedingJoinPoint joinPoint) throws Throwable {
-        // isBound()를 통해 현재 스코프에 값이 바인딩되어 있는지 확인 (재진입 방지)
-        if (HAS_PERMIT.isBound()) {
-            return joinPoint.proceed();
+        BulkheadTarget target = resolveBulkheadTarget(joinPoint);
+
+        // ThreadLocal 대신 ScopedValue 기반의 BulkheadScope 로 현재 스코프에 퍼밋이 있는지 확인 (재진입 방지)
+        BulkheadScope scope = BulkheadScope.current();
+        // 다른 스레드에서 fork 된 작업은 부모와 커넥션을 공유할 수 없으므로 스코프를 새로 엶
+        if (scope != null && scope.ownedByCurrentThread()) {
+            // 기존 트랜잭션에 참여하는 호출은 같은 커넥션을 사용하므로 추가 퍼밋이 필요 없음
+            // CONNECTION 모드에서는 추가 커넥션에 대한 퍼밋을 BulkheadDataSource 가 예비 Bulkhead 에서 획득
+            if (!target.requiresNewConnection() || connectionMode) {
+                return joinPoint.proceed();
+            }
+            // REQUIRES_NEW 는 바깥 커넥션을 쥔 채로 커넥션을 하나 더 가져감.
+            // 같은 Bulkhead 에서 퍼밋을 더 받으면 포화 시 바깥 트랜잭션끼리 서로를 기다리는 교착이 생기므로 예비 Bulkhead 를 사용
+            return proceedWithPermit(joinPoint, bulkheadRegistry.bulkhead(reservedBulkheadName), scope, target.callSite());
         }
 
-        Bulkhead bulkhead = bulkheadRegistry.bulkhead(BULKHEAD_NAME);
-        bulkhead.acquirePermission();
+        // 어노테이션이 없으면 요청 필터가 바인딩한 등급을 사용
+        RequestPriority priority = target.priority() != null ? target.priority() : RequestPriority.current();
+        scope = new BulkheadScope(target.name(), priority, target.callSite(), scope);
+        if (connectionMode) {
+            return proceedInScope(joinPoint, scope);
+        }
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(forkedBulkheadName(scope, target.name()));
+        return proceedWithPermit(joinPoint, bulkhead, scope, target.callSite());
+    }
+
+    /**
+     * fork 한 조상 스코프가 퍼밋을 쥐고 있으면 {@link BulkheadProperties.ForkedPermitPolicy} 에 따라
+     * 예비 Bulkhead 를 사용하거나 거절합니다.
+     */
+    private String forkedBulkheadName(BulkheadScope scope, String bulkheadName) {
+        BulkheadScope holder = scope.forkedPermitHolder();
+        if (holder == null) {
+            return bulkheadName;
+        }
+        if (forkedPermitPolicy == BulkheadProperties.ForkedPermitPolicy.REJECT) {
+            throw new ForkedPermitCycleException(bulkheadName, holder.callSite());
+        }
+        return reservedBulkheadName;
+    }
+
+    private Object proceedWithPermit(ProceedingJoinPoint joinPoint, Bulkhead bulkhead, BulkheadScope scope,
+                                     String callSite) throws Throwable {
+        PermitMeters meters = metrics.bulkhead(bulkhead.getName(), callSite);
+        long requestedAt = System.nanoTime();
+        try {
+            acquirePermission(bulkhead, scope.priority());
+        } catch (BulkheadFullException e) {
+            meters.rejected();
+            throw new BulkheadRejectedException(bulkhead.getName(), e);
+        } catch (DeadlineExceededException e) {
+            meters.rejected();
+            throw e;
+        } catch (AcquirePermissionCancelledException e) {
+            meters.interrupted();
+            throw e;
+        }
+        long acquiredAt = System.nanoTime();
+        meters.acquired(acquiredAt - requestedAt);
+        int heldConnections = scope.connectionAcquired();
+        // REQUIRES_NEW 로 예비 퍼밋을 얻는 동안에는 새 퍼밋의 감시 정보로 교체하고 반납 시 되돌림
+        PermitHolder outerHolder = scope.permitHolder();
+        PermitHolder holder = null;
+        if (watchdog != null) {
+            holder = watchdog.track(bulkhead.getName(), callSite);
+            scope.permitHolder(holder);
+        }
 
         if (log.isDebugEnabled()) {
-            log.debug("Bulkhead permit acquired. Calls: {}", bulkhead.getMetrics().getAvailableConcurrentCalls());
+            log.debug("Bulkhead [{}] permit acquired. Calls: {}, held connections: {}",
+                bulkhead.getName(), bulkhead.getMetrics().getAvailableConcurrentCalls(), heldConnections);
+        }
+
+        try {
+            return proceedInScope(joinPoint, scope);
+        } finally {
+            // 트랜잭션 종료 후 퍼밋 반납
+            if (watchdog != null) {
+                watchdog.untrack(holder);
+                scope.permitHolder(outerHolder);
+            }
+            scope.connectionReleased();
+            releasePermission(bulkhead);
+            long heldFor = System.nanoTime() - acquiredAt;
+            meters.released(heldFor);
+            // 예비 Bulkhead 는 고정 크기로 유지 (적응형 조정 대상 아님)
+            if (adaptiveLimiter != null && !bulkhead.getName().equals(reservedBulkheadName)) {
+                adaptiveLimiter.onCallFinished(bulkhead, heldFor);
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug("Bulkhead [{}] permit released.", bulkhead.getName());
+            }
         }
+    }
+
+    private void acquirePermission(Bulkhead bulkhead, RequestPriority priority) {
+        if (priorityScheduler != null) {
+            priorityScheduler.acquirePermission(bulkhead, priority);
+        } else {
+            bulkhead.acquirePermission();
+        }
+    }
 
+    private void releasePermission(Bulkhead bulkhead) {
+        if (priorityScheduler != null) {
+            priorityScheduler.releasePermission(bulkhead);
+        } else {
+            bulkhead.releasePermission();
+        }
+    }
+
+    private Object proceedInScope(ProceedingJoinPoint joinPoint, BulkheadScope scope) throws Throwable {
         try {
-            // 이 블록 내부(call)에서만 HAS_PERMIT이 true 블록을 벗어나면 자동 소멸됨.
+            // 이 블록 내부(call)에서만 scope 가 유효하며 블록을 벗어나면 자동 소멸됨.
             // 별도의 remove() 호출이 필요 없어 안전합
-            return ScopedValue.where(HAS_PERMIT, true)
+            return scope.bind()
                 .call(() -> {
                     try {
                         return joinPoint.proceed();
@@ -66,13 +234,71 @@ public class TransactionalBulkheadAspect {
                 throw e.getCause();
             }
             throw e;
-        } finally {
-            // 트랜잭션 종료 후 퍼밋 반납
-            bulkhead.releasePermission();
+        }
+    }
 
-            if (log.isDebugEnabled()) {
-                log.debug("Bulkhead permit released.");
+    /**
+     * 호출된 메서드에 적용할 Bulkhead 정보를 찾습니다.
+     */
+    private BulkheadTarget resolveBulkheadTarget(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+
+        BulkheadTarget target = bulkheadTargets.get(key);
+        if (target != null) {
+            return target;
+        }
+        return bulkheadTargets.computeIfAbsent(key, k -> findBulkheadTarget(method, targetClass));
+    }
+
+    /**
+     * Bulkhead 이름은 메서드의 {@link DatabaseBulkhead}, 대상 클래스의 {@link DatabaseBulkhead} 순으로 적용하며,
+     * 둘 다 없으면 읽기 전용 트랜잭션은 Replica Bulkhead(Replica 라우팅 사용 시), 그 외에는 기본 Bulkhead 를 적용합니다.
+     * 우선순위 등급도 같은 순서로 {@link BulkheadPriority} 를 찾습니다.
+     *
+     * @throws IllegalStateException {@link DatabaseBulkhead} 에 지정된 Bulkhead 가 설정되어 있지 않은 경우
+     */
+    private BulkheadTarget findBulkheadTarget(Method method, Class<?> targetClass) {
+        TransactionAttribute attribute = transactionAttributeSource.getTransactionAttribute(method, targetClass);
+        // NESTED 는 같은 커넥션의 savepoint 로 동작하므로 추가 커넥션을 사용하지 않음
+        boolean requiresNewConnection = attribute != null
+            && attribute.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        DatabaseBulkhead annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, DatabaseBulkhead.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, DatabaseBulkhead.class);
+        }
+        BulkheadPriority priorityAnnotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, BulkheadPriority.class);
+        if (priorityAnnotation == null) {
+            priorityAnnotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, BulkheadPriority.class);
+        }
+        RequestPriority priority = priorityAnnotation != null ? priorityAnnotation.value() : null;
+        String callSite = ConcurrencyMetrics.callSiteOf(targetClass, method);
+
+        if (annotation != null) {
+            // 선언되지 않은 이름을 bulkhead(name) 으로 조회하면 기본 설정(퍼밋 25개)의 Bulkhead 가 새로 만들어져 풀 크기를 넘게 되므로 거절
+            if (bulkheadRegistry.find(annotation.value()).isEmpty()) {
+                throw new IllegalStateException("@DatabaseBulkhead [" + annotation.value()
+                    + "] is not defined in resilience4j.bulkhead.instances. method [" + method + "]");
             }
+            return new BulkheadTarget(annotation.value(), requiresNewConnection, priority, callSite);
+        }
+
+        // 읽기 전용 트랜잭션은 LazyConnectionDataSourceProxy 에 의해 Replica 풀에서 커넥션을 얻으므로 Replica Bulkhead 를 적용
+        if (replicaBulkheadName != null && attribute != null && attribute.isReadOnly()) {
+            return new BulkheadTarget(replicaBulkheadName, requiresNewConnection, priority, callSite);
         }
+        return new BulkheadTarget(defaultBulkheadName, requiresNewConnection, priority, callSite);
+    }
+
+    /**
+     * @param name                  최초 진입 시 퍼밋을 얻을 Bulkhead 이름
+     * @param requiresNewConnection 기존 트랜잭션과 별개의 커넥션을 새로 얻는 호출인지 여부 (REQUIRES_NEW)
+     * @param priority              {@link BulkheadPriority} 로 지정된 우선순위 등급. 지정되지 않았으면 null
+     * @param callSite              지표 태그와 점유 시간 감시 보고에 사용할 호출 위치 (e.g. {@code OrderService.placeOrder})
+     */
+    private record BulkheadTarget(String name, boolean requiresNewConnection, RequestPriority priority, String callSite) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.hig.boilerplate.core.async;
+
+import com.hig.boilerplate.core.bulkhead.BulkheadScope;
+import com.hig.boilerplate.core.bulkhead.RequestPriority;
+import com.hig.boilerplate.core.deadline.RequestDeadline;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+/**
+ * 작업을 제출한 스레드의 요청 컨텍스트를 작업을 실행하는 스레드로 전달하는 {@link TaskDecorator} 입니다.
+ * <p>
+ * {@link ScopedValue} 는 {@code StructuredTaskScope} 의 fork 에만 상속되고 일반 Executor 로 제출된 작업에는 보이지 않습니다.
+ * {@code @Async} 로 넘긴 작업도 제출한 요청과 같은 규칙으로 동작하도록 아래 값을 제출 시점에 캡처하여 실행 스레드에 다시 바인딩합니다.
+ * </p>
+ * <ul>
+ *     <li>{@link BulkheadScope} - 부모가 쥔 DB Bulkhead 퍼밋. 자식은 부모의 퍼밋을 함께 쓰지 않으며,
+ *     부모가 퍼밋을 쥔 채 자식을 기다리는 교착을 {@link com.hig.boilerplate.core.bulkhead.BulkheadProperties.ForkedPermitPolicy} 에 따라 피함</li>
+ *     <li>{@link RequestPriority} - Bulkhead 대기 우선순위 등급</li>
+ *     <li>{@link RequestDeadline} - 요청 처리 시한</li>
+ *     <li>MDC - 로그 상관관계 값</li>
+ *     <li>{@link org.springframework.security.core.context.SecurityContext} - 인증 정보</li>
+ * </ul>
+ * <p>
+ * MDC 와 SecurityContext 는 작업이 끝나면 실행 스레드의 이전 값으로 되돌리므로 스레드 풀에서도 다른 작업으로 새지 않습니다.
+ * </p>
+ * <p>
+ * {@code ThreadPoolTaskExecutor} 의 대기열에는 원래 작업이 아니라 감싼 작업이 들어가므로, 감싼 작업은 {@link DecoratedTask} 로 반환하여
+ * 대기 중인 작업을 취소하는 쪽이 {@link DecoratedTask#delegate()} 로 원래 작업을 찾아 대기열에서 제거할 수 있게 합니다.
+ * </p>
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Runnable task = withMdc(runnable, MDC.getCopyOfContextMap());
+        task = new DelegatingSecurityContextRunnable(task, SecurityContextHolder.getContext());
+
+        BulkheadScope scope = BulkheadScope.current();
+        if (scope != null) {
+            task = bound(scope.bind(), task);
+        }
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            task = bound(deadline.bind(), task);
+        }
+        return new DecoratedTask(runnable, bound(RequestPriority.current().bind(), task));
+    }
+
+    private static Runnable bound(ScopedValue.Carrier carrier, Runnable task) {
+        return () -> carrier.run(task);
+    }
+
+    private static Runnable withMdc(Runnable task, Map<String, String> contextMap) {
+        if (contextMap == null) {
+            return task;
+        }
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            MDC.setContextMap(contextMap);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
+    }
+
+    /**
+     * 요청 컨텍스트를 바인딩하여 감싼 작업입니다.
+     *
+     * @param delegate  감싸기 전의 원래 작업
+     * @param decorated 컨텍스트를 바인딩한 뒤 {@code delegate} 를 실행하는 작업
+     */
+    public record DecoratedTask(Runnable delegate, Runnable decorated) implements Runnable {
+
+        @Override
+        public void run() {
+            decorated.run();
+        }
+    }
+}
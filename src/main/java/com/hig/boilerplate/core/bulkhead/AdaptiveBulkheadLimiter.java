@@ -0,0 +1,205 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DB Bulkhead 의 동시 호출 한도를 부하에 맞춰 자동으로 조정하는 적응형 Limiter 입니다.
+ * <p>
+ * {@code maxConcurrentCalls} 를 고정값으로 두면 쿼리 구성이나 DB 상태가 바뀔 때마다 직접 재조정해야 합니다.
+ * 이 Limiter 는 {@link com.hig.boilerplate.core.aop.TransactionalBulkheadAspect} 가 기록하는 트랜잭션 시간과
+ * Bulkhead 의 거절 이벤트를 window 단위로 집계하여, 지연이 늘어나면 한도를 줄이고 여유가 있으면 한도를 늘립니다.
+ * 한도는 {@code boilerplate.bulkhead.adaptive.min-limit} 과 상한 사이에서만 움직입니다.
+ * </p>
+ * <p>
+ * Primary 풀을 사용하는 Bulkhead 의 상한은 Hikari {@code maximum-pool-size} 에서 예비 Bulkhead
+ * ({@code boilerplate.bulkhead.reserved-name})의 {@code maxConcurrentCalls} 를 뺀 값입니다.
+ * 한도가 풀 크기까지 늘어나면 REQUIRES_NEW 로 예비 퍼밋을 얻은 트랜잭션이 커넥션을 얻지 못해, 예비 Bulkhead 가 막으려는 교착이 다시 생기기 때문입니다.
+ * </p>
+ *
+ * <h3>주의사항</h3>
+ * <p>
+ * 한도 변경은 {@link Bulkhead#changeConfig(BulkheadConfig)} 로 반영됩니다. Resilience4j 는 한도를 줄일 때 줄이는 만큼의 퍼밋을
+ * 공정(fair) Semaphore 에서 기다려 회수하므로, 그동안 퍼밋을 요청한 스레드는 이 회수 뒤에 줄을 서서 {@code maxWaitDuration} 안에
+ * 퍼밋을 얻지 못하고 거절될 수 있고, 조정 스레드도 멈춰 다른 Bulkhead 의 조정까지 밀립니다.
+ * 이를 피하기 위해 한 window 에 줄이는 폭을 그 시점에 남아 있는 퍼밋 수로 제한하고, 나머지는 다음 window 에 이어서 줄입니다.
+ * 따라서 한도가 목표값까지 줄어드는 데 여러 window 가 걸릴 수 있습니다. 다른 구성 요소가 같은 Bulkhead 의 설정을 바꾸는 중이면
+ * ({@link BulkheadConfigChanges}) 기다리지 않고 그 window 의 조정을 건너뜁니다.
+ * 남은 퍼밋 수를 읽은 직후 다른 호출이 퍼밋을 가져가면 그 호출 하나가 끝날 때까지 잠시 기다릴 수 있습니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "boilerplate.bulkhead.adaptive", name = "enabled", havingValue = "true")
+public class AdaptiveBulkheadLimiter {
+
+    private final BulkheadProperties.Adaptive properties;
+    // Primary 풀을 사용하는 Bulkhead 의 한도 상한 (풀 크기 - 예비 Bulkhead 한도)
+    private final int primaryCeiling;
+    private final Map<String, AdaptiveBulkhead> bulkheads = new ConcurrentHashMap<>();
+    // Primary 가 아닌 커넥션 풀을 사용하거나 실행 중에 풀 크기가 바뀐 Bulkhead 의 한도 상한 (e.g. Replica, 클러스터 예산)
+    private final Map<String, Integer> ceilings = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService tuner =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("bulkhead-limiter").factory());
+
+    public AdaptiveBulkheadLimiter(BulkheadProperties properties,
+                                   BulkheadRegistry bulkheadRegistry,
+                                   @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.properties = properties.adaptive();
+        int reserved = bulkheadRegistry.find(properties.reservedName())
+            .map(bulkhead -> bulkhead.getBulkheadConfig().getMaxConcurrentCalls())
+            .orElse(0);
+        this.primaryCeiling = poolSize - reserved;
+        if (primaryCeiling < 1) {
+            throw new IllegalStateException("Reserved bulkhead [" + properties.reservedName() + "] (" + reserved
+                + ") leaves no connections for adaptive bulkheads in a pool of " + poolSize);
+        }
+        if (this.properties.maxLimit() > primaryCeiling) {
+            log.warn("Adaptive max-limit {} exceeds pool size {} minus reserved bulkhead {}. Using {} for the primary pool.",
+                this.properties.maxLimit(), poolSize, reserved, primaryCeiling);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        long period = properties.window().toMillis();
+        tuner.scheduleAtFixedRate(this::adjustAll, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        tuner.shutdownNow();
+    }
+
+    /**
+     * Primary 가 아닌 커넥션 풀을 사용하는 Bulkhead 의 한도 상한을 등록합니다.
+     *
+     * @param bulkheadName Bulkhead 이름
+     * @param ceiling      한도 상한. 보통 해당 Bulkhead 가 보호하는 커넥션 풀의 최대 크기
+     */
+    public void registerCeiling(String bulkheadName, int ceiling) {
+        ceilings.put(bulkheadName, ceiling);
+    }
+
+    /**
+     * 실행 중에 커넥션 풀 크기가 바뀐 Bulkhead 의 한도 상한을 변경합니다. (e.g. {@link com.hig.boilerplate.core.cluster.ClusterConnectionBudget})
+     * 현재 한도가 새 상한보다 크면 다음 window 에 상한으로 줄어듭니다.
+     *
+     * @param bulkheadName Bulkhead 이름
+     * @param ceiling      새 한도 상한. 같은 풀을 쓰는 예비 Bulkhead 몫은 호출하는 쪽에서 빼고 전달
+     */
+    public void changeCeiling(String bulkheadName, int ceiling) {
+        ceilings.put(bulkheadName, ceiling);
+        AdaptiveBulkhead adaptive = bulkheads.get(bulkheadName);
+        if (adaptive != null) {
+            adaptive.limit().changeMaxLimit(maxLimitOf(ceiling));
+        }
+    }
+
+    /**
+     * 퍼밋을 반납한 직후 호출되어 해당 트랜잭션의 소요 시간을 기록합니다.
+     *
+     * @param bulkhead 퍼밋을 반납한 Bulkhead
+     * @param rttNanos 퍼밋 획득부터 반납까지의 시간 (ns)
+     */
+    public void onCallFinished(Bulkhead bulkhead, long rttNanos) {
+        Bulkhead.Metrics metrics = bulkhead.getMetrics();
+        // 방금 반납한 자신의 호출까지 포함한 동시 실행 수
+        int inFlight = metrics.getMaxAllowedConcurrentCalls() - metrics.getAvailableConcurrentCalls() + 1;
+        adaptiveOf(bulkhead).limit().onCallFinished(rttNanos, inFlight);
+    }
+
+    /**
+     * Bulkhead 의 거절 이벤트를 거치지 않고 거절된 호출을 기록합니다. (e.g. {@link PriorityBulkheadGate} 의 대기 시간 초과)
+     *
+     * @param bulkhead 호출을 거절한 Bulkhead
+     */
+    public void onRejected(Bulkhead bulkhead) {
+        adaptiveOf(bulkhead).limit().onRejected();
+    }
+
+    private AdaptiveBulkhead adaptiveOf(Bulkhead bulkhead) {
+        AdaptiveBulkhead adaptive = bulkheads.get(bulkhead.getName());
+        if (adaptive != null) {
+            return adaptive;
+        }
+        return bulkheads.computeIfAbsent(bulkhead.getName(), name -> register(bulkhead));
+    }
+
+    private AdaptiveBulkhead register(Bulkhead bulkhead) {
+        int maxLimit = maxLimitOf(bulkhead.getName());
+        int minLimit = Math.min(properties.minLimit(), maxLimit);
+        GradientLimit limit = new GradientLimit(bulkhead.getBulkheadConfig().getMaxConcurrentCalls(),
+            minLimit, maxLimit, properties.tolerance(), properties.smoothing());
+
+        // 거절 이벤트는 "한도 이상의 수요가 있었다"는 신호로 사용
+        bulkhead.getEventPublisher().onCallRejected(event -> limit.onRejected());
+
+        log.info("Adaptive limit enabled for bulkhead [{}]. range: {} ~ {}", bulkhead.getName(), minLimit, maxLimit);
+        return new AdaptiveBulkhead(bulkhead, limit);
+    }
+
+    /**
+     * @return Bulkhead 의 한도 상한. 별도로 등록된 상한이 없으면 Primary 풀의 상한
+     */
+    int maxLimitOf(String bulkheadName) {
+        return maxLimitOf(ceilings.getOrDefault(bulkheadName, primaryCeiling));
+    }
+
+    private int maxLimitOf(int ceiling) {
+        return properties.maxLimit() > 0 ? Math.min(properties.maxLimit(), ceiling) : ceiling;
+    }
+
+    void adjustAll() {
+        for (AdaptiveBulkhead adaptive : bulkheads.values()) {
+            try {
+                adjust(adaptive);
+            } catch (RuntimeException e) {
+                // 예외가 전파되면 scheduleAtFixedRate 가 이후 실행을 중단하므로 여기서 처리
+                log.warn("Failed to adjust bulkhead [{}].", adaptive.bulkhead().getName(), e);
+            }
+        }
+    }
+
+    private void adjust(AdaptiveBulkhead adaptive) {
+        Bulkhead bulkhead = adaptive.bulkhead();
+        int target = adaptive.limit().update();
+        // 다른 구성 요소가 설정을 바꾸는 중이면(e.g. 운영자의 한도 축소) 기다리지 않고 다음 window 에 다시 시도
+        boolean applied = BulkheadConfigChanges.tryApply(bulkhead, config -> {
+            int current = config.getMaxConcurrentCalls();
+            int next = target;
+            if (next < current) {
+                // 남아 있는 퍼밋만큼만 줄여 changeConfig 가 사용 중인 퍼밋의 반납을 기다리지 않게 함
+                next = Math.max(next, current - bulkhead.getMetrics().getAvailableConcurrentCalls());
+            }
+            if (next == current) {
+                return config;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Bulkhead [{}] limit changed. {} -> {}", bulkhead.getName(), current, next);
+            }
+            return BulkheadConfig.from(config)
+                .maxConcurrentCalls(next)
+                .build();
+        });
+        if (!applied && log.isDebugEnabled()) {
+            log.debug("Bulkhead [{}] is being reconfigured. Skipping this window.", bulkhead.getName());
+        }
+    }
+
+    private record AdaptiveBulkhead(Bulkhead bulkhead, GradientLimit limit) {
+    }
+}
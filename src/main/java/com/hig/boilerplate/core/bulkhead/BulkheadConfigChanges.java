@@ -0,0 +1,78 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * 여러 구성 요소가 같은 Bulkhead 의 설정을 바꿀 때 서로의 변경을 덮어쓰지 않도록 변경을 Bulkhead 별로 직렬화합니다.
+ * <p>
+ * {@link Bulkhead#changeConfig(BulkheadConfig)} 자체는 직렬화되지만, 현재 설정을 읽어 새 설정을 만드는 과정은 그렇지 않습니다.
+ * {@link AdaptiveBulkheadLimiter}, {@link com.hig.boilerplate.core.tuning.ConcurrencyTuner},
+ * {@link com.hig.boilerplate.core.cluster.ClusterConnectionBudget} 가 각자 설정을 읽고 바꾸면 한쪽이 바꾼 {@code maxWaitDuration} 이나
+ * 한도가 다른 쪽의 변경으로 되돌아갈 수 있으므로, 모든 설정 변경은 이 클래스를 거쳐 lock 안에서 최신 설정을 읽고
+ * 호출하는 쪽이 담당하는 값만 바꿉니다.
+ * </p>
+ * <p>
+ * 한도를 줄이는 변경은 사용 중인 퍼밋이 반납될 때까지 lock 을 쥔 채 대기할 수 있습니다.
+ * 기다리면 안 되는 쪽(e.g. 적응형 Limiter 의 조정 스레드)은 {@link #tryApply(Bulkhead, UnaryOperator)} 를 사용합니다.
+ * Virtual Thread 의 pinning 을 피하기 위해 {@code synchronized} 대신 {@link ReentrantLock} 을 사용합니다.
+ * </p>
+ */
+public final class BulkheadConfigChanges {
+
+    private static final Map<Bulkhead, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private BulkheadConfigChanges() {
+    }
+
+    /**
+     * 다른 변경이 끝날 때까지 기다린 뒤 변경을 적용합니다.
+     *
+     * @param change 최신 설정을 받아 새 설정을 반환하는 함수. 담당하는 값만 바꾸고, 바꿀 것이 없으면 받은 설정을 그대로 반환
+     */
+    public static void apply(Bulkhead bulkhead, UnaryOperator<BulkheadConfig> change) {
+        ReentrantLock lock = lockOf(bulkhead);
+        lock.lock();
+        try {
+            changeConfig(bulkhead, change);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 다른 변경이 진행 중이 아니면 변경을 적용합니다.
+     *
+     * @param change 최신 설정을 받아 새 설정을 반환하는 함수. 담당하는 값만 바꾸고, 바꿀 것이 없으면 받은 설정을 그대로 반환
+     * @return 다른 변경이 진행 중이어서 적용하지 않았으면 false
+     */
+    public static boolean tryApply(Bulkhead bulkhead, UnaryOperator<BulkheadConfig> change) {
+        ReentrantLock lock = lockOf(bulkhead);
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            changeConfig(bulkhead, change);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void changeConfig(Bulkhead bulkhead, UnaryOperator<BulkheadConfig> change) {
+        BulkheadConfig current = bulkhead.getBulkheadConfig();
+        BulkheadConfig next = change.apply(current);
+        if (next != current) {
+            bulkhead.changeConfig(next);
+        }
+    }
+
+    private static ReentrantLock lockOf(Bulkhead bulkhead) {
+        return LOCKS.computeIfAbsent(bulkhead, ignored -> new ReentrantLock());
+    }
+}
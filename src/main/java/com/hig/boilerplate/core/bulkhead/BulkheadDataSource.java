@@ -0,0 +1,257 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import com.hig.boilerplate.core.exception.BulkheadRejectedException;
+import com.hig.boilerplate.core.exception.DeadlineExceededException;
+import com.hig.boilerplate.core.exception.ForkedPermitCycleException;
+import com.hig.boilerplate.core.metrics.ConcurrencyMetrics;
+import com.hig.boilerplate.core.metrics.PermitMeters;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.core.exception.AcquirePermissionCancelledException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 물리 커넥션을 빌리는 시점에 Bulkhead 퍼밋을 획득하고, 커넥션을 닫는 시점에 반납하는 DataSource 입니다.
+ * <p>
+ * {@code boilerplate.bulkhead.mode=connection} 일 때 커넥션 풀 바로 위에 적용되며,
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 아래에 위치하므로
+ * 트랜잭션이 시작되더라도 첫 쿼리가 실행되기 전까지는 퍼밋을 점유하지 않습니다.
+ * </p>
+ *
+ * <h3>Bulkhead 선택</h3>
+ * <ul>
+ *     <li>{@link BulkheadScope} 가 바인딩되어 있고 아직 커넥션을 점유하지 않았다면 스코프의 Bulkhead</li>
+ *     <li>스코프가 이미 커넥션을 점유 중이라면(REQUIRES_NEW 등) 예비 Bulkhead</li>
+ *     <li>퍼밋을 쥔 스코프에서 fork 된 작업이라면 {@link BulkheadProperties.ForkedPermitPolicy} 에 따라 예비 Bulkhead 또는 거절</li>
+ *     <li>스코프 밖의 접근(애플리케이션 기동 시 마이그레이션 등)은 이 풀의 기본 Bulkhead</li>
+ * </ul>
+ * <p>
+ * 우선순위 대기가 켜져 있으면 스코프의 {@link RequestPriority} (스코프 밖이면 요청 단위 등급)로 {@link PriorityBulkheadScheduler} 에서 퍼밋을 기다립니다.
+ * </p>
+ * <p>
+ * 점유 시간 감시가 켜져 있으면 커넥션마다 스코프의 호출 위치로 {@link PermitHoldWatchdog} 에 등록하고,
+ * 커넥션에서 마지막으로 만든 Statement 를 기록하여 감시자가 취소할 수 있도록 합니다.
+ * </p>
+ * <p>
+ * 퍼밋 대기 / 점유 시간은 스코프의 호출 위치로 {@link ConcurrencyMetrics} 의 {@code bulkhead.permit.*} 지표에 기록합니다.
+ * </p>
+ */
+@Slf4j
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    // 스코프 밖에서 커넥션을 빌린 호출의 호출 위치
+    private static final String UNSCOPED_CALL_SITE = "unscoped";
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final String defaultBulkheadName;
+    private final String reservedBulkheadName;
+    // 적응형 모드가 꺼져 있으면 null
+    private final AdaptiveBulkheadLimiter adaptiveLimiter;
+    // 우선순위 대기가 꺼져 있으면 null
+    private final PriorityBulkheadScheduler priorityScheduler;
+    // 점유 시간 감시가 꺼져 있으면 null
+    private final PermitHoldWatchdog watchdog;
+    private final BulkheadProperties.ForkedPermitPolicy forkedPermitPolicy;
+    private final ConcurrencyMetrics metrics;
+
+    public BulkheadDataSource(DataSource targetDataSource,
+                              BulkheadRegistry bulkheadRegistry,
+                              String defaultBulkheadName,
+                              String reservedBulkheadName,
+                              AdaptiveBulkheadLimiter adaptiveLimiter,
+                              PriorityBulkheadScheduler priorityScheduler,
+                              PermitHoldWatchdog watchdog,
+                              BulkheadProperties.ForkedPermitPolicy forkedPermitPolicy,
+                              ConcurrencyMetrics metrics) {
+        super(targetDataSource);
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.defaultBulkheadName = defaultBulkheadName;
+        this.reservedBulkheadName = reservedBulkheadName;
+        this.adaptiveLimiter = adaptiveLimiter;
+        this.priorityScheduler = priorityScheduler;
+        this.watchdog = watchdog;
+        this.forkedPermitPolicy = forkedPermitPolicy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        PermitLease lease = acquire();
+        try {
+            return lease.wrap(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            lease.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        PermitLease lease = acquire();
+        try {
+            return lease.wrap(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            lease.release();
+            throw e;
+        }
+    }
+
+    private PermitLease acquire() {
+        BulkheadScope scope = BulkheadScope.current();
+        if (scope != null && !scope.ownedByCurrentThread()) {
+            // 다른 스레드의 스코프에서 fork 된 작업이 Aspect 를 거치지 않고 커넥션을 빌리는 경우.
+            // 부모 스코프의 커넥션 수를 건드리지 않도록 커넥션 하나만을 위한 자식 스코프를 사용
+            scope = new BulkheadScope(scope.bulkheadName(), scope.priority(), scope.callSite(), scope);
+        }
+        String bulkheadName;
+        if (scope == null) {
+            bulkheadName = defaultBulkheadName;
+        } else if (scope.heldConnections() > 0) {
+            // 이미 커넥션을 쥔 스코프가 하나 더 빌리는 경우 - 같은 Bulkhead 를 쓰면 포화 시 교착이 생김
+            bulkheadName = reservedBulkheadName;
+        } else if (scope.forkedPermitHolder() != null) {
+            // 부모가 퍼밋을 쥔 채 이 작업을 기다리고 있을 수 있음 - REQUIRES_NEW 와 같은 이유로 예비 Bulkhead 를 사용
+            if (forkedPermitPolicy == BulkheadProperties.ForkedPermitPolicy.REJECT) {
+                throw new ForkedPermitCycleException(scope.bulkheadName(), scope.forkedPermitHolder().callSite());
+            }
+            bulkheadName = reservedBulkheadName;
+        } else {
+            bulkheadName = scope.bulkheadName();
+        }
+
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(bulkheadName);
+        String callSite = scope != null ? scope.callSite() : UNSCOPED_CALL_SITE;
+        PermitMeters meters = metrics.bulkhead(bulkheadName, callSite);
+        long requestedAt = System.nanoTime();
+        try {
+            if (priorityScheduler != null) {
+                priorityScheduler.acquirePermission(bulkhead, scope != null ? scope.priority() : RequestPriority.current());
+            } else {
+                bulkhead.acquirePermission();
+            }
+        } catch (BulkheadFullException e) {
+            meters.rejected();
+            throw new BulkheadRejectedException(bulkheadName, e);
+        } catch (DeadlineExceededException e) {
+            meters.rejected();
+            throw e;
+        } catch (AcquirePermissionCancelledException e) {
+            meters.interrupted();
+            throw e;
+        }
+        long acquiredAt = System.nanoTime();
+        meters.acquired(acquiredAt - requestedAt);
+        if (scope != null) {
+            scope.connectionAcquired();
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Bulkhead [{}] permit acquired on connection checkout. Calls: {}",
+                bulkhead.getName(), bulkhead.getMetrics().getAvailableConcurrentCalls());
+        }
+        PermitHolder holder = watchdog != null ? watchdog.track(bulkheadName, callSite) : null;
+        return new PermitLease(bulkhead, scope, !bulkheadName.equals(reservedBulkheadName), holder, meters, acquiredAt);
+    }
+
+    /**
+     * 커넥션 하나에 대응하는 퍼밋. {@link Connection#close()} 시 한 번만 반납됩니다.
+     */
+    private final class PermitLease implements InvocationHandler {
+
+        private final Bulkhead bulkhead;
+        private final BulkheadScope scope;
+        private final boolean adaptive;
+        // 점유 시간 감시가 꺼져 있거나 감시 슬롯이 가득 찼으면 null
+        private final PermitHolder holder;
+        private final PermitMeters meters;
+        private final long acquiredAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private Connection target;
+
+        private PermitLease(Bulkhead bulkhead, BulkheadScope scope, boolean adaptive, PermitHolder holder,
+                            PermitMeters meters, long acquiredAt) {
+            this.bulkhead = bulkhead;
+            this.scope = scope;
+            this.adaptive = adaptive;
+            this.holder = holder;
+            this.meters = meters;
+            this.acquiredAt = acquiredAt;
+        }
+
+        private Connection wrap(Connection connection) {
+            this.target = connection;
+            return (Connection) Proxy.newProxyInstance(
+                BulkheadDataSource.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        private void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (watchdog != null) {
+                watchdog.untrack(holder);
+            }
+            if (priorityScheduler != null) {
+                priorityScheduler.releasePermission(bulkhead);
+            } else {
+                bulkhead.releasePermission();
+            }
+            if (scope != null) {
+                scope.connectionReleased();
+            }
+            long heldFor = System.nanoTime() - acquiredAt;
+            meters.released(heldFor);
+            if (adaptive && adaptiveLimiter != null) {
+                adaptiveLimiter.onCallFinished(bulkhead, heldFor);
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug("Bulkhead [{}] permit released on connection close.", bulkhead.getName());
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "close" -> {
+                    try {
+                        target.close();
+                    } finally {
+                        release();
+                    }
+                    return null;
+                }
+                default -> {
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    if (holder != null && result instanceof Statement statement) {
+                        holder.statement(statement);
+                    }
+                    return result;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * DB Bulkhead 부가 기능에 대한 설정입니다. ({@code boilerplate.bulkhead.*})
+ * <p>
+ * Bulkhead 자체의 크기와 대기 시간은 기존과 동일하게 {@code resilience4j.bulkhead.instances.*} 에서 설정하며,
+ * 이 클래스는 그 위에 얹는 동작(적응형 한도 등)만을 다룹니다.
+ * </p>
+ *
+ * @param mode         퍼밋 획득 시점 ({@link PermitMode})
+ * @param defaultName  {@link com.hig.boilerplate.core.annotation.DatabaseBulkhead} 가 없는 DB 접근에 적용할 Bulkhead 이름
+ * @param replicaName  Replica 풀을 사용하는 읽기 전용 트랜잭션에 적용할 Bulkhead 이름
+ * @param reservedName 이미 커넥션을 점유한 스코프에서 {@code REQUIRES_NEW} 트랜잭션이 추가 커넥션을 얻을 때 사용할 예비 Bulkhead 이름
+ * @param adaptive     적응형 동시성 한도 설정
+ * @param priority     우선순위 등급별 가중 공정 대기 설정
+ * @param codel        대기 시간 기반(CoDel) 입장 제어 설정
+ * @param watchdog     퍼밋 점유 시간 감시 설정
+ * @param forkedPermit 퍼밋을 쥔 스코프에서 fork 된 비동기 작업이 DB 에 접근할 때의 처리 ({@link ForkedPermitPolicy})
+ */
+@ConfigurationProperties("boilerplate.bulkhead")
+public record BulkheadProperties(
+    @DefaultValue("method") PermitMode mode,
+    @DefaultValue("orderDatabase") String defaultName,
+    @DefaultValue("replicaDatabase") String replicaName,
+    @DefaultValue("reservedDatabase") String reservedName,
+    @DefaultValue Adaptive adaptive,
+    @DefaultValue Priority priority,
+    @DefaultValue CoDel codel,
+    @DefaultValue Watchdog watchdog,
+    @DefaultValue("lend") ForkedPermitPolicy forkedPermit
+) {
+
+    /**
+     * Bulkhead 퍼밋을 언제 획득하고 반납할지를 결정합니다.
+     */
+    public enum PermitMode {
+        /**
+         * {@code @Transactional} / Repository 메서드 진입 시 획득하고 메서드 종료 시 반납합니다. (기본값)
+         */
+        METHOD,
+        /**
+         * 커넥션 풀에서 물리 커넥션을 빌릴 때 획득하고 커넥션을 닫을 때 반납합니다.
+         * 트랜잭션이 DB 에 접근하기 전의 CPU 작업이나 외부 호출 동안에는 퍼밋을 점유하지 않습니다.
+         */
+        CONNECTION
+    }
+
+    /**
+     * 퍼밋을 쥔 부모 스코프에서 fork 된 작업({@code @Async}, {@code StructuredTaskScope})이 DB 에 접근할 때의 처리입니다.
+     * <p>
+     * 부모가 퍼밋을 쥔 채 자식의 결과를 기다리는 동안 자식이 같은 Bulkhead 의 퍼밋을 기다리면,
+     * 포화 시 모든 퍼밋을 쥔 부모들이 퍼밋을 기다리는 자식들을 기다리는 교착이 생깁니다.
+     * 부모가 아직 퍼밋을 쥐고 있지 않으면 자식은 일반 호출과 동일하게 Bulkhead 의 퍼밋을 얻습니다.
+     * </p>
+     */
+    public enum ForkedPermitPolicy {
+        /**
+         * 자식에게 예비 Bulkhead 의 퍼밋을 빌려줍니다. ({@code REQUIRES_NEW} 와 동일한 방식, 기본값)
+         */
+        LEND,
+        /**
+         * 자식의 DB 접근을 {@link com.hig.boilerplate.core.exception.ForkedPermitCycleException} 으로 거절합니다.
+         * 부모가 트랜잭션을 마친 뒤 fork 하도록 코드를 고쳐야 하는 경우를 찾아낼 때 사용합니다.
+         */
+        REJECT
+    }
+
+    /**
+     * 관측된 트랜잭션 지연 시간과 거절 횟수를 기반으로 Bulkhead 의 {@code maxConcurrentCalls} 를 자동 조정합니다.
+     *
+     * @param enabled    적응형 모드 사용 여부 (기본값 false - 고정 한도 사용)
+     * @param minLimit   한도의 하한
+     * @param maxLimit   한도의 상한. 0 이하이면 Bulkhead 가 사용하는 커넥션 풀의 {@code maximum-pool-size} 를 사용
+     *                   (Primary 풀은 예비 Bulkhead 의 한도를 뺀 값)
+     * @param window     지연 시간을 집계하고 한도를 재계산하는 주기
+     * @param tolerance  장기 평균 대비 허용하는 지연 증가 비율. 이 비율을 넘어서야 한도를 줄이기 시작
+     * @param smoothing  새 한도를 반영하는 비율 (0~1). 값이 작을수록 천천히 변함
+     */
+    public record Adaptive(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("0") int maxLimit,
+        @DefaultValue("1s") Duration window,
+        @DefaultValue("1.5") double tolerance,
+        @DefaultValue("0.2") double smoothing
+    ) {
+    }
+
+    /**
+     * Bulkhead 가 포화되었을 때 대기자에게 {@link RequestPriority} 등급별 가중치에 따라 퍼밋을 나눠 줍니다.
+     * <p>
+     * 여러 등급이 동시에 대기 중이면 각 등급은 {@code 가중치 / 대기 중인 등급의 가중치 합} 만큼의 퍼밋을 받습니다.
+     * 기본값(6:3:1)에서 배치 작업은 포화 상태에서도 최소 10% 의 몫을 보장받습니다.
+     * </p>
+     *
+     * @param enabled           우선순위 대기 사용 여부 (기본값 false - 도착 순서대로 대기)
+     * @param interactiveWeight {@link RequestPriority#INTERACTIVE} 의 가중치
+     * @param defaultWeight     {@link RequestPriority#DEFAULT} 의 가중치
+     * @param batchWeight       {@link RequestPriority#BATCH} 의 가중치. 낮은 등급의 최소 몫을 결정
+     * @param header            요청 등급을 지정하는 HTTP 헤더. 요청 기본 등급보다 낮추는 방향으로만 적용
+     * @param requestDefault    HTTP 요청에 적용할 기본 등급
+     */
+    public record Priority(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("6") int interactiveWeight,
+        @DefaultValue("3") int defaultWeight,
+        @DefaultValue("1") int batchWeight,
+        @DefaultValue("X-Request-Priority") String header,
+        @DefaultValue("interactive") RequestPriority requestDefault
+    ) {
+
+        /**
+         * @return {@link RequestPriority#ordinal()} 순서의 가중치
+         */
+        public int[] weights() {
+            return new int[]{interactiveWeight, defaultWeight, batchWeight};
+        }
+    }
+
+    /**
+     * Bulkhead 대기자의 대기 시간(sojourn)을 기준으로 과부하를 판정하여 대기열이 고여 있지 않도록 합니다.
+     * 자세한 동작은 {@link PriorityBulkheadGate} 를 참고하세요.
+     *
+     * @param enabled  CoDel 입장 제어 사용 여부 (기본값 false - maxWaitDuration 까지 대기)
+     * @param target   interval 동안의 최소 대기 시간이 이 값을 넘으면 과부하로 판정. 과부하 상태의 최대 대기 시간으로도 사용
+     * @param interval 최소 대기 시간을 관측하는 주기
+     */
+    public record CoDel(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10ms") Duration target,
+        @DefaultValue("100ms") Duration interval
+    ) {
+    }
+
+    /**
+     * 퍼밋을 오래 점유하는 호출 위치를 찾아 보고합니다. 자세한 동작은 {@link PermitHoldWatchdog} 를 참고하세요.
+     *
+     * @param enabled       점유 시간 감시 사용 여부 (기본값 false)
+     * @param threshold     이 시간보다 오래 퍼밋을 점유하면 스택 트레이스, 지표, Sentry 이벤트로 보고
+     * @param checkInterval 점유자를 검사하는 주기
+     * @param cancelAfter   이 시간보다 오래 점유하면 실행 중인 SQL 을 취소. 0 이면 취소하지 않음
+     */
+    public record Watchdog(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("5s") Duration threshold,
+        @DefaultValue("1s") Duration checkInterval,
+        @DefaultValue("0") Duration cancelAfter
+    ) {
+    }
+}
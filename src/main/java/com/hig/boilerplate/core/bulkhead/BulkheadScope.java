@@ -0,0 +1,117 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DB Bulkhead 가 적용된 호출 하나의 스코프 정보입니다.
+ * <p>
+ * {@link com.hig.boilerplate.core.aop.TransactionalBulkheadAspect} 가 최초 진입 시점에 {@link ScopedValue} 로 바인딩하며,
+ * 스코프 안의 중첩 호출과 {@link BulkheadDataSource} 는 이 값을 통해 "어느 Bulkhead 를 쓰는지",
+ * "현재 스코프가 커넥션을 몇 개 점유하고 있는지"를 확인합니다.
+ * </p>
+ * <p>
+ * Virtual Thread 환경에서 {@link ThreadLocal} 을 피하기 위해 {@link ScopedValue} 를 사용하며,
+ * 바인딩된 블록을 벗어나면 자동으로 해제되므로 별도의 정리가 필요 없습니다.
+ * </p>
+ * <p>
+ * {@code StructuredTaskScope} 의 fork 나 {@link com.hig.boilerplate.core.async.RequestContextTaskDecorator} 를 통해
+ * 다른 스레드에서 이 스코프가 보일 수 있습니다. 커넥션과 트랜잭션은 스레드에 묶이므로, 스코프를 만든 스레드가 아닌 곳에서는
+ * ({@link #ownedByCurrentThread()} 가 false) 부모의 퍼밋을 함께 쓰지 않고 {@link BulkheadProperties.ForkedPermitPolicy} 에 따라 새 퍼밋을 얻습니다.
+ * </p>
+ */
+public final class BulkheadScope {
+
+    private static final ScopedValue<BulkheadScope> CURRENT = ScopedValue.newInstance();
+
+    private final String bulkheadName;
+    // 퍼밋을 기다릴 때 적용할 우선순위 등급. 중첩 호출과 BulkheadDataSource 가 그대로 이어받음
+    private final RequestPriority priority;
+    // 스코프를 연 호출 위치 (e.g. OrderService.placeOrder). 퍼밋 지표의 태그와 PermitHoldWatchdog 의 보고에 사용
+    private final String callSite;
+    // 스코프를 연 스레드. 퍼밋과 커넥션은 이 스레드에서만 공유됨
+    private final Thread owner = Thread.currentThread();
+    // 다른 스레드의 스코프에서 fork 된 작업이 연 스코프라면 그 부모 스코프. 아니면 null
+    private final BulkheadScope forkedFrom;
+    // METHOD 모드에서 스코프가 점유 중인 퍼밋의 감시 정보. 감시를 사용하지 않으면 null
+    private volatile PermitHolder permitHolder;
+    // 이 스코프가 점유 중인 커넥션(퍼밋) 수. REQUIRES_NEW 로 커넥션이 추가되면 증가
+    private final AtomicInteger heldConnections = new AtomicInteger();
+
+    public BulkheadScope(String bulkheadName, RequestPriority priority, String callSite, BulkheadScope forkedFrom) {
+        this.bulkheadName = bulkheadName;
+        this.priority = priority;
+        this.callSite = callSite;
+        this.forkedFrom = forkedFrom;
+    }
+
+    /**
+     * @return 현재 스레드에 바인딩된 스코프. 바인딩되지 않았으면 null
+     */
+    public static BulkheadScope current() {
+        return CURRENT.isBound() ? CURRENT.get() : null;
+    }
+
+    /**
+     * 이 스코프를 바인딩하는 {@link ScopedValue.Carrier} 를 반환합니다.
+     */
+    public ScopedValue.Carrier bind() {
+        return ScopedValue.where(CURRENT, this);
+    }
+
+    public String bulkheadName() {
+        return bulkheadName;
+    }
+
+    public RequestPriority priority() {
+        return priority;
+    }
+
+    /**
+     * @return 현재 스레드가 이 스코프를 연 스레드인지 여부. false 이면 부모 스코프에서 fork 된 스레드
+     */
+    public boolean ownedByCurrentThread() {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     * fork 한 조상 스코프 중 아직 커넥션(퍼밋)을 쥐고 있는 가장 가까운 스코프를 찾습니다.
+     * 조상이 퍼밋을 쥔 채 이 스코프의 작업을 기다리고 있을 수 있으므로, null 이 아니면 같은 Bulkhead 의 퍼밋을 기다려서는 안 됩니다.
+     *
+     * @return 퍼밋을 쥔 조상 스코프. 없으면 null
+     */
+    public BulkheadScope forkedPermitHolder() {
+        for (BulkheadScope parent = forkedFrom; parent != null; parent = parent.forkedFrom) {
+            if (parent.heldConnections() > 0) {
+                return parent;
+            }
+        }
+        return null;
+    }
+
+    public String callSite() {
+        return callSite;
+    }
+
+    public PermitHolder permitHolder() {
+        return permitHolder;
+    }
+
+    public void permitHolder(PermitHolder permitHolder) {
+        this.permitHolder = permitHolder;
+    }
+
+    public int heldConnections() {
+        return heldConnections.get();
+    }
+
+    /**
+     * @return 증가 후 점유 중인 커넥션 수
+     */
+    public int connectionAcquired() {
+        return heldConnections.incrementAndGet();
+    }
+
+    public void connectionReleased() {
+        heldConnections.decrementAndGet();
+    }
+}
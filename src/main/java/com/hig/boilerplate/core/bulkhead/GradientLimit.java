@@ -0,0 +1,110 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 하나의 Bulkhead 에 대한 Gradient 방식의 동시성 한도 추정기입니다.
+ * <p>
+ * 샘플 기록({@link #onCallFinished}, {@link #onRejected})은 여러 스레드에서 lock 없이 호출되며,
+ * 한도 재계산({@link #update()})은 {@link AdaptiveBulkheadLimiter} 의 조정 스레드 하나에서만 호출됩니다.
+ * </p>
+ * <ul>
+ *     <li>단기 지연(shortRtt): 한 window 동안의 평균 트랜잭션 시간</li>
+ *     <li>장기 지연(longRtt): shortRtt 의 지수 이동 평균. DB 가 여유로울 때의 기준값 역할</li>
+ *     <li>gradient = tolerance * longRtt / shortRtt (0.5 ~ 1.0) - 지연이 늘면 한도를 줄이고, 그렇지 않으면 sqrt(limit) 만큼 늘림</li>
+ * </ul>
+ */
+final class GradientLimit {
+
+    /**
+     * 장기 지연을 갱신할 때 새 window 값이 차지하는 비중 (약 20 window 의 이동 평균)
+     */
+    private static final double LONG_RTT_FACTOR = 0.05;
+
+    private final int minLimit;
+    // 커넥션 풀 크기가 바뀌면 다른 스레드에서 변경됨. update() 에서 반영
+    private volatile int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAccumulator peakInFlight = new LongAccumulator(Math::max, 0);
+
+    // 조정 스레드에서만 접근
+    private double estimatedLimit;
+    private double longRtt;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    void onCallFinished(long rttNanos, int inFlight) {
+        rttSum.add(rttNanos);
+        samples.increment();
+        peakInFlight.accumulate(inFlight);
+    }
+
+    void onRejected() {
+        rejections.increment();
+    }
+
+    /**
+     * 한도의 상한을 변경합니다. 하한보다 작게 줄이지는 않습니다.
+     */
+    void changeMaxLimit(int maxLimit) {
+        this.maxLimit = Math.max(minLimit, maxLimit);
+    }
+
+    int currentLimit() {
+        return (int) estimatedLimit;
+    }
+
+    /**
+     * 지난 window 의 샘플로 한도를 다시 계산합니다.
+     *
+     * @return 새 한도 (변화가 없으면 기존 한도)
+     */
+    int update() {
+        long count = samples.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        long rejected = rejections.sumThenReset();
+        long peak = peakInFlight.getThenReset();
+        // 상한이 줄었으면 샘플과 관계없이 즉시 반영
+        estimatedLimit = Math.min(estimatedLimit, maxLimit);
+
+        if (count == 0) {
+            return currentLimit();
+        }
+
+        double shortRtt = (double) sum / count;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt = longRtt * (1 - LONG_RTT_FACTOR) + shortRtt * LONG_RTT_FACTOR;
+        }
+        // 부하가 빠진 뒤 장기 평균이 높게 고착되지 않도록 빠르게 따라 내려감
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // 거절도 없고 한도의 절반도 쓰지 않았다면 수요가 적은 것이므로 한도를 키우지 않음
+        if (rejected == 0 && peak < estimatedLimit / 2) {
+            return currentLimit();
+        }
+
+        double gradient = Math.clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+
+        estimatedLimit = Math.clamp(newLimit, minLimit, maxLimit);
+        return currentLimit();
+    }
+}
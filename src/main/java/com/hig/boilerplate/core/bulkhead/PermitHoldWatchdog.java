@@ -0,0 +1,173 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import com.hig.boilerplate.core.exception.PermitHeldTooLongException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.sentry.Sentry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * DB Bulkhead 퍼밋을 오래 점유하는 호출을 찾아내는 감시자입니다.
+ * <p>
+ * {@link com.hig.boilerplate.core.aop.TransactionalBulkheadAspect} 와 {@link BulkheadDataSource} 는 퍼밋을 획득할 때
+ * 획득 시각과 호출 위치를 {@link #track(String, Object)} 로 등록하고, 반납할 때 {@link #untrack(PermitHolder)} 로 해제합니다.
+ * 등록부는 고정 크기 슬롯 배열에 CAS 로 기록하므로 요청 스레드는 lock 을 잡지 않습니다.
+ * </p>
+ * <p>
+ * Virtual Thread 에서 주기적으로 슬롯을 훑어 {@code threshold} 를 넘긴 점유자를 발견하면 한 번만
+ * </p>
+ * <ul>
+ *     <li>점유 스레드의 스택 트레이스를 남기고 ({@code WARN} 로그)</li>
+ *     <li>{@code bulkhead.permit.hold.exceeded} 지표를 올리고</li>
+ *     <li>Sentry 에 점유 스레드의 스택 트레이스를 담은 {@link PermitHeldTooLongException} 을 보고합니다.</li>
+ * </ul>
+ * <p>
+ * {@code cancel-after} 가 설정되어 있으면 그 시간을 넘긴 점유자가 실행 중인 SQL 을 {@link Statement#cancel()} 로 취소합니다.
+ * 취소할 Statement 는 {@link StatementTrackingDataSource} 가 기록합니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "boilerplate.bulkhead.watchdog", name = "enabled", havingValue = "true")
+public class PermitHoldWatchdog {
+
+    // 동시에 점유 가능한 퍼밋 수(모든 Bulkhead 의 한도 합)보다 충분히 크게 설정. 가득 차면 추적하지 않음
+    private static final int SLOTS = 1024;
+
+    private final AtomicReferenceArray<PermitHolder> holders = new AtomicReferenceArray<>(SLOTS);
+    private final BulkheadProperties.Watchdog properties;
+    // actuator 가 없으면 null
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService watcher =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("bulkhead-watchdog").factory());
+
+    public PermitHoldWatchdog(BulkheadProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties.watchdog();
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+
+    @PostConstruct
+    void start() {
+        long period = properties.checkInterval().toMillis();
+        watcher.scheduleWithFixedDelay(this::inspect, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        watcher.shutdownNow();
+    }
+
+    /**
+     * 퍼밋 점유를 등록합니다.
+     *
+     * @param bulkheadName 퍼밋을 획득한 Bulkhead
+     * @param callSite     호출 위치. 임계값을 넘었을 때만 {@code toString()} 됨
+     * @return 반납 시 {@link #untrack(PermitHolder)} 에 넘길 점유 정보. 슬롯이 가득 차 추적하지 못하면 null
+     */
+    public PermitHolder track(String bulkheadName, Object callSite) {
+        Thread thread = Thread.currentThread();
+        long acquiredAt = System.nanoTime();
+        int start = (int) (thread.threadId() & (SLOTS - 1));
+        for (int i = 0; i < SLOTS; i++) {
+            int slot = (start + i) & (SLOTS - 1);
+            if (holders.get(slot) == null) {
+                PermitHolder holder = new PermitHolder(bulkheadName, callSite, thread, acquiredAt, slot);
+                if (holders.compareAndSet(slot, null, holder)) {
+                    return holder;
+                }
+            }
+        }
+        return null;
+    }
+
+    public void untrack(PermitHolder holder) {
+        if (holder != null) {
+            holders.compareAndSet(holder.slot(), holder, null);
+        }
+    }
+
+    private void inspect() {
+        long now = System.nanoTime();
+        long threshold = properties.threshold().toNanos();
+        long cancelAfter = properties.cancelAfter().toNanos();
+        for (int slot = 0; slot < SLOTS; slot++) {
+            PermitHolder holder = holders.get(slot);
+            if (holder == null) {
+                continue;
+            }
+            try {
+                long heldFor = now - holder.acquiredAt();
+                if (heldFor >= threshold && !holder.reported()) {
+                    holder.markReported();
+                    report(holder, Duration.ofNanos(heldFor));
+                }
+                if (cancelAfter > 0 && heldFor >= cancelAfter && !holder.cancelled()) {
+                    cancel(holder, Duration.ofNanos(heldFor));
+                }
+            } catch (RuntimeException e) {
+                // 예외가 전파되면 스케줄러가 이후 실행을 중단하므로 여기서 처리
+                log.warn("Failed to inspect bulkhead permit holder.", e);
+            }
+        }
+    }
+
+    private void report(PermitHolder holder, Duration heldFor) {
+        PermitHeldTooLongException exception = new PermitHeldTooLongException(
+            holder.bulkheadName(), holder.callSite(), heldFor, holder.thread().getStackTrace());
+        // 스택 트레이스를 얻는 사이 퍼밋이 반납되었으면 보고하지 않음
+        if (holders.get(holder.slot()) != holder) {
+            return;
+        }
+
+        log.warn(exception.getMessage(), exception);
+        if (meterRegistry != null) {
+            Counter.builder("bulkhead.permit.hold.exceeded")
+                .description("Bulkhead permits held longer than the watchdog threshold")
+                .tag("bulkhead", holder.bulkheadName())
+                .register(meterRegistry)
+                .increment();
+        }
+        Sentry.withScope(scope -> {
+            scope.setTag("bulkhead", holder.bulkheadName());
+            scope.setExtra("callSite", String.valueOf(holder.callSite()));
+            scope.setExtra("thread", holder.thread().getName());
+            Sentry.captureException(exception);
+        });
+    }
+
+    private void cancel(PermitHolder holder, Duration heldFor) {
+        Statement statement = holder.statement();
+        if (statement == null) {
+            return;
+        }
+        holder.markCancelled();
+        try {
+            // 실행 중이 아닌 Statement 의 cancel 은 아무 일도 하지 않음
+            statement.cancel();
+            log.warn("Cancelled statement of bulkhead [{}] permit held for {}ms by [{}].",
+                holder.bulkheadName(), heldFor.toMillis(), holder.callSite());
+            if (meterRegistry != null) {
+                Counter.builder("bulkhead.permit.hold.cancelled")
+                    .description("Statements cancelled by the bulkhead watchdog")
+                    .tag("bulkhead", holder.bulkheadName())
+                    .register(meterRegistry)
+                    .increment();
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to cancel statement of bulkhead [{}] permit holder.", holder.bulkheadName(), e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import java.sql.Statement;
+
+/**
+ * DB Bulkhead 퍼밋 하나를 점유 중인 호출의 정보입니다. {@link PermitHoldWatchdog} 가 점유 시간을 감시하는 데 사용합니다.
+ * <p>
+ * 호출 위치는 문자열로 만들지 않고 {@link org.aspectj.lang.Signature} 등 원본 객체를 그대로 보관하여,
+ * 감시 임계값을 넘은 경우에만 {@link #callSite()} 의 {@code toString()} 비용을 치르도록 합니다.
+ * </p>
+ */
+public final class PermitHolder {
+
+    private final String bulkheadName;
+    private final Object callSite;
+    private final Thread thread;
+    private final long acquiredAt;
+    // PermitHoldWatchdog 의 슬롯 위치. 반납 시 해당 슬롯만 비움
+    private final int slot;
+    // 이 퍼밋으로 빌린 커넥션에서 마지막으로 만든 Statement (문장 취소용). 추적하지 않으면 null
+    private volatile Statement statement;
+    // 감시 스레드만 읽고 씀
+    private boolean reported;
+    private boolean cancelled;
+
+    PermitHolder(String bulkheadName, Object callSite, Thread thread, long acquiredAt, int slot) {
+        this.bulkheadName = bulkheadName;
+        this.callSite = callSite;
+        this.thread = thread;
+        this.acquiredAt = acquiredAt;
+        this.slot = slot;
+    }
+
+    public String bulkheadName() {
+        return bulkheadName;
+    }
+
+    public Object callSite() {
+        return callSite;
+    }
+
+    public Thread thread() {
+        return thread;
+    }
+
+    /**
+     * @return 퍼밋을 획득한 시각 ({@link System#nanoTime()})
+     */
+    public long acquiredAt() {
+        return acquiredAt;
+    }
+
+    int slot() {
+        return slot;
+    }
+
+    Statement statement() {
+        return statement;
+    }
+
+    void statement(Statement statement) {
+        this.statement = statement;
+    }
+
+    boolean reported() {
+        return reported;
+    }
+
+    void markReported() {
+        this.reported = true;
+    }
+
+    boolean cancelled() {
+        return cancelled;
+    }
+
+    void markCancelled() {
+        this.cancelled = true;
+    }
+}
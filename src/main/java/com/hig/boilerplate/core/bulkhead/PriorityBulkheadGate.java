@@ -0,0 +1,321 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.core.exception.AcquirePermissionCancelledException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bulkhead 하나의 앞단에서 대기자를 우선순위 등급별로 줄 세우고, 가중치에 따라 공정하게 퍼밋을 나눠 주는 관문입니다.
+ * <p>
+ * Bulkhead 자체의 Semaphore 는 도착 순서대로만 퍼밋을 나눠 주므로, 배치 작업이 먼저 줄을 서면 사용자 API 호출이 그 뒤에서 기다립니다.
+ * 이 관문은 동시 실행 수를 직접 세어 여유가 있을 때만 호출을 Bulkhead 로 들여보내고,
+ * 여유가 없으면 등급별 대기열에 넣은 뒤 퍼밋이 반납될 때마다 Smooth Weighted Round-Robin 으로 다음 대기자를 고릅니다.
+ * 여러 등급이 동시에 대기 중이면 각 등급은 {@code 가중치 / 대기 중인 등급의 가중치 합} 만큼의 몫을 받으므로,
+ * 가장 낮은 등급도 최소 몫은 보장됩니다.
+ * </p>
+ * <p>
+ * 퍼밋의 실제 점유는 기존과 동일하게 {@link Bulkhead#acquirePermission()} 으로 기록하므로 Bulkhead 지표와
+ * {@link AdaptiveBulkheadLimiter} 의 한도 조정은 그대로 동작하며, 관문의 한도도 Bulkhead 의 현재
+ * {@code maxConcurrentCalls} 를 따릅니다. 대기 시간 제한은 기본적으로 Bulkhead 의 {@code maxWaitDuration} 을 사용합니다.
+ * </p>
+ *
+ * <h3>CoDel 입장 제어</h3>
+ * <p>
+ * 고정된 대기 시간만으로는 대기열이 줄지 않고 유지되어(standing queue) 모든 요청이 최대 대기 시간만큼의 지연을 떠안게 됩니다.
+ * CoDel(Controlled Delay) 모드를 켜면 interval 동안 관측된 대기 시간(sojourn)의 최솟값을 추적하여,
+ * 최솟값이 target 을 넘으면(대기열이 한 번도 비지 않았으면) 과부하 상태로 전환합니다.
+ * 과부하 상태에서는
+ * </p>
+ * <ul>
+ *     <li>각 등급 안에서 가장 최근에 도착한 대기자에게 먼저 차례를 주고(LIFO), 이미 오래 기다려 응답이 늦을 대기자는 버립니다.</li>
+ *     <li>대기 시간이 target 을 넘은 대기자는 {@code maxWaitDuration} 을 기다리지 않고 바로 거절합니다.</li>
+ * </ul>
+ * <p>
+ * 대기 없이 통과하는 호출이 생기면 최솟값이 0 이 되므로 다음 interval 에 정상 상태(FIFO)로 돌아옵니다.
+ * </p>
+ */
+public final class PriorityBulkheadGate {
+
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+    private final Bulkhead bulkhead;
+    // RequestPriority.ordinal() 순서의 등급별 가중치
+    private final int[] weights;
+    // CoDel 입장 제어를 사용하지 않으면 null
+    private final CoDel codel;
+    // 관문에서 대기 시간을 넘겨 거절했을 때 호출 (적응형 한도 조정의 수요 신호). 없으면 null
+    private final Runnable rejectionListener;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter>[] queues;
+    // Smooth Weighted Round-Robin 의 등급별 누적 점수
+    private final int[] credits;
+    // 관문을 통과해 퍼밋을 점유 중이거나 점유하려는 호출 수
+    private int inUse;
+    // lock 을 쥔 상태에서만 변경. 부하 판단(LoadSheddingFilter)을 위해 lock 없이 읽을 수 있도록 volatile
+    private volatile int queued;
+    // CoDel - 현재 interval 의 시작 시각과 그동안 관측된 최소 대기 시간
+    private long intervalStartedAt = System.nanoTime();
+    private long minSojourn = Long.MAX_VALUE;
+    private boolean overloaded;
+
+    @SuppressWarnings("unchecked")
+    public PriorityBulkheadGate(Bulkhead bulkhead, int[] weights, CoDel codel, Runnable rejectionListener) {
+        if (weights.length != PRIORITIES.length) {
+            throw new IllegalArgumentException("weights must have " + PRIORITIES.length + " elements");
+        }
+        for (int weight : weights) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("weights must be positive");
+            }
+        }
+        this.bulkhead = bulkhead;
+        this.weights = weights.clone();
+        this.codel = codel;
+        this.rejectionListener = rejectionListener;
+        this.queues = new ArrayDeque[PRIORITIES.length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+        this.credits = new int[PRIORITIES.length];
+    }
+
+    /**
+     * Bulkhead 의 {@code maxWaitDuration} 만큼 기다려 퍼밋을 획득합니다.
+     *
+     * @see #acquirePermission(RequestPriority, Duration)
+     */
+    public void acquirePermission(RequestPriority priority) {
+        acquirePermission(priority, bulkhead.getBulkheadConfig().getMaxWaitDuration());
+    }
+
+    /**
+     * 퍼밋을 획득합니다. 대기자가 없고 여유가 있으면 바로 통과하며, 그렇지 않으면 등급별 대기열에서 차례를 기다립니다.
+     *
+     * @param maxWait 차례를 기다릴 최대 시간
+     * @throws BulkheadFullException                maxWait 안에 차례가 오지 않은 경우
+     * @throws AcquirePermissionCancelledException 대기 중 interrupt 된 경우
+     */
+    public void acquirePermission(RequestPriority priority, Duration maxWait) {
+        Waiter waiter = null;
+        lock.lock();
+        try {
+            // 대기자가 있으면 새 호출이 끼어들지 않도록 줄을 세움
+            if (queued == 0 && inUse < limit()) {
+                inUse++;
+                if (codel != null) {
+                    recordSojourn(0, System.nanoTime());
+                }
+            } else {
+                waiter = new Waiter(priority, lock.newCondition(), codel != null ? System.nanoTime() : 0);
+                queues[priority.ordinal()].addLast(waiter);
+                queued++;
+                long timeout = maxWait.toNanos();
+                if (overloaded) {
+                    timeout = Math.min(timeout, codel.targetNanos());
+                }
+                await(waiter, timeout);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            // 관문이 동시 실행 수를 보장하므로 한도를 줄이는 중이 아니라면 즉시 통과
+            bulkhead.acquirePermission();
+        } catch (RuntimeException e) {
+            releaseSlot();
+            throw e;
+        }
+    }
+
+    /**
+     * 퍼밋을 반납하고, 대기자가 있으면 가중치에 따라 다음 대기자에게 차례를 넘깁니다.
+     */
+    public void releasePermission() {
+        bulkhead.releasePermission();
+        releaseSlot();
+    }
+
+    /**
+     * @return 대기 중인 호출 수
+     */
+    public int queuedCalls() {
+        return queued;
+    }
+
+    /**
+     * @return 해당 등급의 대기 중인 호출 수
+     */
+    public int queuedCalls(RequestPriority priority) {
+        lock.lock();
+        try {
+            return queues[priority.ordinal()].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void await(Waiter waiter, long remaining) {
+        try {
+            while (!waiter.granted) {
+                if (waiter.dropped || remaining <= 0) {
+                    if (!waiter.dropped) {
+                        abandon(waiter);
+                    }
+                    if (rejectionListener != null) {
+                        rejectionListener.run();
+                    }
+                    throw BulkheadFullException.createBulkheadFullException(bulkhead);
+                }
+                remaining = waiter.condition.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            if (waiter.granted) {
+                // 차례를 받은 직후 interrupt 된 경우 - 받은 자리를 다음 대기자에게 넘김
+                inUse--;
+                grantNext();
+            } else if (!waiter.dropped) {
+                abandon(waiter);
+            }
+            Thread.currentThread().interrupt();
+            throw new AcquirePermissionCancelledException();
+        }
+    }
+
+    private void abandon(Waiter waiter) {
+        queues[waiter.priority.ordinal()].remove(waiter);
+        dequeued(waiter);
+        if (codel != null) {
+            long now = System.nanoTime();
+            recordSojourn(now - waiter.enqueuedAt, now);
+        }
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            inUse--;
+            grantNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 여유가 있는 만큼 대기자에게 차례를 넘깁니다. lock 을 쥔 상태에서 호출해야 합니다.
+     */
+    private void grantNext() {
+        long now = codel != null ? System.nanoTime() : 0;
+        if (overloaded) {
+            dropStale(now);
+        }
+        // 한도가 늘어난 뒤 첫 반납이면 여러 대기자가 한 번에 통과할 수 있음
+        while (queued > 0 && inUse < limit()) {
+            ArrayDeque<Waiter> queue = queues[nextPriority()];
+            // 과부하 상태에서는 가장 최근에 도착한 대기자가 시한 안에 응답할 가능성이 가장 높음
+            Waiter waiter = overloaded ? queue.pollLast() : queue.pollFirst();
+            waiter.granted = true;
+            inUse++;
+            dequeued(waiter);
+            if (codel != null) {
+                recordSojourn(now - waiter.enqueuedAt, now);
+            }
+            waiter.condition.signal();
+        }
+    }
+
+    /**
+     * 과부하 상태에서 target 보다 오래 기다린 대기자를 대기열 앞(가장 오래된 쪽)부터 버립니다.
+     */
+    private void dropStale(long now) {
+        for (ArrayDeque<Waiter> queue : queues) {
+            Waiter oldest;
+            while ((oldest = queue.peekFirst()) != null && now - oldest.enqueuedAt > codel.targetNanos()) {
+                queue.pollFirst();
+                oldest.dropped = true;
+                dequeued(oldest);
+                oldest.condition.signal();
+            }
+        }
+    }
+
+    private void dequeued(Waiter waiter) {
+        queued--;
+        if (queues[waiter.priority.ordinal()].isEmpty()) {
+            // 대기열이 빈 등급의 점수를 남겨 두면 다시 들어왔을 때 몰아서 차례를 가져감
+            credits[waiter.priority.ordinal()] = 0;
+        }
+    }
+
+    /**
+     * interval 동안의 최소 대기 시간을 갱신하고, interval 이 끝났으면 과부하 여부를 다시 판정합니다.
+     */
+    private void recordSojourn(long sojourn, long now) {
+        if (sojourn < minSojourn) {
+            minSojourn = sojourn;
+        }
+        if (now - intervalStartedAt >= codel.intervalNanos()) {
+            overloaded = minSojourn > codel.targetNanos();
+            minSojourn = Long.MAX_VALUE;
+            intervalStartedAt = now;
+        }
+    }
+
+    /**
+     * Smooth Weighted Round-Robin - 대기 중인 등급의 점수를 가중치만큼 올리고,
+     * 가장 높은 등급을 고른 뒤 그 등급의 점수를 대기 중인 등급의 가중치 합만큼 내립니다.
+     */
+    private int nextPriority() {
+        int total = 0;
+        int selected = -1;
+        for (int i = 0; i < queues.length; i++) {
+            if (queues[i].isEmpty()) {
+                continue;
+            }
+            credits[i] += weights[i];
+            total += weights[i];
+            // 점수가 같으면 높은 등급(작은 ordinal)을 먼저 선택
+            if (selected < 0 || credits[i] > credits[selected]) {
+                selected = i;
+            }
+        }
+        credits[selected] -= total;
+        return selected;
+    }
+
+    private int limit() {
+        return bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+    }
+
+    /**
+     * CoDel 입장 제어 설정.
+     *
+     * @param targetNanos   과부하로 판정하는 최소 대기 시간이자, 과부하 상태에서 대기자가 기다릴 수 있는 최대 시간 (ns)
+     * @param intervalNanos 최소 대기 시간을 관측하는 주기 (ns)
+     */
+    public record CoDel(long targetNanos, long intervalNanos) {
+    }
+
+    private static final class Waiter {
+
+        private final RequestPriority priority;
+        private final Condition condition;
+        // CoDel 을 사용하지 않으면 0
+        private final long enqueuedAt;
+        // lock 을 쥔 상태에서만 읽고 씀
+        private boolean granted;
+        // 과부하 상태에서 차례를 받지 못하고 버려짐
+        private boolean dropped;
+
+        private Waiter(RequestPriority priority, Condition condition, long enqueuedAt) {
+            this.priority = priority;
+            this.condition = condition;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import com.hig.boilerplate.core.deadline.RequestDeadline;
+import com.hig.boilerplate.core.exception.DeadlineExceededException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DB Bulkhead 퍼밋을 우선순위 등급별 가중 공정 대기열({@link PriorityBulkheadGate})을 거쳐 나눠 줍니다.
+ * <p>
+ * 우선순위 대기, CoDel 입장 제어({@code boilerplate.bulkhead.codel.enabled}), 요청 처리 시한 전파 중 하나라도 켜져 있으면 등록되며,
+ * {@link com.hig.boilerplate.core.aop.TransactionalBulkheadAspect} 와 {@link BulkheadDataSource} 는
+ * 이 빈이 있으면 {@link Bulkhead#acquirePermission()} 대신 이 빈을 통해 퍼밋을 획득하고 반납합니다.
+ * 관문은 Bulkhead 별로 처음 사용될 때 만들어집니다.
+ * </p>
+ * <p>
+ * 요청 처리 시한({@link RequestDeadline})이 바인딩되어 있으면 {@code maxWaitDuration} 과 남은 시간 중 짧은 쪽만큼만 기다리고,
+ * 시한이 이미 지났으면 대기열에 들어가지 않고 바로 거절합니다. Bulkhead 자체의 대기 시간은 호출마다 바꿀 수 없으므로
+ * 시한 전파만 사용하는 경우에도 관문을 거치며, 이때 모든 호출은 같은 등급이 되어 도착 순서대로 대기합니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${boilerplate.bulkhead.priority.enabled:false} or ${boilerplate.bulkhead.codel.enabled:false} "
+    + "or ${boilerplate.deadline.enabled:false}")
+public class PriorityBulkheadScheduler {
+
+    private final int[] weights;
+    // CoDel 입장 제어가 꺼져 있으면 null
+    private final PriorityBulkheadGate.CoDel codel;
+    // 적응형 모드가 꺼져 있으면 null
+    private final AdaptiveBulkheadLimiter adaptiveLimiter;
+    private final Map<String, PriorityBulkheadGate> gates = new ConcurrentHashMap<>();
+
+    public PriorityBulkheadScheduler(BulkheadProperties properties,
+                                     ObjectProvider<AdaptiveBulkheadLimiter> adaptiveLimiter) {
+        this.weights = properties.priority().weights();
+        BulkheadProperties.CoDel codel = properties.codel();
+        this.codel = codel.enabled()
+            ? new PriorityBulkheadGate.CoDel(codel.target().toNanos(), codel.interval().toNanos())
+            : null;
+        this.adaptiveLimiter = adaptiveLimiter.getIfAvailable();
+    }
+
+    /**
+     * @throws DeadlineExceededException 요청 처리 시한이 이미 지난 경우
+     */
+    public void acquirePermission(Bulkhead bulkhead, RequestPriority priority) {
+        Duration maxWait = bulkhead.getBulkheadConfig().getMaxWaitDuration();
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            long remaining = deadline.remainingNanos();
+            if (remaining <= 0) {
+                throw new DeadlineExceededException(bulkhead.getName());
+            }
+            if (remaining < maxWait.toNanos()) {
+                maxWait = Duration.ofNanos(remaining);
+            }
+        }
+        gateOf(bulkhead).acquirePermission(priority, maxWait);
+    }
+
+    public void releasePermission(Bulkhead bulkhead) {
+        gateOf(bulkhead).releasePermission();
+    }
+
+    /**
+     * @return Bulkhead 의 관문. 아직 사용된 적이 없으면 null
+     */
+    public PriorityBulkheadGate find(String bulkheadName) {
+        return gates.get(bulkheadName);
+    }
+
+    private PriorityBulkheadGate gateOf(Bulkhead bulkhead) {
+        PriorityBulkheadGate gate = gates.get(bulkhead.getName());
+        if (gate != null) {
+            return gate;
+        }
+        return gates.computeIfAbsent(bulkhead.getName(), name -> register(bulkhead));
+    }
+
+    private PriorityBulkheadGate register(Bulkhead bulkhead) {
+        // 관문에서 거절된 호출은 Bulkhead 의 거절 이벤트를 발생시키지 않으므로 적응형 Limiter 에 직접 알림
+        Runnable rejectionListener = adaptiveLimiter == null ? null : () -> adaptiveLimiter.onRejected(bulkhead);
+        log.info("Priority queuing enabled for bulkhead [{}]. weights: {}, codel: {}",
+            bulkhead.getName(), Arrays.toString(weights), codel);
+        return new PriorityBulkheadGate(bulkhead, weights, codel, rejectionListener);
+    }
+}
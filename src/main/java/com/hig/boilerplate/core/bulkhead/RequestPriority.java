@@ -0,0 +1,40 @@
+package com.hig.boilerplate.core.bulkhead;
+
+/**
+ * DB Bulkhead 가 포화되었을 때 대기자에게 퍼밋을 나눠 주는 우선순위 등급입니다.
+ * <p>
+ * 요청 단위의 등급은 {@link com.hig.boilerplate.core.filter.RequestPriorityFilter} 가 {@link ScopedValue} 로 바인딩하며,
+ * 메서드나 클래스에 선언된 {@link com.hig.boilerplate.core.annotation.BulkheadPriority} 가 있으면 그 값이 우선합니다.
+ * 둘 다 없으면(스케줄러, 메시지 리스너 등) {@link #DEFAULT} 로 취급합니다.
+ * </p>
+ */
+public enum RequestPriority {
+    /**
+     * 사용자가 응답을 기다리는 API 호출
+     */
+    INTERACTIVE,
+    /**
+     * 등급이 지정되지 않은 작업
+     */
+    DEFAULT,
+    /**
+     * 배치, 관리자 내보내기 등 지연되어도 괜찮은 작업
+     */
+    BATCH;
+
+    private static final ScopedValue<RequestPriority> CURRENT = ScopedValue.newInstance();
+
+    /**
+     * @return 현재 스레드에 바인딩된 등급. 바인딩되지 않았으면 {@link #DEFAULT}
+     */
+    public static RequestPriority current() {
+        return CURRENT.orElse(DEFAULT);
+    }
+
+    /**
+     * 이 등급을 바인딩하는 {@link ScopedValue.Carrier} 를 반환합니다.
+     */
+    public ScopedValue.Carrier bind() {
+        return ScopedValue.where(CURRENT, this);
+    }
+}
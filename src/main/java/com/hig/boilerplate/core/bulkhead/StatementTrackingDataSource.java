@@ -0,0 +1,84 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 커넥션에서 만들어진 Statement 를 현재 {@link BulkheadScope} 의 {@link PermitHolder} 에 기록하는 DataSource 입니다.
+ * <p>
+ * {@link PermitHoldWatchdog} 가 퍼밋을 너무 오래 점유한 호출의 SQL 을 취소할 수 있도록
+ * {@code boilerplate.bulkhead.watchdog.cancel-after} 가 설정된 {@code method} 모드에서만 커넥션 풀 위에 적용됩니다.
+ * {@code connection} 모드에서는 {@link BulkheadDataSource} 가 커넥션 단위로 직접 기록합니다.
+ * </p>
+ */
+public class StatementTrackingDataSource extends DelegatingDataSource {
+
+    public StatementTrackingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        BulkheadScope scope = BulkheadScope.current();
+        // fork 된 스레드의 커넥션은 부모의 퍼밋과 무관함
+        PermitHolder holder = scope != null && scope.ownedByCurrentThread() ? scope.permitHolder() : null;
+        if (holder == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(
+            StatementTrackingDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+            new TrackingHandler(connection, holder));
+    }
+
+    /**
+     * 커넥션 하나에서 마지막으로 만들어진 Statement 를 기록합니다. 보통 한 번에 하나의 Statement 만 실행되므로 마지막 것이 실행 중인 SQL 입니다.
+     */
+    private record TrackingHandler(Connection target, PermitHolder holder) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "close" -> {
+                    holder.statement(null);
+                    target.close();
+                    return null;
+                }
+                default -> {
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    if (result instanceof Statement statement) {
+                        holder.statement(statement);
+                    }
+                    return result;
+                }
+            }
+        }
+    }
+}
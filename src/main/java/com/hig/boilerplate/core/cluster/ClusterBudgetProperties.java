@@ -0,0 +1,28 @@
+package com.hig.boilerplate.core.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 클러스터 전체의 Primary DB 커넥션 예산에 대한 설정입니다. ({@code boilerplate.cluster-budget.*})
+ *
+ * @param enabled           클러스터 커넥션 예산 사용 여부 (기본값 false - 노드마다 설정된 풀 크기를 그대로 사용)
+ * @param budget            모든 노드가 나눠 쓸 Primary 커넥션 수. 보통 {@code max_connections} 에서 관리용 / 다른 서비스 몫을 뺀 값
+ * @param minPoolSize       노드가 아무리 많아도 한 노드에 남길 최소 풀 크기
+ * @param heartbeatInterval 생존 신호를 기록하고 몫을 다시 계산하는 주기
+ * @param nodeTtl           마지막 생존 신호 후 이 시간이 지난 노드는 종료된 것으로 보고 몫을 회수.
+ *                          생존 신호도 같은 풀의 커넥션을 쓰므로 {@code heartbeatInterval} + Hikari {@code connection-timeout} 보다 길어야 함
+ * @param nodeId            노드 식별자. 비어 있으면 {@code 호스트명:PID}
+ */
+@ConfigurationProperties("boilerplate.cluster-budget")
+public record ClusterBudgetProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("80") int budget,
+    @DefaultValue("2") int minPoolSize,
+    @DefaultValue("5s") Duration heartbeatInterval,
+    @DefaultValue("45s") Duration nodeTtl,
+    String nodeId
+) {
+}
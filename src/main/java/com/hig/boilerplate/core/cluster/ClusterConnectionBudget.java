@@ -0,0 +1,239 @@
+package com.hig.boilerplate.core.cluster;
+
+import com.hig.boilerplate.core.bulkhead.AdaptiveBulkheadLimiter;
+import com.hig.boilerplate.core.bulkhead.BulkheadConfigChanges;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 클러스터 전체의 Primary 커넥션 예산을 살아 있는 노드 수로 나눠 각 노드의 커넥션 풀과 Bulkhead 한도를 조정합니다.
+ * <p>
+ * 노드마다 풀 크기를 고정하면 노드를 늘릴 때 전체 커넥션 수가 PostgreSQL {@code max_connections} 를 넘어
+ * 새 커넥션이 거절됩니다. 각 노드는 {@code heartbeat-interval} 마다 {@code node_heartbeat} 테이블에 생존 신호를 기록하고,
+ * {@code node-ttl} 안에 신호를 남긴 노드 수로 {@code budget} 을 나눈 만큼만 커넥션을 사용합니다.
+ * 나머지는 노드 ID 순서로 앞의 노드에 하나씩 더 배분합니다.
+ * </p>
+ *
+ * <h3>한도 조정</h3>
+ * <ul>
+ *     <li>풀 크기: {@code min-pool-size} 와 설정된 {@code maximum-pool-size} 사이에서 몫만큼 조정</li>
+ *     <li>기본 Bulkhead: 시작 시의 "풀 크기 - 한도" 여유분(예비 Bulkhead 몫 등)을 유지하도록 함께 조정.
+ *     적응형 한도를 사용하면 한도 대신 상한만 바꾸고 조정은 {@link AdaptiveBulkheadLimiter} 에 맡김</li>
+ * </ul>
+ * <p>
+ * 줄일 때는 Bulkhead 를 먼저 줄여 새 커넥션 요청을 막은 뒤 풀을 줄이고, 늘릴 때는 풀을 먼저 늘립니다.
+ * 풀을 줄여도 사용 중인 커넥션은 반납될 때 정리되므로 진행 중인 트랜잭션은 영향을 받지 않습니다.
+ * </p>
+ * <p>
+ * Bulkhead 한도를 줄이는 설정 변경은 사용 중인 퍼밋이 반납될 때까지 대기하므로 별도 스레드에서 적용하며,
+ * 생존 신호 스레드는 {@code heartbeat-interval} 까지만 기다립니다. 그 안에 적용되지 않아도 풀은 예정대로 줄이고
+ * Bulkhead 는 퍼밋이 반납되는 대로 마저 줄어듭니다. 생존 신호가 멈춰 다른 노드가 이 노드의 몫을 가져가는 일을 막기 위함입니다.
+ * </p>
+ * <p>
+ * 생존 신호는 조정 대상인 풀에서 커넥션을 빌려 기록하므로, 풀이 포화되면 커넥션을 얻을 때까지 최대 Hikari {@code connection-timeout} 만큼
+ * 늦어질 수 있습니다. 그 사이 다른 노드가 이 노드를 종료된 것으로 보고 몫을 가져가지 않도록 {@code node-ttl} 은
+ * {@code heartbeat-interval + connection-timeout} 보다 길어야 하며, 그렇지 않으면 시작 시 경고를 남깁니다.
+ * </p>
+ * <p>
+ * 생존 신호는 DB 시각({@code now()})으로 기록하므로 노드 간 시계 차이의 영향을 받지 않습니다.
+ * DB 에 접근할 수 없으면 마지막으로 계산한 크기를 유지합니다. 정상 종료 시에는 자신의 행을 지워 다른 노드가 바로 몫을 가져가도록 합니다.
+ * 새 노드가 합류하면 기존 노드는 다음 생존 신호 주기에 줄어들므로, 그 사이 잠시 예산을 넘을 수 있습니다.
+ * </p>
+ */
+@Slf4j
+public class ClusterConnectionBudget {
+
+    private static final String HEARTBEAT_SQL = """
+        INSERT INTO node_heartbeat (node_id, started_at, heartbeat_at) VALUES (?, now(), now())
+        ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = now()""";
+    private static final String LIVE_NODES_SQL =
+        "SELECT node_id FROM node_heartbeat WHERE heartbeat_at > now() - ? * interval '1 millisecond' ORDER BY node_id";
+    private static final String EXPIRE_SQL =
+        "DELETE FROM node_heartbeat WHERE heartbeat_at <= now() - ? * interval '1 millisecond'";
+    private static final String LEAVE_SQL = "DELETE FROM node_heartbeat WHERE node_id = ?";
+
+    private final HikariDataSource pool;
+    private final Bulkhead bulkhead;
+    // 적응형 한도를 사용하지 않으면 null
+    private final AdaptiveBulkheadLimiter adaptiveLimiter;
+    private final ClusterBudgetProperties properties;
+    // Bulkhead 를 거치지 않도록 풀에서 직접 커넥션을 얻음
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    // 설정된 풀 크기. 노드가 하나뿐이어도 이 크기를 넘지 않음
+    private final int maxPoolSize;
+    // 풀 크기와 기본 Bulkhead 한도의 차이 (예비 Bulkhead, 여유분)
+    private final int headroom;
+    private final ScheduledExecutorService heartbeat =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("cluster-budget").factory());
+    // 한도를 줄이는 Bulkhead 설정 변경은 퍼밋이 반납될 때까지 대기하므로 생존 신호 스레드가 아닌 별도 스레드에서 순서대로 적용
+    private final ExecutorService applier =
+        Executors.newSingleThreadExecutor(Thread.ofVirtual().name("cluster-budget-applier").factory());
+
+    // 조정 스레드에서만 변경
+    private volatile int currentPoolSize;
+
+    public ClusterConnectionBudget(HikariDataSource pool,
+                                   Bulkhead bulkhead,
+                                   AdaptiveBulkheadLimiter adaptiveLimiter,
+                                   ClusterBudgetProperties properties) {
+        this(pool, new JdbcTemplate(pool), bulkhead, adaptiveLimiter, properties);
+    }
+
+    ClusterConnectionBudget(HikariDataSource pool,
+                            JdbcTemplate jdbcTemplate,
+                            Bulkhead bulkhead,
+                            AdaptiveBulkheadLimiter adaptiveLimiter,
+                            ClusterBudgetProperties properties) {
+        this.pool = pool;
+        this.bulkhead = bulkhead;
+        this.adaptiveLimiter = adaptiveLimiter;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = properties.nodeId() != null && !properties.nodeId().isBlank()
+            ? properties.nodeId()
+            : defaultNodeId();
+        this.maxPoolSize = pool.getMaximumPoolSize();
+        this.headroom = Math.max(0, maxPoolSize - bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+        this.currentPoolSize = maxPoolSize;
+
+        Duration heartbeatDelay = properties.heartbeatInterval().plusMillis(pool.getConnectionTimeout());
+        if (properties.nodeTtl().compareTo(heartbeatDelay) <= 0) {
+            log.warn("Cluster budget node-ttl {} is not longer than heartbeat-interval + connection-timeout ({}). "
+                + "A saturated pool can delay the heartbeat until other nodes take this node's share.", properties.nodeTtl(), heartbeatDelay);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        // 요청을 받기 전에 몫을 한 번 맞춰 둠
+        rebalance();
+        long period = properties.heartbeatInterval().toMillis();
+        heartbeat.scheduleWithFixedDelay(this::rebalance, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        heartbeat.shutdownNow();
+        applier.shutdownNow();
+        try {
+            jdbcTemplate.update(LEAVE_SQL, nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Failed to remove node [{}] from cluster budget. It expires after {}.", nodeId, properties.nodeTtl());
+        }
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @return 현재 이 노드에 배분된 풀 크기
+     */
+    public int currentPoolSize() {
+        return currentPoolSize;
+    }
+
+    void rebalance() {
+        try {
+            long ttlMillis = properties.nodeTtl().toMillis();
+            jdbcTemplate.update(HEARTBEAT_SQL, nodeId);
+            jdbcTemplate.update(EXPIRE_SQL, ttlMillis);
+            List<String> liveNodes = jdbcTemplate.queryForList(LIVE_NODES_SQL, String.class, ttlMillis);
+
+            int size = Math.clamp(share(properties.budget(), liveNodes, nodeId),
+                Math.min(properties.minPoolSize(), maxPoolSize), maxPoolSize);
+            if (size != currentPoolSize) {
+                resize(size, liveNodes.size());
+            }
+        } catch (RuntimeException e) {
+            // 예외가 전파되면 스케줄러가 이후 실행을 중단하므로 여기서 처리. 마지막 크기를 유지
+            log.warn("Failed to rebalance cluster connection budget. Keeping pool size {}.", currentPoolSize, e);
+        }
+    }
+
+    private void resize(int size, int liveNodes) {
+        int previous = currentPoolSize;
+        if (size < previous) {
+            resizeBulkhead(size);
+            resizePool(size);
+        } else {
+            resizePool(size);
+            resizeBulkhead(size);
+        }
+        currentPoolSize = size;
+        log.info("Cluster connection budget rebalanced. nodes: {}, pool size: {} -> {}", liveNodes, previous, size);
+    }
+
+    private void resizePool(int size) {
+        if (pool.getMinimumIdle() > size) {
+            pool.setMinimumIdle(size);
+        }
+        pool.setMaximumPoolSize(size);
+    }
+
+    private void resizeBulkhead(int poolSize) {
+        int limit = Math.max(1, poolSize - headroom);
+        if (adaptiveLimiter != null) {
+            // 적응형 한도도 예비 Bulkhead 몫을 남기도록 여유분을 뺀 값을 상한으로 사용
+            adaptiveLimiter.changeCeiling(bulkhead.getName(), limit);
+            return;
+        }
+        // 운영자가 바꾼 maxWaitDuration 등 다른 값은 건드리지 않고 한도만 변경
+        Future<?> change = applier.submit(() -> BulkheadConfigChanges.apply(bulkhead, config -> BulkheadConfig.from(config)
+            .maxConcurrentCalls(limit)
+            .build()));
+        try {
+            change.get(properties.heartbeatInterval().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // 사용 중인 퍼밋이 반납되는 대로 마저 적용됨
+            log.warn("Bulkhead [{}] limit change to {} is waiting for in-flight calls to finish.", bulkhead.getName(), limit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to change bulkhead [" + bulkhead.getName() + "]", e.getCause());
+        }
+    }
+
+    /**
+     * 예산을 노드 수로 나눈 이 노드의 몫을 계산합니다. 나누어떨어지지 않는 나머지는 노드 ID 순서로 앞의 노드에 하나씩 배분합니다.
+     *
+     * @param budget    클러스터 전체 예산
+     * @param liveNodes 살아 있는 노드 ID (정렬됨)
+     * @param nodeId    이 노드의 ID
+     * @return 이 노드의 몫
+     */
+    static int share(int budget, List<String> liveNodes, String nodeId) {
+        int nodes = Math.max(1, liveNodes.size());
+        int index = liveNodes.indexOf(nodeId);
+        return budget / nodes + (index >= 0 && index < budget % nodes ? 1 : 0);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,295 @@
+package com.hig.boilerplate.core.concurrency;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Semaphore} 에 논블로킹 허가 획득을 더한 래퍼입니다.
+ * <p>
+ * {@link #acquireAsync()} 는 스레드를 멈추지 않고 즉시 {@link CompletableFuture} 를 반환하며,
+ * 허가가 없으면 lock-free 대기열({@link ConcurrentLinkedQueue})에 등록되어 다른 호출이 허가를 반납할 때 완료됩니다.
+ * 기존의 블로킹 방식({@link #acquire()})과 같은 Semaphore 를 함께 사용할 수 있습니다.
+ * </p>
+ *
+ * <h3>주의사항</h3>
+ * <p>
+ * 비동기 대기자를 깨우려면 허가 반납은 반드시 {@link #release()} 를 통해야 합니다.
+ * 원본 {@link Semaphore#release()} 를 직접 호출하면 블로킹 대기자만 깨어납니다.
+ * </p>
+ *
+ * <h3>실행 중 크기 변경</h3>
+ * <p>
+ * {@link #resize(int)} 로 전체 허가 수를 바꿀 수 있습니다. 줄일 때 남은 허가가 부족하면 부족분을 빚으로 기록하고,
+ * 사용 중인 허가가 반납될 때 풀에 돌려놓지 않고 빚을 먼저 갚습니다.
+ * 실행 중인 호출은 중단되지 않으며, 사용 중인 허가 수가 새 크기 아래로 내려간 뒤부터 새 호출이 허가를 얻습니다.
+ * </p>
+ */
+public final class AsyncSemaphore {
+
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final Semaphore semaphore;
+    // 전체 허가 수. 가중치의 상한으로 사용
+    private volatile int capacity;
+    // 크기를 줄일 때 남은 허가가 부족해 아직 회수하지 못한 허가 수. 반납되는 허가로 먼저 갚음
+    private final AtomicInteger debt = new AtomicInteger();
+    private final ReentrantLock resizeLock = new ReentrantLock();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    // drain 루프를 한 스레드만 수행하도록 보장하는 카운터 (lock 대신 사용)
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    public AsyncSemaphore(Semaphore semaphore) {
+        this.semaphore = semaphore;
+        this.capacity = Math.max(1, semaphore.availablePermits());
+    }
+
+    /**
+     * 허가를 얻을 때까지 현재 스레드를 대기시킵니다.
+     */
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    /**
+     * {@code permits} 개의 허가를 한 번에 얻을 때까지 현재 스레드를 대기시킵니다.
+     */
+    public void acquire(int permits) throws InterruptedException {
+        semaphore.acquire(permits);
+    }
+
+    /**
+     * 허가를 얻을 때까지 최대 {@code timeout} 동안 현재 스레드를 대기시킵니다.
+     *
+     * @return 허가를 얻었으면 true
+     */
+    public boolean tryAcquire(Duration timeout) throws InterruptedException {
+        return tryAcquire(1, timeout);
+    }
+
+    /**
+     * {@code permits} 개의 허가를 한 번에 얻을 때까지 최대 {@code timeout} 동안 현재 스레드를 대기시킵니다.
+     *
+     * @return 허가를 얻었으면 true
+     */
+    public boolean tryAcquire(int permits, Duration timeout) throws InterruptedException {
+        return semaphore.tryAcquire(permits, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 대기 없이 허가를 얻습니다. 비동기 대기자가 있으면 추월하지 않고 실패합니다.
+     *
+     * @return 허가를 얻었으면 true
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * 대기 없이 {@code permits} 개의 허가를 한 번에 얻습니다. 비동기 대기자가 있으면 추월하지 않고 실패합니다.
+     *
+     * @return 허가를 얻었으면 true
+     */
+    public boolean tryAcquire(int permits) {
+        return waiters.isEmpty() && semaphore.tryAcquire(permits);
+    }
+
+    /**
+     * 허가를 얻으면 완료되는 Future 를 즉시 반환합니다.
+     * <p>
+     * 반환된 Future 를 취소하면 즉시 대기열에서 제외되며, 허가는 소모되지 않습니다.
+     * Future 가 정상 완료된 경우에만 허가를 얻은 것이므로 이후 {@link #release()} 를 호출해야 합니다.
+     * </p>
+     *
+     * @return 허가 획득 시 완료되는 Future (허가가 남아 있으면 이미 완료된 Future)
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        return acquireAsync(1);
+    }
+
+    /**
+     * {@code permits} 개의 허가를 한 번에 얻으면 완료되는 Future 를 즉시 반환합니다.
+     * 대기열은 순서대로 처리되므로, 큰 요청이 작은 요청들에 밀려 무기한 대기하지 않습니다.
+     *
+     * @return 허가 획득 시 완료되는 Future (허가가 남아 있으면 이미 완료된 Future)
+     */
+    public CompletableFuture<Void> acquireAsync(int permits) {
+        // 먼저 온 대기자가 없을 때만 바로 획득 (대기자 추월 방지)
+        if (tryAcquire(permits)) {
+            return GRANTED;
+        }
+        Waiter waiter = new Waiter(new CompletableFuture<>(), permits);
+        // 취소되거나 타임아웃된 대기자가 대기열 맨 앞에 남아 있으면 다음 반납 전까지 tryAcquire 와 뒤의 대기자가 모두 막히므로 바로 정리
+        waiter.future().whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                drain();
+            }
+        });
+        waiters.offer(waiter);
+        // 등록 직전에 허가가 반납되었을 수 있으므로 한 번 더 분배
+        drain();
+        return waiter.future();
+    }
+
+    /**
+     * {@link #acquireAsync()} 와 같지만, {@code timeout} 안에 허가를 얻지 못하면 {@link TimeoutException} 으로 실패합니다.
+     *
+     * @param timeout 최대 대기 시간. null 이면 무기한 대기, 0 이면 대기하지 않음
+     * @return 허가 획득 시 완료되는 Future
+     */
+    public CompletableFuture<Void> acquireAsync(Duration timeout) {
+        return acquireAsync(1, timeout);
+    }
+
+    /**
+     * {@link #acquireAsync(int)} 와 같지만, {@code timeout} 안에 허가를 얻지 못하면 {@link TimeoutException} 으로 실패합니다.
+     *
+     * @param timeout 최대 대기 시간. null 이면 무기한 대기, 0 이면 대기하지 않음
+     * @return 허가 획득 시 완료되는 Future
+     */
+    public CompletableFuture<Void> acquireAsync(int permits, Duration timeout) {
+        if (timeout == null) {
+            return acquireAsync(permits);
+        }
+        if (timeout.isZero()) {
+            return tryAcquire(permits) ? GRANTED : CompletableFuture.failedFuture(new TimeoutException());
+        }
+        // 타임아웃으로 완료된 대기자는 그 즉시 drain 으로 대기열에서 제외됨
+        return acquireAsync(permits).orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public void release() {
+        release(1);
+    }
+
+    /**
+     * {@code permits} 개의 허가를 한 번에 반납합니다.
+     */
+    public void release(int permits) {
+        int returned = permits - repay(permits);
+        if (returned > 0) {
+            semaphore.release(returned);
+            drain();
+        }
+    }
+
+    /**
+     * 전체 허가 수를 변경합니다.
+     * <p>
+     * 늘리면 늘어난 만큼 즉시 대기자에게 분배합니다. 줄이면 남은 허가에서 먼저 회수하고,
+     * 부족한 만큼은 사용 중인 허가가 반납될 때 회수합니다. 어느 쪽이든 호출 스레드는 대기하지 않습니다.
+     * </p>
+     *
+     * @param newCapacity 새 전체 허가 수 (1 이상)
+     */
+    public void resize(int newCapacity) {
+        if (newCapacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + newCapacity);
+        }
+        resizeLock.lock();
+        try {
+            int delta = newCapacity - capacity;
+            if (delta > 0) {
+                // 아직 회수하지 못한 허가는 돌려받을 필요가 없으므로 빚부터 탕감
+                int forgiven = repay(delta);
+                if (delta > forgiven) {
+                    semaphore.release(delta - forgiven);
+                }
+            } else if (delta < 0) {
+                int shrink = -delta;
+                int reclaimed = 0;
+                while (reclaimed < shrink && semaphore.tryAcquire()) {
+                    reclaimed++;
+                }
+                debt.addAndGet(shrink - reclaimed);
+                // 회수하는 사이 빚을 확인하지 못하고 반납된 허가
+                while (debt.get() > 0 && semaphore.tryAcquire()) {
+                    if (repay(1) == 0) {
+                        semaphore.release();
+                    }
+                }
+            }
+            capacity = newCapacity;
+        } finally {
+            resizeLock.unlock();
+        }
+        drain();
+    }
+
+    /**
+     * 반납되는 허가로 빚을 갚습니다.
+     *
+     * @return 빚을 갚는 데 사용한 허가 수
+     */
+    private int repay(int permits) {
+        while (true) {
+            int owed = debt.get();
+            if (owed == 0) {
+                return 0;
+            }
+            int paid = Math.min(owed, permits);
+            if (debt.compareAndSet(owed, owed - paid)) {
+                return paid;
+            }
+        }
+    }
+
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     * @return 전체 허가 수
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return 크기를 줄인 뒤 아직 반납되지 않아 회수하지 못한 허가 수
+     */
+    public int pendingShrink() {
+        return debt.get();
+    }
+
+    public int queuedWaiters() {
+        return waiters.size();
+    }
+
+    /**
+     * 남은 허가를 대기열 순서대로 비동기 대기자에게 넘겨줍니다.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            // 다른 스레드가 분배 중 - 그 스레드가 한 번 더 돌도록 요청만 남김
+            return;
+        }
+        do {
+            Waiter waiter;
+            while ((waiter = waiters.peek()) != null) {
+                if (waiter.future().isDone()) {
+                    // 취소되었거나 타임아웃된 대기자
+                    waiters.poll();
+                    continue;
+                }
+                if (!semaphore.tryAcquire(waiter.permits())) {
+                    break;
+                }
+                waiters.poll();
+                if (!waiter.future().complete(null)) {
+                    // 허가를 얻는 사이 취소된 경우 허가를 되돌림
+                    semaphore.release(waiter.permits());
+                }
+            }
+        } while (drainRequests.decrementAndGet() != 0);
+    }
+
+    private record Waiter(CompletableFuture<Void> future, int permits) {
+    }
+}
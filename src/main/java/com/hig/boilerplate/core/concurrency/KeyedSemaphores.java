@@ -0,0 +1,144 @@
+package com.hig.boilerplate.core.concurrency;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 키(사용자, 테넌트 등)별로 독립된 {@link AsyncSemaphore} 를 관리합니다.
+ * <p>
+ * 키 공간을 여러 stripe 로 나누어 서로 다른 키의 호출이 같은 lock 을 다투지 않도록 하며,
+ * 각 키의 Semaphore 는 사용 중인 호출({@link Lease})이 하나도 없으면 즉시 제거됩니다.
+ * 따라서 맵의 크기는 "현재 대기 중이거나 실행 중인 키의 수"를 넘지 않으며, 그마저도 {@code maxKeys} 로 제한됩니다.
+ * </p>
+ * <p>
+ * Virtual Thread 의 pinning 을 피하기 위해 {@code synchronized} 대신 {@link ReentrantLock} 을 사용합니다.
+ * </p>
+ */
+public final class KeyedSemaphores {
+
+    private static final int STRIPES = 16;
+
+    private final int permitsPerKey;
+    private final int maxKeysPerStripe;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * @param permitsPerKey 키 하나가 동시에 가질 수 있는 허가 수
+     * @param maxKeys       동시에 추적할 수 있는 최대 키 수. stripe 마다 {@code maxKeys / 16} 개(최소 1개)씩 나누어 적용되므로
+     *                      키의 해시가 한 stripe 에 몰리면 전체 키 수가 {@code maxKeys} 보다 적어도 {@link #lease(Object)} 가 null 을 반환할 수 있음
+     */
+    public KeyedSemaphores(int permitsPerKey, int maxKeys) {
+        if (permitsPerKey < 1) {
+            throw new IllegalArgumentException("permitsPerKey must be positive: " + permitsPerKey);
+        }
+        this.permitsPerKey = permitsPerKey;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 키에 대응하는 Semaphore 의 사용권을 얻습니다. 허가를 얻는 것은 아니며, 반환된 {@link Lease} 로 별도로 획득해야 합니다.
+     *
+     * @return 사용권. 추적 중인 키가 한도에 도달했으면 null
+     */
+    public Lease lease(Object key) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(key);
+            if (entry == null) {
+                if (stripe.entries.size() >= maxKeysPerStripe) {
+                    return null;
+                }
+                entry = new Entry(new AsyncSemaphore(new Semaphore(permitsPerKey)));
+                stripe.entries.put(key, entry);
+            }
+            entry.leases++;
+            return new Lease(stripe, key, entry);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int permitsPerKey() {
+        return permitsPerKey;
+    }
+
+    /**
+     * @return 현재 추적 중인 키 수
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 키 하나의 Semaphore 에 대한 사용권. 허가 반납과 별개로 사용이 끝나면 반드시 {@link #close()} 해야 합니다.
+     */
+    public static final class Lease {
+
+        private final Stripe stripe;
+        private final Object key;
+        private final Entry entry;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(Stripe stripe, Object key, Entry entry) {
+            this.stripe = stripe;
+            this.key = key;
+            this.entry = entry;
+        }
+
+        public AsyncSemaphore semaphore() {
+            return entry.semaphore;
+        }
+
+        /**
+         * 사용권을 반납합니다. 마지막 사용권이면 키의 Semaphore 를 제거합니다. 여러 번 호출해도 안전합니다.
+         */
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            stripe.lock.lock();
+            try {
+                if (--entry.leases == 0) {
+                    stripe.entries.remove(key, entry);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Object, Entry> entries = new HashMap<>();
+    }
+
+    private static final class Entry {
+        private final AsyncSemaphore semaphore;
+        // stripe lock 안에서만 접근
+        private int leases;
+
+        private Entry(AsyncSemaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.hig.boilerplate.core.deadline;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션을 빌릴 때 요청의 남은 처리 시간을 PostgreSQL {@code statement_timeout} 으로 설정하고, 커넥션을 닫을 때 되돌리는 DataSource 입니다.
+ * <p>
+ * 커넥션 풀 바로 위에 적용되며, {@link RequestDeadline} 이 바인딩되지 않은 접근(스케줄러, 마이그레이션 등)과
+ * PostgreSQL 이 아닌 DB 에는 아무 일도 하지 않습니다. 시한이 이미 지났으면 커넥션을 빌리지 않고 바로 실패합니다.
+ * </p>
+ * <p>
+ * {@code SET LOCAL} 은 트랜잭션 안에서만 유효한데, 커넥션을 빌리는 시점에는 아직 autoCommit 이 꺼지기 전이므로
+ * 세션 단위 {@code SET} 을 사용하고 풀에 돌려주기 전에 {@code RESET} 합니다.
+ * {@code RESET} 에 실패한 커넥션은 짧은 timeout 이 남은 채로 재사용되지 않도록 풀에서 제거합니다.
+ * </p>
+ * <p>
+ * 커넥션을 닫을 때의 처리는 빌릴 때의 autoCommit 에 따라 다릅니다.
+ * </p>
+ * <ul>
+ *     <li>autoCommit 이 켜진 채 빌린 커넥션이 꺼진 채 닫히면 트랜잭션이 끝나지 않은 것입니다.
+ *     풀이 롤백하면 {@code RESET} 도 함께 롤백되므로 풀에서 제거합니다.</li>
+ *     <li>풀이 {@code auto-commit=false} 로 설정되어 처음부터 꺼져 있으면 autoCommit 으로 트랜잭션 경계를 알 수 없습니다.
+ *     매번 제거하면 풀이 커넥션을 계속 새로 만들게 되므로, 풀이 닫을 때 하는 것처럼 끝나지 않은 작업을 롤백한 뒤
+ *     {@code RESET} 을 커밋하고 풀에 돌려줍니다.</li>
+ * </ul>
+ */
+@Slf4j
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    // 첫 커넥션에서 확인. 확인 전에는 null
+    private volatile Boolean postgres;
+
+    public DeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return obtainTargetDataSource().getConnection();
+        }
+        deadline.checkNotExpired("connection checkout");
+        return withStatementTimeout(obtainTargetDataSource().getConnection(), deadline);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return obtainTargetDataSource().getConnection(username, password);
+        }
+        deadline.checkNotExpired("connection checkout");
+        return withStatementTimeout(obtainTargetDataSource().getConnection(username, password), deadline);
+    }
+
+    private Connection withStatementTimeout(Connection connection, RequestDeadline deadline) throws SQLException {
+        if (!isPostgres(connection)) {
+            return connection;
+        }
+        // 커넥션을 기다리는 동안 시한이 지났을 수 있음. 0 은 "제한 없음"이므로 최소 1ms
+        long timeoutMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline.remainingNanos()));
+        boolean autoCommit;
+        try (Statement statement = connection.createStatement()) {
+            autoCommit = connection.getAutoCommit();
+            statement.execute("SET statement_timeout = " + timeoutMillis);
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+            new ResettingHandler(connection, autoCommit));
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        Boolean result = postgres;
+        if (result == null) {
+            result = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+            postgres = result;
+        }
+        return result;
+    }
+
+    /**
+     * 커넥션을 풀에 돌려주기 전에 {@code statement_timeout} 을 되돌립니다.
+     */
+    private final class ResettingHandler implements InvocationHandler {
+
+        private final Connection target;
+        // 빌릴 때의 autoCommit. 풀이 auto-commit=false 로 설정되어 있으면 false
+        private final boolean initialAutoCommit;
+        private boolean closed;
+
+        private ResettingHandler(Connection target, boolean initialAutoCommit) {
+            this.target = target;
+            this.initialAutoCommit = initialAutoCommit;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        resetAndClose();
+                    }
+                    return null;
+                }
+                default -> {
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+            }
+        }
+
+        private void resetAndClose() throws SQLException {
+            try {
+                boolean autoCommit = target.getAutoCommit();
+                if (initialAutoCommit && !autoCommit) {
+                    // 트랜잭션이 정리되지 않은 채 닫힘 - 풀이 롤백하면 RESET 도 함께 롤백되므로 재사용하지 않음
+                    log.warn("Connection closed inside an open transaction. Evicting it to discard statement_timeout.");
+                } else {
+                    if (!autoCommit) {
+                        // 처음부터 autoCommit 이 꺼진 커넥션 - 풀처럼 끝나지 않은 작업을 롤백한 뒤 RESET 을 커밋
+                        target.rollback();
+                    }
+                    try (Statement statement = target.createStatement()) {
+                        statement.execute("RESET statement_timeout");
+                    }
+                    if (!autoCommit) {
+                        target.commit();
+                    }
+                    target.close();
+                    return;
+                }
+            } catch (SQLException e) {
+                log.warn("Failed to reset statement_timeout. Evicting connection from the pool.", e);
+            }
+            if (obtainTargetDataSource() instanceof HikariDataSource hikari) {
+                hikari.evictConnection(target);
+            } else {
+                target.close();
+            }
+        }
+    }
+}
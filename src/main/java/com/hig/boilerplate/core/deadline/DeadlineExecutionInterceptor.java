@@ -0,0 +1,56 @@
+package com.hig.boilerplate.core.deadline;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.time.Duration;
+
+/**
+ * AWS SDK 호출에 {@link RequestDeadline} 을 적용하는 {@link ExecutionInterceptor} 입니다.
+ * <p>
+ * 시한이 이미 지났으면 요청을 보내지 않고 실패하며, 그렇지 않으면 요청의 {@code apiCallTimeout} 을
+ * 남은 시간으로 줄여 재시도를 포함한 전체 호출이 시한을 넘기지 않도록 합니다.
+ * 시한이 바인딩되지 않은 호출(스케줄러 등)은 클라이언트 설정을 그대로 사용합니다.
+ * </p>
+ *
+ * <pre><code>
+ * S3Client.builder()
+ *     .overrideConfiguration(c -> c.addExecutionInterceptor(deadlineExecutionInterceptor))
+ *     .build();
+ * </code></pre>
+ */
+public class DeadlineExecutionInterceptor implements ExecutionInterceptor {
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            deadline.checkNotExpired(executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME)
+                + "." + executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME));
+        }
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null || !(context.request() instanceof AwsRequest request)) {
+            return context.request();
+        }
+
+        Duration remaining = deadline.remaining();
+        AwsRequestOverrideConfiguration configuration = request.overrideConfiguration()
+            .orElseGet(() -> AwsRequestOverrideConfiguration.builder().build());
+        // 호출부에서 더 짧은 timeout 을 지정했다면 유지
+        if (configuration.apiCallTimeout().filter(timeout -> timeout.compareTo(remaining) <= 0).isPresent()) {
+            return request;
+        }
+        return request.toBuilder()
+            .overrideConfiguration(configuration.toBuilder().apiCallTimeout(remaining).build())
+            .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.hig.boilerplate.core.deadline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 요청 처리 시한 전파에 대한 설정입니다. ({@code boilerplate.deadline.*})
+ *
+ * @param enabled          처리 시한 전파 사용 여부 (기본값 false)
+ * @param header           호출자가 처리 시한을 지정하는 HTTP 헤더 (e.g. {@code 1500ms}, 단위가 없으면 ms).
+ *                         엔드포인트 기본값보다 짧게 하는 방향으로만 적용
+ * @param defaultTimeout   헤더와 엔드포인트 설정이 없는 요청의 처리 시한. 0 이면 시한을 두지 않음
+ * @param endpoints        경로 패턴별 처리 시한. 먼저 일치하는 항목을 사용
+ * @param statementTimeout true 이면 PostgreSQL 커넥션을 빌릴 때 남은 시간을 {@code statement_timeout} 으로 설정
+ */
+@ConfigurationProperties("boilerplate.deadline")
+public record DeadlineProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("X-Request-Timeout") String header,
+    @DefaultValue("0") Duration defaultTimeout,
+    @DefaultValue List<Endpoint> endpoints,
+    @DefaultValue("true") boolean statementTimeout
+) {
+
+    /**
+     * @param pattern {@link org.springframework.util.AntPathMatcher} 형식의 경로 패턴 (e.g. {@code /api/reports/**})
+     * @param timeout 해당 경로의 처리 시한
+     */
+    public record Endpoint(String pattern, Duration timeout) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.hig.boilerplate.core.deadline;
+
+import com.hig.boilerplate.core.exception.DeadlineExceededException;
+
+import java.time.Duration;
+
+/**
+ * 요청 하나의 처리 시한입니다.
+ * <p>
+ * {@link com.hig.boilerplate.core.filter.RequestDeadlineFilter} 가 요청 진입 시점에 {@link ScopedValue} 로 바인딩하며,
+ * Bulkhead 대기, JDBC {@code statement_timeout}, AWS SDK 호출은 고정된 대기 시간 대신 남은 시간만큼만 기다립니다.
+ * 시한은 {@link System#nanoTime()} 기준이므로 시스템 시계 변경에 영향을 받지 않습니다.
+ * </p>
+ */
+public final class RequestDeadline {
+
+    private static final ScopedValue<RequestDeadline> CURRENT = ScopedValue.newInstance();
+
+    private final long deadlineNanos;
+
+    private RequestDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param timeout 지금부터 허용하는 처리 시간
+     */
+    public static RequestDeadline after(Duration timeout) {
+        return new RequestDeadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return 현재 스레드에 바인딩된 시한. 바인딩되지 않았으면 null
+     */
+    public static RequestDeadline current() {
+        return CURRENT.isBound() ? CURRENT.get() : null;
+    }
+
+    /**
+     * 이 시한을 바인딩하는 {@link ScopedValue.Carrier} 를 반환합니다.
+     */
+    public ScopedValue.Carrier bind() {
+        return ScopedValue.where(CURRENT, this);
+    }
+
+    /**
+     * @return 남은 시간 (ns). 시한이 지났으면 0 이하
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * @return 남은 시간. 시한이 지났으면 {@link Duration#ZERO}
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * @param operation 시작하려는 작업의 이름
+     * @throws DeadlineExceededException 시한이 이미 지난 경우
+     */
+    public void checkNotExpired(String operation) {
+        if (isExpired()) {
+            throw new DeadlineExceededException(operation);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.hig.boilerplate.core.exception;
+
+import com.hig.boilerplate.core.shedding.SaturationMonitor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Locale;
+
+/**
+ * 동시성 한도에 막혀 거절된 요청을 {@code 503 Service Unavailable} 로 응답합니다.
+ * <p>
+ * 처리되지 않은 {@link BulkheadFullException} 은 일반적인 {@code 500} 으로 응답되어, 클라이언트와 로드밸런서가
+ * 서버 오류로 취급하고 즉시 재시도하게 됩니다. 이 핸들러는 {@code Retry-After} 를 알려
+ * 클라이언트가 물러나거나 다른 노드로 재시도할 수 있도록 합니다.
+ * </p>
+ * <p>
+ * 응답 본문에는 내부 구성이 드러나지 않도록 일반적인 안내 문구만 담고, 거절한 Bulkhead / Semaphore 의 이름과 사용률은 DEBUG 로그로 남깁니다.
+ * 거절 횟수는 {@code bulkhead.permit.rejected}, {@code bounded.concurrency.permit.rejected} 지표로 확인할 수 있습니다.
+ * </p>
+ *
+ * <h3>응답 헤더</h3>
+ * <ul>
+ *     <li>{@code Retry-After} - 재시도까지 기다릴 시간(초). {@link SaturationMonitor#retryAfterSeconds(double)}</li>
+ * </ul>
+ * <p>
+ * 내부 망에서만 호출되는 서비스라면 {@code boilerplate.backpressure.expose-details=true} 로 다음 헤더를 함께 보낼 수 있습니다. (기본값 false)
+ * </p>
+ * <ul>
+ *     <li>{@code X-Bulkhead-Name} - 요청을 거절한 Bulkhead</li>
+ *     <li>{@code X-Bulkhead-Limit} - 현재 동시 호출 한도</li>
+ *     <li>{@code X-Bulkhead-In-Flight} - 현재 실행 중인 호출 수</li>
+ *     <li>{@code X-Bulkhead-Utilization} - 실행 중인 호출 수 / 한도 (0~1)</li>
+ *     <li>{@code X-Semaphore-Name} - 요청을 거절한 Semaphore</li>
+ * </ul>
+ */
+@Slf4j
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BackpressureExceptionHandler {
+
+    private static final String UNAVAILABLE_DETAIL = "The service is temporarily overloaded. Retry after the time given in Retry-After.";
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final SaturationMonitor saturationMonitor;
+    private final boolean exposeDetails;
+
+    public BackpressureExceptionHandler(BulkheadRegistry bulkheadRegistry,
+                                        SaturationMonitor saturationMonitor,
+                                        @Value("${boilerplate.backpressure.expose-details:false}") boolean exposeDetails) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.saturationMonitor = saturationMonitor;
+        this.exposeDetails = exposeDetails;
+    }
+
+    @ExceptionHandler(BulkheadRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleBulkheadRejected(BulkheadRejectedException e) {
+        HttpHeaders headers = retryAfterHeaders();
+        bulkheadRegistry.find(e.getBulkheadName()).ifPresent(bulkhead -> {
+            Bulkhead.Metrics metrics = bulkhead.getMetrics();
+            int limit = metrics.getMaxAllowedConcurrentCalls();
+            int inFlight = Math.max(0, limit - metrics.getAvailableConcurrentCalls());
+            log.debug("Bulkhead [{}] rejected request. limit: {}, in-flight: {}", bulkhead.getName(), limit, inFlight);
+            if (exposeDetails) {
+                headers.set("X-Bulkhead-Name", bulkhead.getName());
+                headers.set("X-Bulkhead-Limit", Integer.toString(limit));
+                headers.set("X-Bulkhead-In-Flight", Integer.toString(inFlight));
+                headers.set("X-Bulkhead-Utilization",
+                    String.format(Locale.ROOT, "%.2f", limit > 0 ? (double) inFlight / limit : 1.0));
+            }
+        });
+        return unavailable(headers);
+    }
+
+    /**
+     * Aspect 를 거치지 않고 Bulkhead 를 직접 사용한 호출이 거절된 경우. Bulkhead 를 알 수 없으므로 {@code Retry-After} 만 알립니다.
+     */
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ProblemDetail> handleBulkheadFull(BulkheadFullException e) {
+        log.debug("Bulkhead rejected request. {}", e.getMessage());
+        return unavailable(retryAfterHeaders());
+    }
+
+    @ExceptionHandler(BoundedConcurrencyRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleBoundedConcurrencyRejected(BoundedConcurrencyRejectedException e) {
+        HttpHeaders headers = retryAfterHeaders();
+        log.debug("Semaphore [{}] rejected request.", e.getSemaphoreName());
+        if (exposeDetails) {
+            headers.set("X-Semaphore-Name", e.getSemaphoreName());
+        }
+        return unavailable(headers);
+    }
+
+    /**
+     * 처리 시한이 지난 요청은 재시도해도 같은 시한 안에 끝날 수 없으므로 {@code Retry-After} 없이 {@code 504} 로 응답합니다.
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ProblemDetail> handleDeadlineExceeded(DeadlineExceededException e) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+            .body(ProblemDetail.forStatusAndDetail(HttpStatus.GATEWAY_TIMEOUT, "The request deadline was exceeded."));
+    }
+
+    private HttpHeaders retryAfterHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER,
+            Long.toString(saturationMonitor.retryAfterSeconds(saturationMonitor.pressure())));
+        return headers;
+    }
+
+    private static ResponseEntity<ProblemDetail> unavailable(HttpHeaders headers) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .headers(headers)
+            .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, UNAVAILABLE_DETAIL));
+    }
+}
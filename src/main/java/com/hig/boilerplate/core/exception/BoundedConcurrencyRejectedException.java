@@ -0,0 +1,21 @@
+package com.hig.boilerplate.core.exception;
+
+import lombok.Getter;
+
+/**
+ * {@link com.hig.boilerplate.core.annotation.BoundedConcurrency} 가 적용된 메서드가
+ * 지정된 시간 안에 Semaphore 허가를 얻지 못해 실행되지 않았을 때 발생하는 예외입니다.
+ * <p>
+ * 비동기 메서드의 경우 이 예외로 실패한 {@link java.util.concurrent.CompletableFuture} 가 반환됩니다.
+ * </p>
+ */
+@Getter
+public class BoundedConcurrencyRejectedException extends RuntimeException {
+
+    private final String semaphoreName;
+
+    public BoundedConcurrencyRejectedException(String semaphoreName, String methodName) {
+        super("Semaphore [" + semaphoreName + "] is full. method [" + methodName + "] was not executed.");
+        this.semaphoreName = semaphoreName;
+    }
+}
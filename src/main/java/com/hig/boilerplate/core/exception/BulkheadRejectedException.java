@@ -0,0 +1,24 @@
+package com.hig.boilerplate.core.exception;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import lombok.Getter;
+
+/**
+ * DB Bulkhead 퍼밋을 얻지 못해 호출이 실행되지 않았을 때 발생하는 예외입니다.
+ * <p>
+ * {@link BulkheadFullException} 에는 Bulkhead 정보가 메시지 문자열로만 담겨 있으므로,
+ * 퍼밋을 획득하는 쪽({@link com.hig.boilerplate.core.aop.TransactionalBulkheadAspect},
+ * {@link com.hig.boilerplate.core.bulkhead.BulkheadDataSource})이 Bulkhead 이름을 담아 감싸서 던집니다.
+ * 원래 예외는 {@link #getCause()} 로 확인할 수 있습니다.
+ * </p>
+ */
+@Getter
+public class BulkheadRejectedException extends RuntimeException {
+
+    private final String bulkheadName;
+
+    public BulkheadRejectedException(String bulkheadName, BulkheadFullException cause) {
+        super("Bulkhead [" + bulkheadName + "] is full.", cause);
+        this.bulkheadName = bulkheadName;
+    }
+}
@@ -0,0 +1,22 @@
+package com.hig.boilerplate.core.exception;
+
+import lombok.Getter;
+
+/**
+ * 요청의 처리 시한({@link com.hig.boilerplate.core.deadline.RequestDeadline})이 이미 지나
+ * DB 커넥션이나 외부 호출 같은 자원을 쓰기 전에 작업을 중단했을 때 발생하는 예외입니다.
+ * <p>
+ * 시한이 지난 요청은 호출자가 이미 응답을 포기했을 가능성이 높으므로, 결과를 만들더라도 버려질 작업에 자원을 쓰지 않습니다.
+ * </p>
+ */
+@Getter
+public class DeadlineExceededException extends RuntimeException {
+
+    // 중단된 작업의 이름 (e.g. Bulkhead 이름, AWS 서비스 이름)
+    private final String operation;
+
+    public DeadlineExceededException(String operation) {
+        super("Request deadline exceeded before [" + operation + "].");
+        this.operation = operation;
+    }
+}
@@ -0,0 +1,23 @@
+package com.hig.boilerplate.core.exception;
+
+import lombok.Getter;
+
+/**
+ * DB Bulkhead 퍼밋을 쥔 스코프에서 fork 된 비동기 작업이 같은 한도 안에서 퍼밋을 다시 얻으려 할 때 발생하는 예외입니다.
+ * <p>
+ * 부모가 퍼밋을 쥔 채 자식을 기다리면 포화 시 교착이 생기므로,
+ * {@code boilerplate.bulkhead.forked-permit=reject} 일 때 자식이 퍼밋을 기다리기 전에 실패시킵니다.
+ * 부모의 트랜잭션을 끝낸 뒤 fork 하거나, 자식의 DB 접근을 부모 트랜잭션 안으로 옮겨야 합니다.
+ * </p>
+ */
+@Getter
+public class ForkedPermitCycleException extends IllegalStateException {
+
+    private final String bulkheadName;
+
+    public ForkedPermitCycleException(String bulkheadName, Object parentCallSite) {
+        super("Task forked from [" + parentCallSite + "] requested a [" + bulkheadName
+            + "] bulkhead permit while its parent still holds one.");
+        this.bulkheadName = bulkheadName;
+    }
+}
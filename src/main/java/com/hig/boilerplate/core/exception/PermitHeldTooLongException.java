@@ -0,0 +1,27 @@
+package com.hig.boilerplate.core.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * DB Bulkhead 퍼밋을 임계값보다 오래 점유 중인 호출을 Sentry 에 보고하기 위한 예외입니다.
+ * <p>
+ * 던져지는 예외가 아니며, 스택 트레이스는 이 예외를 만든 감시 스레드가 아니라 퍼밋을 점유 중인 스레드의 것으로 채워집니다.
+ * </p>
+ */
+@Getter
+public class PermitHeldTooLongException extends RuntimeException {
+
+    private final String bulkheadName;
+    private final Duration heldFor;
+
+    public PermitHeldTooLongException(String bulkheadName, Object callSite, Duration heldFor,
+                                      StackTraceElement[] stackTrace) {
+        super("Bulkhead [" + bulkheadName + "] permit held for " + heldFor.toMillis() + "ms by [" + callSite + "].",
+            null, false, true);
+        this.bulkheadName = bulkheadName;
+        this.heldFor = heldFor;
+        setStackTrace(stackTrace);
+    }
+}
@@ -0,0 +1,69 @@
+package com.hig.boilerplate.core.filter;
+
+import com.hig.boilerplate.core.shedding.LoadSheddingProperties;
+import com.hig.boilerplate.core.shedding.SaturationMonitor;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 애플리케이션이 포화 상태이면 요청을 처리하지 않고 바로 {@code 503 Service Unavailable} 로 응답하는 필터입니다.
+ * <p>
+ * 포화는 보통 요청이 인증과 라우팅을 모두 거친 뒤 {@code TransactionalBulkheadAspect} 에서야 드러납니다.
+ * 이 필터는 Spring Security 보다 앞에서 {@link SaturationMonitor} 의 pressure 를 확인하여,
+ * 어차피 거절될 요청에 인증, 역직렬화, 트랜잭션 준비 비용을 쓰지 않도록 합니다.
+ * </p>
+ * <p>
+ * {@code Retry-After} 는 임계값을 넘은 정도에 비례하여 정해지므로({@link SaturationMonitor#retryAfterSeconds(double)}),
+ * 포화가 심할수록 클라이언트가 더 늦게 재시도합니다.
+ * </p>
+ */
+@Slf4j
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final SaturationMonitor saturationMonitor;
+    private final List<String> excludedPaths;
+
+    public LoadSheddingFilter(SaturationMonitor saturationMonitor, LoadSheddingProperties properties) {
+        this.saturationMonitor = saturationMonitor;
+        this.excludedPaths = List.copyOf(properties.excludedPaths());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : excludedPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        double pressure = saturationMonitor.pressure();
+        if (pressure < 1) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = saturationMonitor.retryAfterSeconds(pressure);
+        if (log.isDebugEnabled()) {
+            log.debug("Request shed. pressure: {}, Retry-After: {}s, uri: {}", pressure, retryAfter, request.getRequestURI());
+        }
+        // sendError 는 오류 페이지로 다시 디스패치되어 필터 체인을 한 번 더 거치므로 상태와 헤더만 설정
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+    }
+}
@@ -0,0 +1,100 @@
+package com.hig.boilerplate.core.filter;
+
+import com.hig.boilerplate.core.deadline.DeadlineProperties;
+import com.hig.boilerplate.core.deadline.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * HTTP 요청 하나를 처리하는 동안 {@link RequestDeadline} 을 {@link ScopedValue} 로 바인딩합니다.
+ * <p>
+ * 처리 시한은 요청 경로에 맞는 {@code boilerplate.deadline.endpoints} 항목, 없으면 {@code default-timeout} 을 사용하며,
+ * 호출자가 {@code X-Request-Timeout} 헤더로 남은 시간을 알려 주면 둘 중 짧은 쪽을 적용합니다.
+ * 헤더로 시한을 늘려 서버 자원을 더 오래 점유하는 것은 허용하지 않습니다.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "boilerplate.deadline", name = "enabled", havingValue = "true")
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final String header;
+    private final Duration defaultTimeout;
+    private final List<DeadlineProperties.Endpoint> endpoints;
+
+    public RequestDeadlineFilter(DeadlineProperties properties) {
+        this.header = properties.header();
+        this.defaultTimeout = properties.defaultTimeout();
+        this.endpoints = List.copyOf(properties.endpoints());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Duration timeout = timeoutOf(request);
+        if (timeout == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            RequestDeadline.after(timeout).bind().call(() -> {
+                filterChain.doFilter(request, response);
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+
+    /**
+     * @return 요청에 적용할 처리 시한. 시한을 두지 않으면 null
+     */
+    private Duration timeoutOf(HttpServletRequest request) {
+        Duration configured = endpointTimeoutOf(request);
+        Duration requested = requestedTimeoutOf(request);
+        if (requested == null) {
+            return configured;
+        }
+        return configured == null || requested.compareTo(configured) < 0 ? requested : configured;
+    }
+
+    private Duration endpointTimeoutOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (DeadlineProperties.Endpoint endpoint : endpoints) {
+            if (pathMatcher.match(endpoint.pattern(), path)) {
+                return endpoint.timeout();
+            }
+        }
+        return defaultTimeout.isPositive() ? defaultTimeout : null;
+    }
+
+    private Duration requestedTimeoutOf(HttpServletRequest request) {
+        String value = request.getHeader(header);
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            Duration requested = DurationStyle.detectAndParse(value.trim(), ChronoUnit.MILLIS);
+            // 음수는 무시하고, 0 은 "이미 시한이 지남"으로 취급
+            return requested.isNegative() ? null : requested;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
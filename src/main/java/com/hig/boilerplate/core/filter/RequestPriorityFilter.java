@@ -0,0 +1,65 @@
+package com.hig.boilerplate.core.filter;
+
+import com.hig.boilerplate.core.bulkhead.BulkheadProperties;
+import com.hig.boilerplate.core.bulkhead.RequestPriority;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * HTTP 요청 하나를 처리하는 동안 {@link RequestPriority} 를 {@link ScopedValue} 로 바인딩합니다.
+ * <p>
+ * 요청의 기본 등급은 {@code boilerplate.bulkhead.priority.request-default} (기본값 INTERACTIVE) 이며,
+ * 배치 클라이언트나 관리자 내보내기처럼 급하지 않은 호출은 {@code X-Request-Priority: batch} 헤더로 등급을 낮출 수 있습니다.
+ * 클라이언트가 헤더로 자신의 등급을 올려 다른 요청을 앞지르지 못하도록, 헤더는 기본 등급보다 낮추는 방향으로만 적용합니다.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "boilerplate.bulkhead.priority", name = "enabled", havingValue = "true")
+public class RequestPriorityFilter extends OncePerRequestFilter {
+
+    private final String header;
+    private final RequestPriority requestDefault;
+
+    public RequestPriorityFilter(BulkheadProperties properties) {
+        this.header = properties.priority().header();
+        this.requestDefault = properties.priority().requestDefault();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            priorityOf(request).bind().call(() -> {
+                filterChain.doFilter(request, response);
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+
+    private RequestPriority priorityOf(HttpServletRequest request) {
+        String value = request.getHeader(header);
+        if (!StringUtils.hasText(value)) {
+            return requestDefault;
+        }
+        try {
+            RequestPriority requested = RequestPriority.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            // ordinal 이 클수록 낮은 등급
+            return requested.ordinal() > requestDefault.ordinal() ? requested : requestDefault;
+        } catch (IllegalArgumentException e) {
+            return requestDefault;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.hig.boilerplate.core.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DB Bulkhead 와 {@link com.hig.boilerplate.core.annotation.BoundedConcurrency} Semaphore 의 퍼밋 지표를 제공합니다.
+ * <p>
+ * 지표는 Bulkhead / Semaphore 이름과 호출 위치({@link #callSiteOf(Class, Method)})로 구분되며,
+ * actuator 의 {@code /actuator/metrics} (Prometheus registry 가 있으면 {@code /actuator/prometheus}) 로 노출됩니다.
+ * 호출 위치 태그는 코드에 선언된 메서드로만 만들어지므로 태그 값의 수가 요청에 따라 늘어나지 않습니다.
+ * </p>
+ * <p>
+ * 조회는 문자열 키로만 하므로 이미 등록된 지표를 찾을 때 객체를 만들지 않습니다. 호출 경로에서는 결과를 캐시해 두고 사용하는 것을 권장합니다.
+ * actuator 가 없으면 아무 것도 기록하지 않는 전역 registry 를 사용합니다.
+ * </p>
+ *
+ * @see PermitMeters
+ */
+@Component
+public class ConcurrencyMetrics {
+
+    private final MeterRegistry meterRegistry;
+    // Bulkhead 이름 → 호출 위치 → 지표
+    private final Map<String, Map<String, PermitMeters>> bulkheadMeters = new ConcurrentHashMap<>();
+    // Semaphore 이름 → 호출 위치 → 지표
+    private final Map<String, Map<String, PermitMeters>> semaphoreMeters = new ConcurrentHashMap<>();
+
+    public ConcurrencyMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    /**
+     * @return 지표의 {@code method} 태그로 사용하는 호출 위치 (e.g. {@code OrderService.placeOrder})
+     */
+    public static String callSiteOf(Class<?> targetClass, Method method) {
+        return ClassUtils.getShortName(ClassUtils.getUserClass(targetClass)) + "." + method.getName();
+    }
+
+    /**
+     * @param bulkheadName Bulkhead 이름 ({@code bulkhead} 태그)
+     * @param callSite     호출 위치 ({@code method} 태그)
+     * @return {@code bulkhead.permit.*} 지표
+     */
+    public PermitMeters bulkhead(String bulkheadName, String callSite) {
+        return meters(bulkheadMeters, "bulkhead", "bulkhead", bulkheadName, callSite);
+    }
+
+    /**
+     * @param semaphoreName Semaphore Bean 이름 ({@code semaphore} 태그)
+     * @param callSite      호출 위치 ({@code method} 태그)
+     * @return {@code bounded.concurrency.permit.*} 지표
+     */
+    public PermitMeters semaphore(String semaphoreName, String callSite) {
+        return meters(semaphoreMeters, "bounded.concurrency", "semaphore", semaphoreName, callSite);
+    }
+
+    private PermitMeters meters(Map<String, Map<String, PermitMeters>> cache, String prefix, String nameTag,
+                                String name, String callSite) {
+        Map<String, PermitMeters> byCallSite = cache.get(name);
+        if (byCallSite == null) {
+            byCallSite = cache.computeIfAbsent(name, k -> new ConcurrentHashMap<>());
+        }
+        PermitMeters meters = byCallSite.get(callSite);
+        if (meters != null) {
+            return meters;
+        }
+        return byCallSite.computeIfAbsent(callSite,
+            k -> new PermitMeters(meterRegistry, prefix, Tags.of(nameTag, name, "method", callSite)));
+    }
+}
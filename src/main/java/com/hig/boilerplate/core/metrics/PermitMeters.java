@@ -0,0 +1,91 @@
+package com.hig.boilerplate.core.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 퍼밋(Bulkhead, Semaphore) 하나를 호출 위치별로 측정하는 지표 묶음입니다.
+ * <p>
+ * Meter 는 처음 조회될 때 한 번만 등록되며, 이후 호출은 등록된 Meter 에 기록만 하므로 객체를 만들지 않습니다.
+ * 실행 중인 호출 수는 경합이 심해도 CAS 재시도가 없도록 {@link LongAdder} 로 셉니다.
+ * </p>
+ *
+ * <ul>
+ *     <li>{@code <prefix>.permit.wait}: 퍼밋을 얻기까지 기다린 시간 (획득한 호출만)</li>
+ *     <li>{@code <prefix>.permit.hold}: 퍼밋을 획득한 뒤 반납하기까지의 시간</li>
+ *     <li>{@code <prefix>.permit.rejected}: 대기 시간 초과, 처리 시한 초과 등으로 퍼밋을 얻지 못한 호출 수</li>
+ *     <li>{@code <prefix>.permit.interrupted}: 퍼밋을 기다리다 interrupt 된 호출 수</li>
+ *     <li>{@code <prefix>.permit.in.flight}: 퍼밋을 쥐고 실행 중인 호출 수</li>
+ * </ul>
+ */
+public final class PermitMeters {
+
+    // 히스토그램 버킷 범위. 대부분의 대기는 1ms 미만이고, 30s 를 넘는 점유는 감시 대상
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final Timer waitTimer;
+    private final Timer holdTimer;
+    private final Counter rejected;
+    private final Counter interrupted;
+    private final LongAdder inFlight = new LongAdder();
+
+    PermitMeters(MeterRegistry registry, String prefix, Tags tags) {
+        this.waitTimer = timer(registry, prefix + ".permit.wait", "Time spent waiting for a permit", tags);
+        this.holdTimer = timer(registry, prefix + ".permit.hold", "Time a permit was held", tags);
+        this.rejected = Counter.builder(prefix + ".permit.rejected")
+            .description("Calls that could not obtain a permit")
+            .tags(tags)
+            .register(registry);
+        this.interrupted = Counter.builder(prefix + ".permit.interrupted")
+            .description("Calls interrupted while waiting for a permit")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(prefix + ".permit.in.flight", inFlight, LongAdder::doubleValue)
+            .description("Calls currently holding a permit")
+            .tags(tags)
+            .strongReference(true)
+            .register(registry);
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description, Tags tags) {
+        return Timer.builder(name)
+            .description(description)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(MIN_EXPECTED)
+            .maximumExpectedValue(MAX_EXPECTED)
+            .register(registry);
+    }
+
+    /**
+     * @param waitNanos 퍼밋을 요청한 뒤 획득하기까지의 시간 (ns)
+     */
+    public void acquired(long waitNanos) {
+        waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+        inFlight.increment();
+    }
+
+    /**
+     * @param holdNanos 퍼밋을 획득한 뒤 반납하기까지의 시간 (ns)
+     */
+    public void released(long holdNanos) {
+        holdTimer.record(holdNanos, TimeUnit.NANOSECONDS);
+        inFlight.decrement();
+    }
+
+    public void rejected() {
+        rejected.increment();
+    }
+
+    public void interrupted() {
+        interrupted.increment();
+    }
+}
@@ -0,0 +1,33 @@
+package com.hig.boilerplate.core.shedding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * HTTP 진입 시점의 부하 차단(load shedding)에 대한 설정입니다. ({@code boilerplate.load-shedding.*})
+ * <p>
+ * 각 임계값은 0 이하이면 해당 지표를 사용하지 않습니다.
+ * </p>
+ *
+ * @param enabled                  부하 차단 사용 여부 (기본값 false)
+ * @param bulkheadQueueDepth       Bulkhead 하나의 대기자 수 임계값. 대기열은 우선순위 대기, CoDel, 처리 시한 전파 중 하나가 켜져 있을 때만 관측됨
+ * @param hikariPendingThreads     커넥션 풀 하나에서 커넥션을 기다리는 스레드 수 임계값
+ * @param executorQueueUtilization 용량이 정해진 Executor 대기열의 사용률 임계값 (0~1)
+ * @param minRetryAfter            임계값을 막 넘었을 때의 {@code Retry-After}. 초과 정도에 비례하여 늘어남
+ * @param maxRetryAfter            {@code Retry-After} 의 상한
+ * @param excludedPaths            차단하지 않을 경로 패턴 (e.g. 로드밸런서 헬스 체크)
+ */
+@ConfigurationProperties("boilerplate.load-shedding")
+public record LoadSheddingProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("32") int bulkheadQueueDepth,
+    @DefaultValue("10") int hikariPendingThreads,
+    @DefaultValue("0.9") double executorQueueUtilization,
+    @DefaultValue("1s") Duration minRetryAfter,
+    @DefaultValue("30s") Duration maxRetryAfter,
+    @DefaultValue("/actuator/**") List<String> excludedPaths
+) {
+}
@@ -0,0 +1,120 @@
+package com.hig.boilerplate.core.shedding;
+
+import com.hig.boilerplate.core.bulkhead.PriorityBulkheadGate;
+import com.hig.boilerplate.core.bulkhead.PriorityBulkheadScheduler;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 애플리케이션의 포화 정도를 하나의 값(pressure)으로 요약합니다.
+ * <p>
+ * Bulkhead 대기자 수, Hikari 커넥션 대기 스레드 수, 용량이 정해진 Executor 의 대기열 사용률을 각각의 임계값으로 나눈 뒤
+ * 그중 가장 큰 값을 pressure 로 사용합니다. pressure 가 1 이상이면 하나 이상의 자원이 임계값을 넘은 상태입니다.
+ * </p>
+ * <p>
+ * 모든 지표는 이미 유지되고 있는 값을 읽기만 하므로 요청마다 호출해도 비용이 작습니다.
+ * 커넥션 풀과 Executor 는 모든 싱글톤 빈이 만들어진 뒤 한 번만 찾습니다.
+ * </p>
+ */
+@Component
+public class SaturationMonitor implements SmartInitializingSingleton {
+
+    private final ListableBeanFactory beanFactory;
+    private final BulkheadRegistry bulkheadRegistry;
+    // 관문을 사용하지 않으면 null. 이 경우 Bulkhead 대기자 수는 관측하지 않음
+    private final PriorityBulkheadScheduler priorityScheduler;
+    private final LoadSheddingProperties properties;
+    private volatile List<HikariDataSource> pools = List.of();
+    private volatile List<ThreadPoolExecutor> executors = List.of();
+
+    public SaturationMonitor(ListableBeanFactory beanFactory,
+                             BulkheadRegistry bulkheadRegistry,
+                             ObjectProvider<PriorityBulkheadScheduler> priorityScheduler,
+                             LoadSheddingProperties properties) {
+        this.beanFactory = beanFactory;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.priorityScheduler = priorityScheduler.getIfAvailable();
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        this.pools = List.copyOf(beanFactory.getBeansOfType(HikariDataSource.class, false, false).values());
+
+        List<ThreadPoolExecutor> found = new ArrayList<>();
+        for (Executor executor : beanFactory.getBeansOfType(Executor.class, false, false).values()) {
+            if (executor instanceof ThreadPoolTaskExecutor taskExecutor) {
+                found.add(taskExecutor.getThreadPoolExecutor());
+            } else if (executor instanceof ThreadPoolExecutor threadPool) {
+                found.add(threadPool);
+            }
+        }
+        this.executors = List.copyOf(found);
+    }
+
+    /**
+     * @return 임계값 대비 가장 포화된 자원의 비율. 1 이상이면 임계값을 넘은 상태
+     */
+    public double pressure() {
+        double pressure = 0;
+
+        if (priorityScheduler != null && properties.bulkheadQueueDepth() > 0) {
+            for (Bulkhead bulkhead : bulkheadRegistry.getAllBulkheads()) {
+                PriorityBulkheadGate gate = priorityScheduler.find(bulkhead.getName());
+                if (gate != null) {
+                    pressure = Math.max(pressure, (double) gate.queuedCalls() / properties.bulkheadQueueDepth());
+                }
+            }
+        }
+
+        if (properties.hikariPendingThreads() > 0) {
+            for (HikariDataSource pool : pools) {
+                // 풀이 아직 시작되지 않았으면 null
+                HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+                if (mxBean != null) {
+                    pressure = Math.max(pressure,
+                        (double) mxBean.getThreadsAwaitingConnection() / properties.hikariPendingThreads());
+                }
+            }
+        }
+
+        if (properties.executorQueueUtilization() > 0) {
+            for (ThreadPoolExecutor executor : executors) {
+                BlockingQueue<Runnable> queue = executor.getQueue();
+                int size = queue.size();
+                int capacity = size + queue.remainingCapacity();
+                // 용량 제한이 없는 대기열은 사용률을 계산할 수 없음
+                if (capacity > 0 && capacity < Integer.MAX_VALUE) {
+                    pressure = Math.max(pressure, (double) size / capacity / properties.executorQueueUtilization());
+                }
+            }
+        }
+        return pressure;
+    }
+
+    /**
+     * 포화 정도에 비례하는 {@code Retry-After} 를 계산합니다.
+     * 포화가 심할수록 클라이언트가 더 늦게 재시도하도록 {@code min-retry-after} ~ {@code max-retry-after} 사이에서 늘어납니다.
+     *
+     * @param pressure {@link #pressure()}. 1 미만이면 {@code min-retry-after}
+     * @return 재시도까지 기다릴 시간 (초)
+     */
+    public long retryAfterSeconds(double pressure) {
+        long min = Math.max(1, properties.minRetryAfter().toSeconds());
+        long max = Math.max(min, properties.maxRetryAfter().toSeconds());
+        return Math.clamp((long) Math.ceil(min * Math.max(1, pressure)), min, max);
+    }
+}
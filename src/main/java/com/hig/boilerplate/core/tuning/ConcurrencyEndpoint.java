@@ -0,0 +1,79 @@
+package com.hig.boilerplate.core.tuning;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 동시성 한도 조회 및 변경 Actuator Endpoint 입니다. ({@code /actuator/concurrency})
+ * <ul>
+ *     <li>{@code GET /actuator/concurrency}: 모든 Bulkhead 와 Semaphore 의 한도</li>
+ *     <li>{@code GET /actuator/concurrency/{bulkheads|semaphores}/{name}}: 하나의 한도</li>
+ *     <li>{@code POST /actuator/concurrency/bulkheads/{name}}: {@code maxConcurrentCalls}, {@code maxWaitDuration} 변경</li>
+ *     <li>{@code POST /actuator/concurrency/semaphores/{name}}: {@code permits} 변경</li>
+ * </ul>
+ * <p>
+ * 변경은 {@code boilerplate.tuning.role} 역할이 있는 사용자만 할 수 있습니다. (SecurityConfig)
+ * </p>
+ */
+@Endpoint(id = "concurrency")
+public class ConcurrencyEndpoint {
+
+    private static final String BULKHEADS = "bulkheads";
+    private static final String SEMAPHORES = "semaphores";
+
+    private final ConcurrencyTuner tuner;
+
+    public ConcurrencyEndpoint(ConcurrencyTuner tuner) {
+        this.tuner = tuner;
+    }
+
+    @ReadOperation
+    public Limits limits() {
+        return new Limits(tuner.bulkheads(), tuner.semaphores());
+    }
+
+    /**
+     * @return 한도. 없으면 null (404)
+     */
+    @ReadOperation
+    public Object limit(@Selector String kind, @Selector String name) {
+        return switch (kind) {
+            case BULKHEADS -> tuner.bulkhead(name).orElse(null);
+            case SEMAPHORES -> tuner.semaphore(name).orElse(null);
+            default -> null;
+        };
+    }
+
+    @WriteOperation
+    public ConcurrencyTuner.Change<?> change(@Selector String kind,
+                                             @Selector String name,
+                                             @OptionalParameter Integer maxConcurrentCalls,
+                                             @OptionalParameter Duration maxWaitDuration,
+                                             @OptionalParameter Integer permits,
+                                             SecurityContext securityContext) {
+        Principal principal = securityContext.getPrincipal();
+        String actor = principal != null ? principal.getName() : "anonymous";
+        try {
+            return switch (kind) {
+                case BULKHEADS -> tuner.changeBulkhead(name, maxConcurrentCalls, maxWaitDuration, actor);
+                case SEMAPHORES -> tuner.changeSemaphore(name, permits, actor);
+                default -> throw new IllegalArgumentException("Unknown kind [" + kind + "]. Use bulkheads or semaphores.");
+            };
+        } catch (IllegalArgumentException e) {
+            // 400 으로 응답
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    public record Limits(List<ConcurrencyTuner.BulkheadLimits> bulkheads, List<ConcurrencyTuner.SemaphoreLimits> semaphores) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.hig.boilerplate.core.tuning;
+
+import java.time.Duration;
+
+/**
+ * 실행 중에 변경한 동시성 한도 하나입니다. 변경하지 않은 항목은 null 입니다.
+ *
+ * @param kind               대상 종류
+ * @param name               Bulkhead 이름 또는 Semaphore Bean 이름
+ * @param maxConcurrentCalls Bulkhead 동시 호출 한도 (적응형 한도를 사용하면 한도의 상한)
+ * @param maxWaitDuration    Bulkhead 최대 대기 시간
+ * @param permits            Semaphore 전체 허가 수
+ */
+public record ConcurrencyOverride(Kind kind, String name, Integer maxConcurrentCalls, Duration maxWaitDuration, Integer permits) {
+
+    public enum Kind {
+        BULKHEAD,
+        SEMAPHORE
+    }
+}
@@ -0,0 +1,55 @@
+package com.hig.boilerplate.core.tuning;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 실행 중에 변경한 동시성 한도를 {@code concurrency_override} 테이블에 저장합니다.
+ * <p>
+ * 한도를 줄여야 하는 상황은 대개 Bulkhead 가 포화된 상황이므로, Bulkhead 를 거치지 않는 커넥션 풀을 직접 사용합니다.
+ * 변경하지 않은 항목(null)은 이전에 저장한 값을 유지합니다.
+ * </p>
+ */
+public class ConcurrencyOverrideStore {
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO concurrency_override (kind, name, max_concurrent_calls, max_wait_millis, permits, updated_by, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, now())
+        ON CONFLICT (kind, name) DO UPDATE SET
+            max_concurrent_calls = COALESCE(EXCLUDED.max_concurrent_calls, concurrency_override.max_concurrent_calls),
+            max_wait_millis = COALESCE(EXCLUDED.max_wait_millis, concurrency_override.max_wait_millis),
+            permits = COALESCE(EXCLUDED.permits, concurrency_override.permits),
+            updated_by = EXCLUDED.updated_by,
+            updated_at = now()""";
+    private static final String SELECT_SQL =
+        "SELECT kind, name, max_concurrent_calls, max_wait_millis, permits FROM concurrency_override ORDER BY kind, name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConcurrencyOverrideStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * @param actor 변경한 사용자
+     */
+    public void save(ConcurrencyOverride override, String actor) {
+        jdbcTemplate.update(UPSERT_SQL, override.kind().name(), override.name(), override.maxConcurrentCalls(),
+            override.maxWaitDuration() != null ? override.maxWaitDuration().toMillis() : null, override.permits(), actor);
+    }
+
+    public List<ConcurrencyOverride> findAll() {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+            Long maxWaitMillis = rs.getObject("max_wait_millis", Long.class);
+            return new ConcurrencyOverride(
+                ConcurrencyOverride.Kind.valueOf(rs.getString("kind")),
+                rs.getString("name"),
+                rs.getObject("max_concurrent_calls", Integer.class),
+                maxWaitMillis != null ? Duration.ofMillis(maxWaitMillis) : null,
+                rs.getObject("permits", Integer.class));
+        });
+    }
+}
@@ -0,0 +1,312 @@
+package com.hig.boilerplate.core.tuning;
+
+import com.hig.boilerplate.core.aop.BoundedConcurrencyRegistry;
+import com.hig.boilerplate.core.bulkhead.AdaptiveBulkheadLimiter;
+import com.hig.boilerplate.core.bulkhead.BulkheadConfigChanges;
+import com.hig.boilerplate.core.concurrency.AsyncSemaphore;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.audit.listener.AuditApplicationEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * DB Bulkhead 와 {@link com.hig.boilerplate.core.annotation.BoundedConcurrency} Semaphore 의 한도를 재배포 없이 조회하고 변경합니다.
+ * <p>
+ * 장애 시 DB 부하를 빠르게 줄이기 위한 용도이며, {@link ConcurrencyEndpoint} 를 통해 사용합니다.
+ * 모든 변경은 {@code WARN} 로그와 {@link AuditApplicationEvent} ({@value #AUDIT_TYPE})로 남기며,
+ * {@code AuditEventRepository} Bean 이 등록되어 있으면 {@code /actuator/auditevents} 에서 조회할 수 있습니다.
+ * {@code boilerplate.tuning.persist=true} 이면 변경 내용을 저장해 두었다가 기동 시 다시 적용합니다.
+ * </p>
+ *
+ * <h3>한도 변경 방식</h3>
+ * <ul>
+ *     <li>Bulkhead: {@link Bulkhead#changeConfig(BulkheadConfig)} 로 적용. 한도를 줄이면 사용 중인 퍼밋이 반납될 때까지
+ *     새 호출이 대기하며, {@code apply-timeout} 안에 끝나지 않으면 응답을 먼저 반환하고 백그라운드에서 마저 적용합니다.</li>
+ *     <li>적응형 한도를 사용하는 Bulkhead: 한도 대신 상한을 바꾸며, {@link AdaptiveBulkheadLimiter} 가 다음 window 에 반영합니다.
+ *     응답과 감사 기록의 변경 후 한도는 새 상한입니다.</li>
+ *     <li>Semaphore: {@link AsyncSemaphore#resize(int)} 로 즉시 적용. 사용 중인 허가는 반납될 때 회수합니다.</li>
+ * </ul>
+ * <p>
+ * {@link com.hig.boilerplate.core.cluster.ClusterConnectionBudget} 을 사용하면 노드 수가 바뀔 때 기본 Bulkhead 의 한도를 다시 계산하므로
+ * 여기서 바꾼 한도를 덮어쓸 수 있습니다. 설정 변경은 {@link BulkheadConfigChanges} 로 직렬화되며 요청에 포함된 값만 바꾸므로,
+ * 여기서 바꾼 {@code maxWaitDuration} 이 다른 구성 요소의 한도 변경으로 되돌아가지는 않습니다.
+ * </p>
+ */
+@Slf4j
+public class ConcurrencyTuner {
+
+    public static final String AUDIT_TYPE = "CONCURRENCY_LIMIT_CHANGED";
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final BoundedConcurrencyRegistry concurrencyRegistry;
+    // 적응형 모드가 꺼져 있으면 null
+    private final AdaptiveBulkheadLimiter adaptiveLimiter;
+    // 예비 Bulkhead 는 적응형 조정 대상이 아니므로 항상 한도를 직접 변경
+    private final String reservedBulkheadName;
+    // 저장하지 않으면 null
+    private final ConcurrencyOverrideStore store;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration applyTimeout;
+    // 한도를 줄이는 Bulkhead 설정 변경은 퍼밋이 반납될 때까지 대기하므로 요청 스레드가 아닌 별도 스레드에서 순서대로 적용
+    private final ExecutorService applier =
+        Executors.newSingleThreadExecutor(Thread.ofVirtual().name("concurrency-tuner").factory());
+
+    public ConcurrencyTuner(BulkheadRegistry bulkheadRegistry,
+                            BoundedConcurrencyRegistry concurrencyRegistry,
+                            AdaptiveBulkheadLimiter adaptiveLimiter,
+                            String reservedBulkheadName,
+                            ConcurrencyOverrideStore store,
+                            ApplicationEventPublisher eventPublisher,
+                            ConcurrencyTuningProperties properties) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.concurrencyRegistry = concurrencyRegistry;
+        this.adaptiveLimiter = adaptiveLimiter;
+        this.reservedBulkheadName = reservedBulkheadName;
+        this.store = store;
+        this.eventPublisher = eventPublisher;
+        this.applyTimeout = properties.applyTimeout();
+    }
+
+    @PreDestroy
+    void stop() {
+        applier.shutdownNow();
+    }
+
+    /**
+     * 저장된 변경 내용을 다시 적용합니다. 모든 Semaphore 가 등록되고 마이그레이션이 끝난 뒤에 실행됩니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void restore() {
+        if (store == null) {
+            return;
+        }
+        List<ConcurrencyOverride> overrides;
+        try {
+            overrides = store.findAll();
+        } catch (DataAccessException e) {
+            log.warn("Failed to load concurrency overrides. Starting with configured limits.", e);
+            return;
+        }
+        for (ConcurrencyOverride override : overrides) {
+            try {
+                switch (override.kind()) {
+                    case BULKHEAD -> bulkheadRegistry.find(override.name()).ifPresent(bulkhead ->
+                        applyBulkhead(bulkhead, override.maxConcurrentCalls(), override.maxWaitDuration()));
+                    case SEMAPHORE -> {
+                        AsyncSemaphore semaphore = concurrencyRegistry.semaphores().get(override.name());
+                        if (semaphore != null && override.permits() != null) {
+                            semaphore.resize(override.permits());
+                        }
+                    }
+                    default -> throw new IllegalStateException("Unknown override kind: " + override.kind());
+                }
+                log.info("Concurrency override restored: {}", override);
+            } catch (RuntimeException e) {
+                log.warn("Failed to restore concurrency override: {}", override, e);
+            }
+        }
+    }
+
+    public List<BulkheadLimits> bulkheads() {
+        return bulkheadRegistry.getAllBulkheads().stream()
+            .map(ConcurrencyTuner::limitsOf)
+            .sorted(Comparator.comparing(BulkheadLimits::name))
+            .toList();
+    }
+
+    public Optional<BulkheadLimits> bulkhead(String name) {
+        return bulkheadRegistry.find(name).map(ConcurrencyTuner::limitsOf);
+    }
+
+    public List<SemaphoreLimits> semaphores() {
+        return concurrencyRegistry.semaphores().entrySet().stream()
+            .map(entry -> limitsOf(entry.getKey(), entry.getValue()))
+            .sorted(Comparator.comparing(SemaphoreLimits::name))
+            .toList();
+    }
+
+    public Optional<SemaphoreLimits> semaphore(String name) {
+        return Optional.ofNullable(concurrencyRegistry.semaphores().get(name)).map(semaphore -> limitsOf(name, semaphore));
+    }
+
+    /**
+     * Bulkhead 의 한도와 최대 대기 시간을 변경합니다.
+     *
+     * @param maxConcurrentCalls 새 동시 호출 한도 (적응형 한도를 사용하면 한도의 상한). 바꾸지 않으면 null
+     * @param maxWaitDuration    새 최대 대기 시간. 바꾸지 않으면 null
+     * @param actor              변경한 사용자
+     * @return 변경 전후의 한도. 적응형 한도를 사용하면 변경 후의 {@code maxConcurrentCalls} 는 새 상한
+     * @throws IllegalArgumentException Bulkhead 가 없거나 값이 올바르지 않은 경우
+     */
+    public Change<BulkheadLimits> changeBulkhead(String name, Integer maxConcurrentCalls, Duration maxWaitDuration, String actor) {
+        Bulkhead bulkhead = bulkheadRegistry.find(name)
+            .orElseThrow(() -> new IllegalArgumentException("Unknown bulkhead [" + name + "]"));
+        if (maxConcurrentCalls == null && maxWaitDuration == null) {
+            throw new IllegalArgumentException("maxConcurrentCalls or maxWaitDuration is required");
+        }
+        if (maxConcurrentCalls != null && maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be positive: " + maxConcurrentCalls);
+        }
+        if (maxWaitDuration != null && maxWaitDuration.isNegative()) {
+            throw new IllegalArgumentException("maxWaitDuration must not be negative: " + maxWaitDuration);
+        }
+
+        BulkheadLimits before = limitsOf(bulkhead);
+        boolean applied = applyBulkhead(bulkhead, maxConcurrentCalls, maxWaitDuration);
+        BulkheadLimits after = limitsOf(bulkhead);
+        if (maxConcurrentCalls != null && adaptive(bulkhead)) {
+            // 적응형 한도는 다음 window 에 바뀌므로 현재 한도 대신 새 상한을 기록
+            after = new BulkheadLimits(after.name(), maxConcurrentCalls, after.maxWaitDuration(), after.availableConcurrentCalls());
+        }
+        ConcurrencyOverride override = new ConcurrencyOverride(
+            ConcurrencyOverride.Kind.BULKHEAD, name, maxConcurrentCalls, maxWaitDuration, null);
+        return new Change<>(before, after, applied, record(override, before, after, actor));
+    }
+
+    /**
+     * Semaphore 의 전체 허가 수를 변경합니다.
+     *
+     * @param permits 새 전체 허가 수
+     * @param actor   변경한 사용자
+     * @throws IllegalArgumentException Semaphore 가 없거나 값이 올바르지 않은 경우
+     */
+    public Change<SemaphoreLimits> changeSemaphore(String name, Integer permits, String actor) {
+        AsyncSemaphore semaphore = concurrencyRegistry.semaphores().get(name);
+        if (semaphore == null) {
+            throw new IllegalArgumentException("Unknown semaphore [" + name + "]");
+        }
+        if (permits == null || permits < 1) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+
+        SemaphoreLimits before = limitsOf(name, semaphore);
+        semaphore.resize(permits);
+        SemaphoreLimits after = limitsOf(name, semaphore);
+        ConcurrencyOverride override = new ConcurrencyOverride(ConcurrencyOverride.Kind.SEMAPHORE, name, null, null, permits);
+        return new Change<>(before, after, true, record(override, before, after, actor));
+    }
+
+    /**
+     * @return {@code apply-timeout} 안에 적용을 마쳤으면 true
+     */
+    private boolean applyBulkhead(Bulkhead bulkhead, Integer maxConcurrentCalls, Duration maxWaitDuration) {
+        Integer limit = maxConcurrentCalls;
+        if (limit != null && adaptive(bulkhead)) {
+            // 적응형 한도는 다음 window 에 새 상한 안으로 조정됨
+            adaptiveLimiter.changeCeiling(bulkhead.getName(), limit);
+            limit = null;
+        }
+        if (limit == null && maxWaitDuration == null) {
+            return true;
+        }
+
+        Integer newLimit = limit;
+        // 요청에 포함된 값만 바꾸어, 적응형 Limiter 나 클러스터 예산이 함께 바꾸는 다른 값을 되돌리지 않음
+        Future<?> change = applier.submit(() -> BulkheadConfigChanges.apply(bulkhead, current -> {
+            BulkheadConfig.Builder config = BulkheadConfig.from(current);
+            if (newLimit != null) {
+                config.maxConcurrentCalls(newLimit);
+            }
+            if (maxWaitDuration != null) {
+                config.maxWaitDuration(maxWaitDuration);
+            }
+            return config.build();
+        }));
+        try {
+            change.get(applyTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            // 사용 중인 퍼밋이 반납되는 대로 마저 적용됨
+            log.warn("Bulkhead [{}] limit change is waiting for in-flight calls to finish.", bulkhead.getName());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to change bulkhead [" + bulkhead.getName() + "]", e.getCause());
+        }
+    }
+
+    /**
+     * @return 한도 대신 상한을 바꾸고 조정은 {@link AdaptiveBulkheadLimiter} 에 맡기는 Bulkhead 이면 true
+     */
+    private boolean adaptive(Bulkhead bulkhead) {
+        return adaptiveLimiter != null && !bulkhead.getName().equals(reservedBulkheadName);
+    }
+
+    /**
+     * 변경 내용을 감사 기록으로 남기고, 설정되어 있으면 저장합니다.
+     *
+     * @return 저장했으면 true
+     */
+    private boolean record(ConcurrencyOverride override, Object before, Object after, String actor) {
+        log.warn("Concurrency limit changed by [{}]. {} -> {}", actor, before, after);
+        eventPublisher.publishEvent(new AuditApplicationEvent(actor, AUDIT_TYPE,
+            Map.of("kind", override.kind(), "name", override.name(), "before", before, "after", after)));
+
+        if (store == null) {
+            return false;
+        }
+        try {
+            store.save(override, actor);
+            return true;
+        } catch (DataAccessException e) {
+            // 적용은 이미 끝났으므로 실패로 처리하지 않음. 재기동 시에는 설정값으로 돌아감
+            log.warn("Failed to persist concurrency override: {}", override, e);
+            return false;
+        }
+    }
+
+    private static BulkheadLimits limitsOf(Bulkhead bulkhead) {
+        BulkheadConfig config = bulkhead.getBulkheadConfig();
+        return new BulkheadLimits(bulkhead.getName(), config.getMaxConcurrentCalls(), config.getMaxWaitDuration(),
+            bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    private static SemaphoreLimits limitsOf(String name, AsyncSemaphore semaphore) {
+        return new SemaphoreLimits(name, semaphore.capacity(), semaphore.availablePermits(), semaphore.pendingShrink(),
+            semaphore.queuedWaiters());
+    }
+
+    /**
+     * @param maxConcurrentCalls       동시 호출 한도
+     * @param maxWaitDuration          최대 대기 시간
+     * @param availableConcurrentCalls 남은 퍼밋 수
+     */
+    public record BulkheadLimits(String name, int maxConcurrentCalls, Duration maxWaitDuration, int availableConcurrentCalls) {
+    }
+
+    /**
+     * @param permits          전체 허가 수
+     * @param availablePermits 남은 허가 수
+     * @param pendingShrink    크기를 줄인 뒤 아직 반납되지 않아 회수하지 못한 허가 수
+     * @param queuedWaiters    비동기 대기자 수
+     */
+    public record SemaphoreLimits(String name, int permits, int availablePermits, int pendingShrink, int queuedWaiters) {
+    }
+
+    /**
+     * @param applied   변경이 모두 적용되었는지 여부. false 이면 사용 중인 퍼밋이 반납되는 대로 적용됨
+     * @param persisted 변경 내용을 저장했는지 여부
+     */
+    public record Change<T>(T before, T after, boolean applied, boolean persisted) {
+    }
+}
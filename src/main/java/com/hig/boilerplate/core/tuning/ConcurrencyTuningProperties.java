@@ -0,0 +1,22 @@
+package com.hig.boilerplate.core.tuning;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 실행 중 동시성 한도 변경({@code /actuator/concurrency})에 대한 설정입니다. ({@code boilerplate.tuning.*})
+ *
+ * @param role         한도를 변경할 수 있는 역할 (조회는 인증된 사용자 모두 가능)
+ * @param persist      변경 내용을 {@code concurrency_override} 테이블에 저장하고 기동 시 다시 적용할지 여부
+ * @param applyTimeout Bulkhead 한도를 줄일 때 사용 중인 퍼밋이 반납되기를 기다리는 최대 시간.
+ *                     넘으면 응답은 먼저 반환하고 변경은 퍼밋이 반납되는 대로 마저 적용
+ */
+@ConfigurationProperties("boilerplate.tuning")
+public record ConcurrencyTuningProperties(
+    @DefaultValue("CONCURRENCY_ADMIN") String role,
+    @DefaultValue("false") boolean persist,
+    @DefaultValue("5s") Duration applyTimeout
+) {
+}
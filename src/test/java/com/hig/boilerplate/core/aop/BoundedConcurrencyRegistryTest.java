@@ -0,0 +1,223 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.annotation.BoundedConcurrency;
+import com.hig.boilerplate.core.metrics.ConcurrencyMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedConcurrencyRegistryTest {
+
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    private final BoundedConcurrencyRegistry registry = new BoundedConcurrencyRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ThreadPoolTaskExecutor cpuBoundExecutor = new ThreadPoolTaskExecutor();
+        cpuBoundExecutor.setMaxPoolSize(4);
+        cpuBoundExecutor.setQueueCapacity(6);
+        beanFactory.registerSingleton("cpuBoundExecutor", cpuBoundExecutor);
+        beanFactory.registerSingleton("directExecutor", (Executor) Runnable::run);
+        beanFactory.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        beanFactory.registerSingleton("concurrencyMetrics", new ConcurrencyMetrics(beanFactory.getBeanProvider(MeterRegistry.class)));
+        registry.setBeanFactory(beanFactory);
+    }
+
+    @Test
+    @DisplayName("Semaphore 이름을 생략하면 Executor 의 maxPoolSize + queueCapacity 개 허가로 Semaphore 를 등록해야 한다")
+    void shouldDeriveSemaphoreFromExecutorCapacity() {
+        registry.postProcessAfterInitialization(new ExecutorBoundService(), "executorBoundService");
+
+        assertThat(beanFactory.getBean("cpuBoundExecutorSemaphore", Semaphore.class).availablePermits()).isEqualTo(10);
+        assertThat(registry.semaphores().get("cpuBoundExecutorSemaphore").capacity()).isEqualTo(10);
+        assertThat(registry.descriptors()).singleElement()
+            .satisfies(descriptor -> assertThat(descriptor.semaphoreName()).isEqualTo("cpuBoundExecutorSemaphore"));
+    }
+
+    @Test
+    @DisplayName("같은 이름의 Semaphore Bean 이 이미 있으면 Executor 용량으로 새로 만들지 않고 그대로 사용해야 한다")
+    void shouldKeepExistingSemaphoreBean() {
+        Semaphore semaphore = new Semaphore(3);
+        beanFactory.registerSingleton("cpuBoundExecutorSemaphore", semaphore);
+
+        registry.postProcessAfterInitialization(new ExecutorBoundService(), "executorBoundService");
+
+        assertThat(beanFactory.getBean("cpuBoundExecutorSemaphore")).isSameAs(semaphore);
+        assertThat(registry.semaphores().get("cpuBoundExecutorSemaphore").capacity()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("용량을 알 수 없는 Executor 에서는 Semaphore 를 만들 수 없으므로 기동에 실패해야 한다")
+    void shouldRejectExecutorWithUnknownCapacity() {
+        assertThatThrownBy(() -> registry.postProcessAfterInitialization(new DirectExecutorService(), "directExecutorService"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("directExecutorSemaphore");
+        assertThat(beanFactory.containsBean("directExecutorSemaphore")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Semaphore 와 Executor 가 모두 없거나 Semaphore Bean 이 없으면 기동에 실패해야 한다")
+    void shouldRejectMissingSemaphore() {
+        assertThatThrownBy(() -> registry.postProcessAfterInitialization(new UnnamedService(), "unnamedService"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("requires a semaphore name or an executor");
+        assertThatThrownBy(() -> registry.postProcessAfterInitialization(new MissingSemaphoreService(), "missingSemaphoreService"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("missingSemaphore");
+    }
+
+    @Test
+    @DisplayName("ASYNC 모드의 반환 타입, FALLBACK 모드의 fallback 메서드, 키별 허가 수가 잘못되면 기동에 실패해야 한다")
+    void shouldRejectInvalidModeConfiguration() {
+        assertThatThrownBy(() -> registry.postProcessAfterInitialization(new AsyncValueService(), "asyncValueService"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("must return CompletableFuture");
+        assertThatThrownBy(() -> registry.postProcessAfterInitialization(new MissingFallbackService(), "missingFallbackService"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("fallback method [missing] not found");
+        assertThatThrownBy(() -> registry.postProcessAfterInitialization(new KeyWithoutPermitsService(), "keyWithoutPermitsService"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("permitsPerKey");
+    }
+
+    @Test
+    @DisplayName("ConcurrencyMetrics Bean 이 없어도 Semaphore 만으로 디스크립터를 등록할 수 있어야 한다")
+    void shouldRegisterWithoutConcurrencyMetricsBean() {
+        DefaultListableBeanFactory bareBeanFactory = new DefaultListableBeanFactory();
+        bareBeanFactory.registerSingleton("missingSemaphore", new Semaphore(2));
+        BoundedConcurrencyRegistry bareRegistry = new BoundedConcurrencyRegistry();
+        bareRegistry.setBeanFactory(bareBeanFactory);
+
+        bareRegistry.postProcessAfterInitialization(new MissingSemaphoreService(), "missingSemaphoreService");
+
+        assertThat(bareRegistry.descriptors()).singleElement()
+            .satisfies(descriptor -> assertThat(descriptor.meters()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("같은 Semaphore 와 키 표현식을 쓰더라도 메서드마다 키별 Semaphore 를 따로 두어야 한다")
+    void shouldKeepKeyedSemaphoresPerMethod() {
+        registry.postProcessAfterInitialization(new KeyedService(), "keyedService");
+
+        assertThat(registry.descriptors()).hasSize(2)
+            .extracting(BoundedConcurrencyDescriptor::keyedSemaphores)
+            .doesNotContainNull()
+            .doesNotHaveDuplicates();
+        assertThatThrownBy(() -> registry.postProcessAfterInitialization(new NoTrackedKeysService(), "noTrackedKeysService"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("maxTrackedKeys");
+    }
+
+    @Test
+    @DisplayName("같은 메서드라도 대상 클래스가 다르면 그 클래스의 fallback 메서드로 따로 등록해야 한다")
+    void shouldDescribeMethodPerTargetClass() throws NoSuchMethodException {
+        registry.postProcessAfterInitialization(new PrimaryRenderer(), "primaryRenderer");
+        registry.postProcessAfterInitialization(new SecondaryRenderer(), "secondaryRenderer");
+        Method render = BaseRenderer.class.getMethod("render");
+
+        BoundedConcurrencyDescriptor primary = registry.descriptorOf(render, new PrimaryRenderer());
+        BoundedConcurrencyDescriptor secondary = registry.descriptorOf(render, new SecondaryRenderer());
+
+        assertThat(registry.descriptors()).hasSize(2);
+        assertThat(primary.fallbackMethod().getDeclaringClass()).isEqualTo(PrimaryRenderer.class);
+        assertThat(secondary.fallbackMethod().getDeclaringClass()).isEqualTo(SecondaryRenderer.class);
+    }
+
+    static class ExecutorBoundService {
+        @BoundedConcurrency(executor = "cpuBoundExecutor")
+        public String render() {
+            return "rendered";
+        }
+    }
+
+    static class DirectExecutorService {
+        @BoundedConcurrency(executor = "directExecutor")
+        public String render() {
+            return "rendered";
+        }
+    }
+
+    static class UnnamedService {
+        @BoundedConcurrency
+        public String render() {
+            return "rendered";
+        }
+    }
+
+    static class MissingSemaphoreService {
+        @BoundedConcurrency("missingSemaphore")
+        public String render() {
+            return "rendered";
+        }
+    }
+
+    static class AsyncValueService {
+        @BoundedConcurrency(executor = "cpuBoundExecutor", acquisition = BoundedConcurrency.Acquisition.ASYNC)
+        public String render() {
+            return "rendered";
+        }
+    }
+
+    static class MissingFallbackService {
+        @BoundedConcurrency(executor = "cpuBoundExecutor", mode = BoundedConcurrency.Mode.FALLBACK, fallbackMethod = "missing")
+        public String render() {
+            return "rendered";
+        }
+    }
+
+    static class KeyWithoutPermitsService {
+        @BoundedConcurrency(executor = "cpuBoundExecutor", key = "#tenantId")
+        public String render(String tenantId) {
+            return tenantId;
+        }
+    }
+
+    static class KeyedService {
+        @BoundedConcurrency(executor = "cpuBoundExecutor", key = "#id", permitsPerKey = 1)
+        public String renderUser(String id) {
+            return id;
+        }
+
+        @BoundedConcurrency(executor = "cpuBoundExecutor", key = "#id", permitsPerKey = 1)
+        public String renderOrder(String id) {
+            return id;
+        }
+    }
+
+    static class NoTrackedKeysService {
+        @BoundedConcurrency(executor = "cpuBoundExecutor", key = "#tenantId", permitsPerKey = 1, maxTrackedKeys = 0)
+        public String render(String tenantId) {
+            return tenantId;
+        }
+    }
+
+    abstract static class BaseRenderer {
+        @BoundedConcurrency(executor = "cpuBoundExecutor", mode = BoundedConcurrency.Mode.FALLBACK, fallbackMethod = "cached")
+        public String render() {
+            return "rendered";
+        }
+    }
+
+    static class PrimaryRenderer extends BaseRenderer {
+        public String cached() {
+            return "primary";
+        }
+    }
+
+    static class SecondaryRenderer extends BaseRenderer {
+        public String cached() {
+            return "secondary";
+        }
+    }
+}
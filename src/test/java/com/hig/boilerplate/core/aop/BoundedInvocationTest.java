@@ -0,0 +1,133 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.async.RequestContextTaskDecorator;
+import com.hig.boilerplate.core.concurrency.AsyncSemaphore;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoundedInvocationTest {
+
+    private final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    private final AsyncSemaphore semaphore = new AsyncSemaphore(new Semaphore(2));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("대기열에 있는 작업을 취소하면 대기열에서 제거되고 허가가 즉시 반납되어야 한다")
+    void shouldRemoveQueuedTaskOnCancel() throws Throwable {
+        CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(blocker));
+
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        CompletableFuture<Object> result = dispatch(joinPoint);
+        assertThat(executor.getQueue()).hasSize(1);
+
+        result.cancel(false);
+
+        assertThat(executor.getQueue()).isEmpty();
+        assertThat(semaphore.availablePermits()).isEqualTo(2);
+        blocker.countDown();
+        verify(joinPoint, never()).proceed();
+    }
+
+    @Test
+    @DisplayName("TaskDecorator 로 감싸 대기열에 들어간 작업도 취소하면 대기열에서 제거되어야 한다")
+    void shouldRemoveDecoratedQueuedTaskOnCancel() throws Throwable {
+        ThreadPoolTaskExecutor decoratedExecutor = new ThreadPoolTaskExecutor();
+        decoratedExecutor.setCorePoolSize(1);
+        decoratedExecutor.setMaxPoolSize(1);
+        decoratedExecutor.setQueueCapacity(1);
+        decoratedExecutor.setTaskDecorator(new RequestContextTaskDecorator());
+        decoratedExecutor.initialize();
+        CountDownLatch blocker = new CountDownLatch(1);
+        try {
+            decoratedExecutor.execute(() -> awaitQuietly(blocker));
+
+            ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+            assertThat(semaphore.tryAcquire()).isTrue();
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            BoundedInvocation.dispatch(joinPoint, decoratedExecutor, new BoundedConcurrencyPermit(semaphore, 1, null, null),
+                System.nanoTime(), result);
+            assertThat(decoratedExecutor.getQueueSize()).isEqualTo(1);
+
+            result.cancel(false);
+
+            assertThat(decoratedExecutor.getQueueSize()).isZero();
+            assertThat(semaphore.availablePermits()).isEqualTo(2);
+            verify(joinPoint, never()).proceed();
+        } finally {
+            blocker.countDown();
+            decoratedExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("실행 중인 작업을 취소하면 interrupt 되고, 작업이 멈춘 뒤에 허가가 반납되어야 한다")
+    void shouldInterruptRunningTaskAndReleaseAfterStop() throws Throwable {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+                throw e;
+            } finally {
+                stopped.countDown();
+            }
+            return CompletableFuture.completedFuture("done");
+        });
+
+        CompletableFuture<Object> result = dispatch(joinPoint);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(semaphore.availablePermits()).isEqualTo(1);
+
+        result.cancel(false);
+
+        assertThat(stopped.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(interrupted).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(semaphore.availablePermits()).isEqualTo(2);
+    }
+
+    private CompletableFuture<Object> dispatch(ProceedingJoinPoint joinPoint) {
+        assertThat(semaphore.tryAcquire()).isTrue();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        BoundedInvocation.dispatch(joinPoint, executor, new BoundedConcurrencyPermit(semaphore, 1, null, null), System.nanoTime(), result);
+        return result;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
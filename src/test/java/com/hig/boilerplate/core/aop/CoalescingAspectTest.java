@@ -0,0 +1,135 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.annotation.Coalesce;
+import com.hig.boilerplate.core.deadline.RequestDeadline;
+import com.hig.boilerplate.core.exception.DeadlineExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class CoalescingAspectTest {
+
+    private final CatalogService target = new CatalogService();
+    private CatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new CoalescingAspect());
+        catalogService = proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("leader 가 실패하면 기다리던 follower 도 같은 예외를 받고, 메서드는 한 번만 실행되어야 한다")
+    void shouldPropagateLeaderFailureToFollower() throws Exception {
+        IllegalStateException failure = new IllegalStateException("catalog unavailable");
+        target.failure = failure;
+        AtomicReference<Throwable> leaderFailure = new AtomicReference<>();
+        Thread leader = Thread.ofPlatform().start(() -> leaderFailure.set(catchThrowable(() -> catalogService.find("a"))));
+        assertThat(target.started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Throwable> followerFailure = new AtomicReference<>();
+        Thread follower = Thread.ofPlatform().start(() -> followerFailure.set(catchThrowable(() -> catalogService.find("a"))));
+        awaitWaiting(follower);
+        target.release.countDown();
+        leader.join(1000);
+        follower.join(1000);
+
+        assertThat(leaderFailure.get()).isSameAs(failure);
+        assertThat(followerFailure.get()).isSameAs(failure);
+        assertThat(target.executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("leader 가 자신의 시한 초과로 실패하고 follower 의 시한은 남아 있으면 follower 가 직접 실행해야 한다")
+    void shouldRetryWhenLeaderFailedOnItsOwnDeadline() throws Exception {
+        target.failure = new DeadlineExceededException("orderDatabase");
+        AtomicReference<Throwable> leaderFailure = new AtomicReference<>();
+        Thread leader = Thread.ofPlatform().start(() -> leaderFailure.set(catchThrowable(
+            () -> RequestDeadline.after(Duration.ofMillis(50)).bind().call(() -> catalogService.find("a")))));
+        assertThat(target.started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<String> followerResult = new AtomicReference<>();
+        Thread follower = Thread.ofPlatform().start(() -> followerResult.set(catalogService.find("a")));
+        awaitWaiting(follower);
+        target.release.countDown();
+        leader.join(1000);
+        follower.join(1000);
+
+        assertThat(leaderFailure.get()).isInstanceOf(DeadlineExceededException.class);
+        assertThat(followerResult.get()).isEqualTo("a-2");
+        assertThat(target.executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("쓰기 트랜잭션 메서드에 선언하면 실행하지 않고 거절해야 한다")
+    void shouldRejectWriteTransaction() {
+        assertThatThrownBy(() -> catalogService.update("a"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("@Coalesce requires a read-only transaction");
+        assertThat(target.executions.get()).isZero();
+
+        target.release.countDown();
+        assertThat(catalogService.findReadOnly("a")).isEqualTo("a-1");
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        for (int i = 0; i < 50 && thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(thread.getState()).isIn(Thread.State.WAITING, Thread.State.TIMED_WAITING);
+    }
+
+    static class CatalogService {
+
+        private final AtomicInteger executions = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        // null 이 아니면 첫 실행에서 결과 대신 던짐
+        private volatile RuntimeException failure;
+
+        @Coalesce
+        public String find(String key) {
+            return execute(key);
+        }
+
+        @Coalesce
+        @Transactional(readOnly = true)
+        public String findReadOnly(String key) {
+            return execute(key);
+        }
+
+        @Coalesce
+        @Transactional
+        public String update(String key) {
+            return execute(key);
+        }
+
+        private String execute(String key) {
+            int execution = executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            RuntimeException toThrow = failure;
+            if (toThrow != null && execution == 1) {
+                throw toThrow;
+            }
+            return key + "-" + execution;
+        }
+    }
+}
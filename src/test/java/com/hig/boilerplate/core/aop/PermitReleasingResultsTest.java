@@ -0,0 +1,84 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.concurrency.AsyncSemaphore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermitReleasingResultsTest {
+
+    private final AsyncSemaphore semaphore = new AsyncSemaphore(new Semaphore(1));
+
+    @Test
+    @DisplayName("Stream 은 닫힐 때 한 번만 허가를 반납해야 한다")
+    void shouldReleaseOnStreamClose() {
+        Stream<?> stream = (Stream<?>) PermitReleasingResults.stream(Stream.of(1, 2, 3), acquire(), System.nanoTime());
+
+        assertThat(stream.count()).isEqualTo(3);
+        assertThat(semaphore.availablePermits()).isZero();
+
+        stream.close();
+        stream.close();
+        assertThat(semaphore.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Iterator 는 끝까지 순회하면 허가를 반납해야 한다")
+    void shouldReleaseOnIteratorExhaustion() {
+        Iterator<Integer> iterator = PermitReleasingResults.iterator(List.of(1, 2).iterator(), acquire(), System.nanoTime());
+
+        iterator.next();
+        assertThat(iterator.hasNext()).isTrue();
+        assertThat(semaphore.availablePermits()).isZero();
+
+        iterator.next();
+        assertThat(iterator.hasNext()).isFalse();
+        assertThat(semaphore.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Publisher 는 구독이 완료되면 허가를 반납해야 한다")
+    void shouldReleaseOnPublisherCompletion() throws InterruptedException {
+        CountDownLatch completed = new CountDownLatch(1);
+        try (SubmissionPublisher<Integer> source = new SubmissionPublisher<>()) {
+            PermitReleasingResults.publisher(source, acquire(), System.nanoTime()).subscribe(new Flow.Subscriber<Integer>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(Integer item) {
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+            source.submit(1);
+            assertThat(semaphore.availablePermits()).isZero();
+        }
+        assertThat(completed.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(semaphore.availablePermits()).isEqualTo(1);
+    }
+
+    private BoundedConcurrencyPermit acquire() {
+        assertThat(semaphore.tryAcquire()).isTrue();
+        return new BoundedConcurrencyPermit(semaphore, 1, null, null);
+    }
+}
@@ -0,0 +1,128 @@
+package com.hig.boilerplate.core.aop;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "resilience4j.bulkhead.instances.orderDatabase.maxConcurrentCalls=5",
+    "resilience4j.bulkhead.instances.reservedDatabase.maxConcurrentCalls=2",
+    "spring.datasource.url=jdbc:h2:mem:primarydb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.liquibase.enabled=false",
+    "boilerplate.datasource.replica.enabled=true",
+    "boilerplate.datasource.replica.jdbc-url=jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "boilerplate.datasource.replica.driver-class-name=org.h2.Driver",
+    "boilerplate.datasource.replica.username=sa",
+    "boilerplate.datasource.replica.password=",
+    "boilerplate.datasource.replica.maximum-pool-size=4"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    private RoutingService routingService;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Test
+    @DisplayName("Replica 라우팅을 사용하면 읽기 전용 트랜잭션은 Replica 풀과 Replica Bulkhead 를 사용해야 한다")
+    void shouldRouteReadOnlyTransactionToReplica() {
+        Bulkhead primary = bulkheadRegistry.bulkhead("orderDatabase");
+        Bulkhead replica = bulkheadRegistry.find("replicaDatabase").orElseThrow();
+        int primaryPermits = primary.getMetrics().getAvailableConcurrentCalls();
+        int replicaPermits = replica.getMetrics().getAvailableConcurrentCalls();
+        AtomicInteger primaryInUse = new AtomicInteger();
+        AtomicInteger replicaInUse = new AtomicInteger();
+
+        String url = routingService.readOnly(() -> {
+            primaryInUse.set(primaryPermits - primary.getMetrics().getAvailableConcurrentCalls());
+            replicaInUse.set(replicaPermits - replica.getMetrics().getAvailableConcurrentCalls());
+        });
+
+        assertThat(url).contains("replicadb");
+        assertThat(replicaInUse.get()).isEqualTo(1);
+        assertThat(primaryInUse.get()).isZero();
+        assertThat(replica.getMetrics().getAvailableConcurrentCalls()).isEqualTo(replicaPermits);
+    }
+
+    @Test
+    @DisplayName("Replica 라우팅을 사용해도 쓰기 트랜잭션은 Primary 풀과 기본 Bulkhead 를 사용해야 한다")
+    void shouldKeepReadWriteTransactionOnPrimary() {
+        Bulkhead primary = bulkheadRegistry.bulkhead("orderDatabase");
+        Bulkhead replica = bulkheadRegistry.find("replicaDatabase").orElseThrow();
+        int primaryPermits = primary.getMetrics().getAvailableConcurrentCalls();
+        int replicaPermits = replica.getMetrics().getAvailableConcurrentCalls();
+        AtomicInteger primaryInUse = new AtomicInteger();
+        AtomicInteger replicaInUse = new AtomicInteger();
+
+        String url = routingService.readWrite(() -> {
+            primaryInUse.set(primaryPermits - primary.getMetrics().getAvailableConcurrentCalls());
+            replicaInUse.set(replicaPermits - replica.getMetrics().getAvailableConcurrentCalls());
+        });
+
+        assertThat(url).contains("primarydb");
+        assertThat(primaryInUse.get()).isEqualTo(1);
+        assertThat(replicaInUse.get()).isZero();
+    }
+
+    @TestConfiguration
+    @EnableAspectJAutoProxy
+    static class TestConfig {
+        @Bean
+        public RoutingService routingService(DataSource dataSource) {
+            return new RoutingService(dataSource);
+        }
+    }
+
+    static class RoutingService {
+
+        private final DataSource dataSource;
+
+        RoutingService(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Transactional(readOnly = true)
+        public String readOnly(Runnable probe) {
+            probe.run();
+            return connectionUrl();
+        }
+
+        @Transactional
+        public String readWrite(Runnable probe) {
+            probe.run();
+            return connectionUrl();
+        }
+
+        /**
+         * @return 현재 트랜잭션이 실제로 사용하는 물리 커넥션의 URL
+         */
+        private String connectionUrl() {
+            try {
+                return DataSourceUtils.getConnection(dataSource).getMetaData().getURL();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.hig.boilerplate.core.aop;
+
+import com.hig.boilerplate.core.annotation.ServeStaleOnSaturation;
+import com.hig.boilerplate.core.exception.BulkheadRejectedException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StaleOnSaturationAspectTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CatalogService target = new CatalogService();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private CatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new StaleOnSaturationAspect(new MockEnvironment(),
+            new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class)));
+        catalogService = proxyFactory.getProxy();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("포화로 거절되면 보관한 결과를 반환하고 응답에 오래된 결과임을 표시해야 한다")
+    void shouldServeStaleResultAndMarkResponse() {
+        String fresh = catalogService.find("a");
+        target.failure = saturation();
+
+        assertThat(catalogService.find("a")).isEqualTo(fresh);
+
+        assertThat(response.getHeader(StaleOnSaturationAspect.STALE_HEADER)).isEqualTo("true");
+        assertThat(response.getHeader(HttpHeaders.AGE)).isEqualTo("0");
+        assertThat(meterRegistry.get("stale.served").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("보관한 결과가 maxStaleness 보다 오래되었으면 반환하지 않고 원래 예외를 던져야 한다")
+    void shouldNotServeResultOlderThanMaxStaleness() throws InterruptedException {
+        catalogService.findRecent("a");
+        BulkheadRejectedException saturation = saturation();
+        target.failure = saturation;
+
+        // maxStaleness(50ms) 가 지나도록 대기
+        Thread.sleep(100);
+
+        assertThatThrownBy(() -> catalogService.findRecent("a")).isSameAs(saturation);
+        assertThat(response.getHeader(StaleOnSaturationAspect.STALE_HEADER)).isNull();
+        assertThat(meterRegistry.get("stale.served").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("포화가 아닌 예외는 보관한 결과가 있어도 그대로 전파해야 한다")
+    void shouldPropagateNonSaturationException() {
+        catalogService.find("a");
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("constraint violated");
+        target.failure = failure;
+
+        assertThatThrownBy(() -> catalogService.find("a")).isSameAs(failure);
+        assertThat(response.getHeader(StaleOnSaturationAspect.STALE_HEADER)).isNull();
+        assertThat(meterRegistry.get("stale.served").counter().count()).isZero();
+    }
+
+    private static BulkheadRejectedException saturation() {
+        return new BulkheadRejectedException("reporting",
+            BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("reporting")));
+    }
+
+    static class CatalogService {
+
+        private final AtomicInteger executions = new AtomicInteger();
+        // null 이 아니면 실행 대신 던짐
+        private volatile RuntimeException failure;
+
+        @ServeStaleOnSaturation
+        public String find(String key) {
+            return execute(key);
+        }
+
+        @ServeStaleOnSaturation(maxStaleness = "50ms")
+        public String findRecent(String key) {
+            return execute(key);
+        }
+
+        private String execute(String key) {
+            if (failure != null) {
+                throw failure;
+            }
+            return key + "-" + executions.incrementAndGet();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.hig.boilerplate.core.aop;
 
+import com.hig.boilerplate.core.annotation.Coalesce;
+import com.hig.boilerplate.core.annotation.DatabaseBulkhead;
+import com.hig.boilerplate.core.annotation.ServeStaleOnSaturation;
+import com.hig.boilerplate.core.exception.BulkheadRejectedException;
 import io.github.resilience4j.bulkhead.Bulkhead;
-import io.github.resilience4j.bulkhead.BulkheadFullException;
 import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,17 +16,24 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -32,6 +42,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 @TestPropertySource(properties = {
     "resilience4j.bulkhead.instances.orderDatabase.maxConcurrentCalls=5",
     "resilience4j.bulkhead.instances.orderDatabase.maxWaitDuration=100ms",
+    "resilience4j.bulkhead.instances.reporting.maxConcurrentCalls=2",
+    "resilience4j.bulkhead.instances.reservedDatabase.maxConcurrentCalls=2",
     "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
     "spring.datasource.driver-class-name=org.h2.Driver",
     "spring.datasource.username=sa",
@@ -72,7 +84,7 @@ public class TransactionalBulkheadAspectTest {
                     try {
                         latch.await(); // 시작 신호 대기
                         return testService.longRunningTransaction();
-                    } catch (BulkheadFullException e) {
+                    } catch (BulkheadRejectedException e) {
                         rejectionCount.incrementAndGet();
                         throw e;
                     } catch (Exception e) {
@@ -92,7 +104,7 @@ public class TransactionalBulkheadAspectTest {
                     successCount.incrementAndGet();
                 }
             } catch (ExecutionException e) {
-                // BulkheadFullException은 여기서 잡힙
+                // BulkheadRejectedException은 여기서 잡힙
             }
         }
 
@@ -119,6 +131,135 @@ public class TransactionalBulkheadAspectTest {
         assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(initialPermits);
     }
 
+    @Test
+    @DisplayName("@DatabaseBulkhead 가 지정된 메서드는 기본 Bulkhead 대신 지정된 Bulkhead 의 퍼밋을 사용해야 한다")
+    void shouldUseNamedBulkhead() {
+        Bulkhead reporting = bulkheadRegistry.bulkhead("reporting");
+        int orderPermits = bulkhead.getMetrics().getAvailableConcurrentCalls();
+        int reportingPermits = reporting.getMetrics().getAvailableConcurrentCalls();
+        AtomicInteger reportingInUse = new AtomicInteger();
+        AtomicInteger orderAvailable = new AtomicInteger();
+
+        testService.reportingTransaction(() -> {
+            reportingInUse.set(reportingPermits - reporting.getMetrics().getAvailableConcurrentCalls());
+            orderAvailable.set(bulkhead.getMetrics().getAvailableConcurrentCalls());
+        });
+
+        assertThat(reportingInUse.get()).isEqualTo(1);
+        assertThat(orderAvailable.get()).isEqualTo(orderPermits);
+        assertThat(reporting.getMetrics().getAvailableConcurrentCalls()).isEqualTo(reportingPermits);
+    }
+
+    @Test
+    @DisplayName("Replica 라우팅을 사용하지 않으면 읽기 전용 트랜잭션도 기본 Bulkhead 를 사용해야 한다")
+    void shouldUseDefaultBulkheadForReadOnlyWhenReplicaDisabled() {
+        int orderPermits = bulkhead.getMetrics().getAvailableConcurrentCalls();
+        AtomicInteger orderInUse = new AtomicInteger();
+
+        testService.readOnlyTransaction(() -> orderInUse.set(orderPermits - bulkhead.getMetrics().getAvailableConcurrentCalls()));
+
+        assertThat(orderInUse.get()).isEqualTo(1);
+        assertThat(bulkheadRegistry.find("replicaDatabase")).isEmpty();
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(orderPermits);
+    }
+
+    @Test
+    @DisplayName("설정되지 않은 @DatabaseBulkhead 이름은 기본 설정의 Bulkhead 를 만들지 않고 거절해야 한다")
+    void shouldRejectUndefinedBulkheadName() {
+        assertThrows(IllegalStateException.class, () -> testService.undefinedBulkheadTransaction());
+        assertThat(bulkheadRegistry.find("undefinedDatabase")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("퍼밋을 가진 스코프에서 REQUIRES_NEW 트랜잭션은 예비 Bulkhead 의 퍼밋을 추가로 점유해야 한다")
+    void shouldTakeReservedPermitForRequiresNew() {
+        Bulkhead reserved = bulkheadRegistry.bulkhead("reservedDatabase");
+        int orderPermits = bulkhead.getMetrics().getAvailableConcurrentCalls();
+        int reservedPermits = reserved.getMetrics().getAvailableConcurrentCalls();
+        AtomicInteger orderInUse = new AtomicInteger();
+        AtomicInteger reservedInUse = new AtomicInteger();
+
+        testService.outerWithRequiresNew(() -> {
+            orderInUse.set(orderPermits - bulkhead.getMetrics().getAvailableConcurrentCalls());
+            reservedInUse.set(reservedPermits - reserved.getMetrics().getAvailableConcurrentCalls());
+        });
+
+        assertThat(orderInUse.get()).isEqualTo(1);
+        assertThat(reservedInUse.get()).isEqualTo(1);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(orderPermits);
+        assertThat(reserved.getMetrics().getAvailableConcurrentCalls()).isEqualTo(reservedPermits);
+    }
+
+    @Test
+    @DisplayName("@Coalesce 메서드의 동시 동일 호출은 한 번만 실행되고 leader 만 퍼밋을 점유해야 한다")
+    void shouldCoalesceIdenticalCalls() throws Exception {
+        int callers = 10;
+        int orderPermits = bulkhead.getMetrics().getAvailableConcurrentCalls();
+        int executionsBefore = testService.coalescedExecutions.get();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        Queue<Thread> callerThreads = new ConcurrentLinkedQueue<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    callerThreads.add(Thread.currentThread());
+                    return testService.coalescedRead("hot", started, release);
+                }));
+            }
+            // leader 가 퍼밋을 쥔 채 실행 중
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            // 나머지 호출이 모두 leader 의 결과를 기다리며 멈출 때까지 대기
+            for (int i = 0; i < 250 && joinedFollowers(callerThreads) < callers - 1; i++) {
+                Thread.sleep(20);
+            }
+            assertThat(joinedFollowers(callerThreads)).isEqualTo(callers - 1);
+            assertThat(testService.coalescedExecutions.get() - executionsBefore).isEqualTo(1);
+            assertThat(orderPermits - bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+            release.countDown();
+        }
+
+        for (Future<String> future : futures) {
+            assertThat(future.get()).isEqualTo("value-hot");
+        }
+        assertThat(testService.coalescedExecutions.get() - executionsBefore).isEqualTo(1);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(orderPermits);
+    }
+
+    /**
+     * @return leader 의 Future 에서 결과를 기다리며 멈춰 있는 스레드 수
+     */
+    private static long joinedFollowers(Collection<Thread> threads) {
+        return threads.stream()
+            .map(LockSupport::getBlocker)
+            .filter(blocker -> blocker != null && blocker.getClass().getEnclosingClass() == CompletableFuture.class)
+            .count();
+    }
+
+    @Test
+    @DisplayName("@ServeStaleOnSaturation 메서드는 Bulkhead 가 가득 차면 같은 인자의 마지막 성공 결과를 반환해야 한다")
+    void shouldServeStaleResultWhenBulkheadFull() {
+        Bulkhead reporting = bulkheadRegistry.bulkhead("reporting");
+        String fresh = testService.staleRead("a");
+        int available = reporting.getMetrics().getAvailableConcurrentCalls();
+        for (int i = 0; i < available; i++) {
+            reporting.acquirePermission();
+        }
+
+        try {
+            assertThat(testService.staleRead("a")).isEqualTo(fresh);
+            // 보관한 결과가 없는 인자는 그대로 거절
+            assertThrows(BulkheadRejectedException.class, () -> testService.staleRead("b"));
+        } finally {
+            for (int i = 0; i < available; i++) {
+                reporting.onComplete();
+            }
+        }
+
+        assertThat(testService.staleRead("a")).isNotEqualTo(fresh);
+    }
+
     @TestConfiguration
     @EnableAspectJAutoProxy
     static class TestConfig {
@@ -134,6 +275,9 @@ public class TransactionalBulkheadAspectTest {
         @SuppressWarnings("null")
         private ObjectProvider<TestService> testServiceProvider;
 
+        private final AtomicInteger coalescedExecutions = new AtomicInteger();
+        private final AtomicInteger staleReadExecutions = new AtomicInteger();
+
         @Transactional
         public String longRunningTransaction() {
             try {
@@ -154,9 +298,56 @@ public class TransactionalBulkheadAspectTest {
             // 내부 로직
         }
 
+        @Transactional
+        public void outerWithRequiresNew(Runnable probe) {
+            Objects.requireNonNull(testServiceProvider.getObject()).requiresNewTransaction(probe);
+        }
+
+        @Transactional(propagation = Propagation.REQUIRES_NEW)
+        public void requiresNewTransaction(Runnable probe) {
+            probe.run();
+        }
+
         @Transactional
         public void exceptionTransaction() {
             throw new RuntimeException("Business Error");
         }
+
+        @Coalesce
+        @Transactional(readOnly = true)
+        public String coalescedRead(String key, CountDownLatch started, CountDownLatch release) {
+            coalescedExecutions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "value-" + key;
+        }
+
+        @ServeStaleOnSaturation
+        @Transactional(readOnly = true)
+        @DatabaseBulkhead("reporting")
+        public String staleRead(String key) {
+            return "value-" + key + "-" + staleReadExecutions.incrementAndGet();
+        }
+
+        @Transactional(readOnly = true)
+        @DatabaseBulkhead("reporting")
+        public void reportingTransaction(Runnable probe) {
+            probe.run();
+        }
+
+        @Transactional(readOnly = true)
+        public void readOnlyTransaction(Runnable probe) {
+            probe.run();
+        }
+
+        @Transactional(readOnly = true)
+        @DatabaseBulkhead("undefinedDatabase")
+        public void undefinedBulkheadTransaction() {
+            // 내부 로직
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.hig.boilerplate.core.async;
+
+import com.hig.boilerplate.core.bulkhead.BulkheadScope;
+import com.hig.boilerplate.core.bulkhead.RequestPriority;
+import com.hig.boilerplate.core.deadline.RequestDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestContextTaskDecoratorTest {
+
+    private final RequestContextTaskDecorator decorator = new RequestContextTaskDecorator();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("제출한 스레드의 요청 컨텍스트가 작업 스레드에 전달되어야 한다")
+    void shouldPropagateRequestContext() throws Exception {
+        BulkheadScope parent = new BulkheadScope("orderDatabase", RequestPriority.BATCH, "parent", null);
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofSeconds(5));
+        MDC.put("traceId", "abc");
+
+        AtomicReference<BulkheadScope> scope = new AtomicReference<>();
+        AtomicReference<RequestDeadline> propagatedDeadline = new AtomicReference<>();
+        AtomicReference<RequestPriority> priority = new AtomicReference<>();
+        AtomicReference<String> traceId = new AtomicReference<>();
+        AtomicReference<Boolean> owned = new AtomicReference<>();
+        Runnable task = parent.bind().call(() -> deadline.bind().call(() -> RequestPriority.BATCH.bind().call(
+            () -> decorator.decorate(() -> {
+                scope.set(BulkheadScope.current());
+                owned.set(BulkheadScope.current().ownedByCurrentThread());
+                propagatedDeadline.set(RequestDeadline.current());
+                priority.set(RequestPriority.current());
+                traceId.set(MDC.get("traceId"));
+            }))));
+
+        Thread.ofVirtual().start(task).join();
+
+        assertThat(scope.get()).isSameAs(parent);
+        assertThat(owned.get()).isFalse();
+        assertThat(propagatedDeadline.get()).isSameAs(deadline);
+        assertThat(priority.get()).isEqualTo(RequestPriority.BATCH);
+        assertThat(traceId.get()).isEqualTo("abc");
+    }
+
+    @Test
+    @DisplayName("퍼밋을 쥔 부모에서 fork 된 스코프는 부모를 퍼밋 점유자로 찾아야 한다")
+    void shouldFindParentHoldingPermit() throws Exception {
+        BulkheadScope parent = new BulkheadScope("orderDatabase", RequestPriority.DEFAULT, "parent", null);
+        parent.connectionAcquired();
+
+        AtomicReference<BulkheadScope> holder = new AtomicReference<>();
+        Runnable task = parent.bind().call(() -> decorator.decorate(() -> {
+            BulkheadScope child = new BulkheadScope("orderDatabase", RequestPriority.DEFAULT, "child",
+                BulkheadScope.current());
+            holder.set(child.forkedPermitHolder());
+        }));
+        Thread.ofVirtual().start(task).join();
+        assertThat(holder.get()).isSameAs(parent);
+
+        parent.connectionReleased();
+        Thread.ofVirtual().start(task).join();
+        assertThat(holder.get()).isNull();
+    }
+}
@@ -0,0 +1,90 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class AdaptiveBulkheadLimiterTest {
+
+    @Test
+    @DisplayName("Primary 풀을 쓰는 Bulkhead 의 상한은 풀 크기에서 예비 Bulkhead 의 한도를 뺀 값이어야 한다")
+    void shouldKeepReservedPermitsOutOfPrimaryCeiling() {
+        AdaptiveBulkheadLimiter limiter = new AdaptiveBulkheadLimiter(properties(0), registry(2), 20);
+
+        assertThat(limiter.maxLimitOf("orderDatabase")).isEqualTo(18);
+        // 설정한 상한이 더 크면 예비 몫을 침범하지 않도록 줄임
+        assertThat(new AdaptiveBulkheadLimiter(properties(20), registry(2), 20).maxLimitOf("orderDatabase")).isEqualTo(18);
+    }
+
+    @Test
+    @DisplayName("별도로 등록한 상한은 예비 Bulkhead 몫을 빼지 않고 그대로 사용해야 한다")
+    void shouldUseRegisteredCeiling() {
+        AdaptiveBulkheadLimiter limiter = new AdaptiveBulkheadLimiter(properties(0), registry(2), 20);
+        limiter.registerCeiling("replicaDatabase", 10);
+
+        assertThat(limiter.maxLimitOf("replicaDatabase")).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("예비 Bulkhead 가 풀 전체를 차지하면 기동 시 실패해야 한다")
+    void shouldFailWhenReservedTakesWholePool() {
+        assertThatThrownBy(() -> new AdaptiveBulkheadLimiter(properties(0), registry(4), 4))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("한도를 줄일 때는 남아 있는 퍼밋만큼만 줄여 사용 중인 퍼밋의 반납을 기다리지 않아야 한다")
+    void shouldShrinkOnlyByAvailablePermits() {
+        AdaptiveBulkheadLimiter limiter = new AdaptiveBulkheadLimiter(properties(0), registry(2), 20);
+        Bulkhead bulkhead = Bulkhead.of("clusterDatabase", BulkheadConfig.custom()
+            .maxConcurrentCalls(8)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+        limiter.registerCeiling("clusterDatabase", 8);
+        limiter.onCallFinished(bulkhead, 1_000_000);
+        for (int i = 0; i < 8; i++) {
+            bulkhead.acquirePermission();
+        }
+        limiter.changeCeiling("clusterDatabase", 4);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), limiter::adjustAll);
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(8);
+
+        for (int i = 0; i < 3; i++) {
+            bulkhead.onComplete();
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(1), limiter::adjustAll);
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(5);
+
+        for (int i = 0; i < 5; i++) {
+            bulkhead.onComplete();
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(1), limiter::adjustAll);
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(4);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(4);
+    }
+
+    private static BulkheadRegistry registry(int reserved) {
+        BulkheadRegistry registry = BulkheadRegistry.ofDefaults();
+        registry.bulkhead("reservedDatabase", BulkheadConfig.custom().maxConcurrentCalls(reserved).build());
+        return registry;
+    }
+
+    private static BulkheadProperties properties(int maxLimit) {
+        return new BulkheadProperties(BulkheadProperties.PermitMode.METHOD,
+            "orderDatabase", "replicaDatabase", "reservedDatabase",
+            new BulkheadProperties.Adaptive(true, 4, maxLimit, Duration.ofSeconds(1), 1.5, 0.2),
+            new BulkheadProperties.Priority(false, 6, 3, 1, "X-Request-Priority", RequestPriority.INTERACTIVE),
+            new BulkheadProperties.CoDel(false, Duration.ofMillis(10), Duration.ofMillis(100)),
+            new BulkheadProperties.Watchdog(false, Duration.ofSeconds(5), Duration.ofSeconds(1), Duration.ZERO),
+            BulkheadProperties.ForkedPermitPolicy.LEND);
+    }
+}
@@ -0,0 +1,119 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import com.hig.boilerplate.core.exception.BulkheadRejectedException;
+import com.hig.boilerplate.core.metrics.ConcurrencyMetrics;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkheadDataSourceTest {
+
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+        .maxWaitDuration(Duration.ZERO)
+        .build());
+    private final DataSource target = mock(DataSource.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BulkheadDataSource dataSource = new BulkheadDataSource(target, bulkheadRegistry, "orderDatabase", "reservedDatabase",
+        null, null, null, BulkheadProperties.ForkedPermitPolicy.LEND,
+        new ConcurrencyMetrics(new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class)));
+
+    private Bulkhead orderDatabase;
+    private Bulkhead reservedDatabase;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        orderDatabase = bulkheadRegistry.bulkhead("orderDatabase", BulkheadConfig.custom()
+            .maxConcurrentCalls(2)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+        reservedDatabase = bulkheadRegistry.bulkhead("reservedDatabase", BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    @DisplayName("커넥션을 빌릴 때 퍼밋을 획득하고 닫을 때 한 번만 반납해야 한다")
+    void shouldHoldPermitUntilConnectionClosed() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        assertThat(orderDatabase.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+
+        connection.close();
+        connection.close();
+
+        assertThat(orderDatabase.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+        assertThat(meterRegistry.get("bulkhead.permit.in.flight")
+            .tags("bulkhead", "orderDatabase", "method", "unscoped").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("퍼밋이 없으면 커넥션 풀에 접근하지 않고 거절해야 한다")
+    void shouldRejectBeforeTouchingPoolWhenFull() throws SQLException {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(BulkheadRejectedException.class);
+        verify(target, times(2)).getConnection();
+
+        first.close();
+        second.close();
+        assertThat(orderDatabase.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("커넥션 풀에서 커넥션을 얻지 못하면 획득한 퍼밋을 반납해야 한다")
+    void shouldReleasePermitWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+
+        assertThat(orderDatabase.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("이미 커넥션을 점유한 스코프가 커넥션을 하나 더 빌리면 예비 Bulkhead 를 사용해야 한다")
+    void shouldUseReservedBulkheadForSecondConnection() throws Exception {
+        BulkheadScope scope = new BulkheadScope("orderDatabase", RequestPriority.INTERACTIVE, "OrderService.placeOrder", null);
+
+        scope.bind().call(() -> {
+            try (Connection outer = dataSource.getConnection()) {
+                assertThat(scope.heldConnections()).isEqualTo(1);
+                assertThat(orderDatabase.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+
+                try (Connection inner = dataSource.getConnection()) {
+                    // REQUIRES_NEW 처럼 바깥 커넥션을 쥔 채 빌리는 커넥션
+                    assertThat(scope.heldConnections()).isEqualTo(2);
+                    assertThat(orderDatabase.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+                    assertThat(reservedDatabase.getMetrics().getAvailableConcurrentCalls()).isZero();
+                }
+
+                assertThat(reservedDatabase.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+            }
+            return null;
+        });
+
+        assertThat(scope.heldConnections()).isZero();
+        assertThat(orderDatabase.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+    }
+}
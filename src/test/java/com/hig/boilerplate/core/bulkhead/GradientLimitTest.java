@@ -0,0 +1,78 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimitTest {
+
+    private static final long BASE_RTT = 10_000_000L; // 10ms
+
+    @Test
+    @DisplayName("지연 시간이 안정적이고 한도까지 사용 중이면 한도를 늘려야 한다")
+    void shouldGrowWhenLatencyIsStable() {
+        GradientLimit limit = new GradientLimit(10, 4, 20, 1.5, 1.0);
+
+        for (int window = 0; window < 5; window++) {
+            record(limit, BASE_RTT, limit.currentLimit());
+            limit.update();
+        }
+
+        assertThat(limit.currentLimit()).isGreaterThan(10).isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("지연 시간이 급격히 늘어나면 한도를 줄여야 한다")
+    void shouldShrinkWhenLatencyIncreases() {
+        GradientLimit limit = new GradientLimit(16, 4, 20, 1.5, 1.0);
+        record(limit, BASE_RTT, 16);
+        limit.update();
+        int before = limit.currentLimit();
+
+        record(limit, BASE_RTT * 5, before);
+        limit.update();
+
+        assertThat(limit.currentLimit()).isLessThan(before).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("수요가 한도의 절반에 못 미치면 한도를 유지해야 한다")
+    void shouldKeepLimitWhenUnderutilized() {
+        GradientLimit limit = new GradientLimit(10, 4, 20, 1.5, 1.0);
+
+        record(limit, BASE_RTT, 2);
+        limit.update();
+
+        assertThat(limit.currentLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("거절이 발생하면 사용량과 무관하게 한도 조정 대상이 되어야 한다")
+    void shouldTreatRejectionsAsDemand() {
+        GradientLimit limit = new GradientLimit(10, 4, 20, 1.5, 1.0);
+
+        record(limit, BASE_RTT, 2);
+        limit.onRejected();
+        limit.update();
+
+        assertThat(limit.currentLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("상한이 줄어들면 샘플이 없어도 다음 재계산에서 한도를 상한으로 줄여야 한다")
+    void shouldClampToReducedMaxLimit() {
+        GradientLimit limit = new GradientLimit(16, 4, 20, 1.5, 1.0);
+
+        limit.changeMaxLimit(8);
+        limit.update();
+
+        assertThat(limit.currentLimit()).isEqualTo(8);
+    }
+
+    private static void record(GradientLimit limit, long rttNanos, int inFlight) {
+        for (int i = 0; i < 100; i++) {
+            limit.onCallFinished(rttNanos, inFlight);
+        }
+    }
+}
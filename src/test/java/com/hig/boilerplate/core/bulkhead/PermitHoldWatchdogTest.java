@@ -0,0 +1,87 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class PermitHoldWatchdogTest {
+
+    private PermitHoldWatchdog watchdog;
+
+    @AfterEach
+    void tearDown() {
+        if (watchdog != null) {
+            watchdog.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("반납된 퍼밋의 슬롯은 다시 사용할 수 있어야 한다")
+    void shouldReuseSlotAfterUntrack() {
+        watchdog = watchdog(Duration.ofSeconds(5), Duration.ZERO);
+
+        List<PermitHolder> holders = new ArrayList<>();
+        PermitHolder holder;
+        while ((holder = watchdog.track("orderDatabase", "call site")) != null) {
+            holders.add(holder);
+        }
+        assertThat(holders).isNotEmpty();
+
+        watchdog.untrack(holders.getFirst());
+
+        assertThat(watchdog.track("orderDatabase", "call site")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("cancel-after 를 넘겨 점유 중인 호출의 Statement 는 취소되어야 한다")
+    void shouldCancelStatementHeldTooLong() throws Exception {
+        watchdog = watchdog(Duration.ofMillis(10), Duration.ofMillis(20));
+        Statement statement = mock(Statement.class);
+
+        PermitHolder holder = watchdog.track("orderDatabase", "call site");
+        holder.statement(statement);
+
+        verify(statement, timeout(2_000)).cancel();
+        assertThat(holder.reported()).isTrue();
+    }
+
+    @Test
+    @DisplayName("임계값 전에 반납된 퍼밋의 Statement 는 취소되지 않아야 한다")
+    void shouldNotCancelReleasedPermit() throws Exception {
+        watchdog = watchdog(Duration.ofMillis(10), Duration.ofMillis(20));
+        Statement statement = mock(Statement.class);
+
+        PermitHolder holder = watchdog.track("orderDatabase", "call site");
+        holder.statement(statement);
+        watchdog.untrack(holder);
+        Thread.sleep(100);
+
+        verify(statement, never()).cancel();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PermitHoldWatchdog watchdog(Duration threshold, Duration cancelAfter) {
+        BulkheadProperties properties = new BulkheadProperties(BulkheadProperties.PermitMode.METHOD,
+            "orderDatabase", "replicaDatabase", "reservedDatabase",
+            new BulkheadProperties.Adaptive(false, 4, 0, Duration.ofSeconds(1), 1.5, 0.2),
+            new BulkheadProperties.Priority(false, 6, 3, 1, "X-Request-Priority", RequestPriority.INTERACTIVE),
+            new BulkheadProperties.CoDel(false, Duration.ofMillis(10), Duration.ofMillis(100)),
+            new BulkheadProperties.Watchdog(true, threshold, Duration.ofMillis(10), cancelAfter),
+            BulkheadProperties.ForkedPermitPolicy.LEND);
+        PermitHoldWatchdog watchdog = new PermitHoldWatchdog(properties, mock(ObjectProvider.class));
+        watchdog.start();
+        return watchdog;
+    }
+}
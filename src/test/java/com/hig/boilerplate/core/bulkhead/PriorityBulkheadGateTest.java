@@ -0,0 +1,135 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriorityBulkheadGateTest {
+
+    // INTERACTIVE : DEFAULT : BATCH
+    private static final int[] WEIGHTS = {3, 2, 1};
+
+    @Test
+    @DisplayName("먼저 도착한 배치 대기자보다 사용자 API 대기자가 먼저 퍼밋을 받아야 한다")
+    void shouldGrantHigherPriorityFirst() throws InterruptedException {
+        PriorityBulkheadGate gate = new PriorityBulkheadGate(bulkhead(Duration.ofSeconds(5)), WEIGHTS, null, null);
+        List<RequestPriority> order = new CopyOnWriteArrayList<>();
+
+        gate.acquirePermission(RequestPriority.INTERACTIVE);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            enqueue(executor, gate, RequestPriority.BATCH, 2, order);
+            enqueue(executor, gate, RequestPriority.INTERACTIVE, 2, order);
+            gate.releasePermission();
+        }
+
+        assertThat(order).containsExactly(
+            RequestPriority.INTERACTIVE, RequestPriority.INTERACTIVE, RequestPriority.BATCH, RequestPriority.BATCH);
+    }
+
+    @Test
+    @DisplayName("높은 등급 대기자가 계속 있어도 낮은 등급은 가중치만큼의 몫을 받아야 한다")
+    void shouldNotStarveLowerPriority() throws InterruptedException {
+        PriorityBulkheadGate gate = new PriorityBulkheadGate(bulkhead(Duration.ofSeconds(5)), WEIGHTS, null, null);
+        List<RequestPriority> order = new CopyOnWriteArrayList<>();
+
+        gate.acquirePermission(RequestPriority.INTERACTIVE);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            enqueue(executor, gate, RequestPriority.INTERACTIVE, 8, order);
+            enqueue(executor, gate, RequestPriority.BATCH, 1, order);
+            gate.releasePermission();
+        }
+
+        // 가중치 3:1 이므로 네 번 중 한 번은 배치 대기자의 차례
+        assertThat(order.indexOf(RequestPriority.BATCH)).isLessThan(4);
+    }
+
+    @Test
+    @DisplayName("대기 시간 안에 차례가 오지 않으면 거절되고 대기열에서 제거되어야 한다")
+    void shouldRejectAfterMaxWait() {
+        Bulkhead bulkhead = bulkhead(Duration.ofMillis(50));
+        PriorityBulkheadGate gate = new PriorityBulkheadGate(bulkhead, WEIGHTS, null, null);
+
+        gate.acquirePermission(RequestPriority.INTERACTIVE);
+        assertThrows(BulkheadFullException.class, () -> gate.acquirePermission(RequestPriority.INTERACTIVE));
+        assertThat(gate.queuedCalls()).isZero();
+
+        gate.releasePermission();
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("대기 시간이 target 을 계속 넘으면 오래 기다린 대기자는 maxWaitDuration 전에 거절되어야 한다")
+    void shouldDropStaleWaitersWhenOverloaded() throws InterruptedException {
+        PriorityBulkheadGate.CoDel codel = new PriorityBulkheadGate.CoDel(
+            Duration.ofMillis(1).toNanos(), Duration.ofMillis(20).toNanos());
+        PriorityBulkheadGate gate = new PriorityBulkheadGate(bulkhead(Duration.ofSeconds(5)), WEIGHTS, codel, null);
+        AtomicInteger rejected = new AtomicInteger();
+        Runnable call = () -> {
+            try {
+                gate.acquirePermission(RequestPriority.INTERACTIVE);
+                gate.releasePermission();
+            } catch (BulkheadFullException e) {
+                rejected.incrementAndGet();
+            }
+        };
+
+        gate.acquirePermission(RequestPriority.INTERACTIVE);
+        long startedAt;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.execute(call);
+            awaitQueued(gate, 1);
+            // 첫 대기자가 interval 보다 오래 기다리게 하여 과부하로 판정되도록 함
+            Thread.sleep(30);
+            executor.execute(call);
+            executor.execute(call);
+            awaitQueued(gate, 3);
+            Thread.sleep(5);
+
+            startedAt = System.nanoTime();
+            gate.releasePermission();
+        }
+
+        assertThat(rejected.get()).isEqualTo(2);
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    private static Bulkhead bulkhead(Duration maxWait) {
+        return Bulkhead.of("test", BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(maxWait)
+            .build());
+    }
+
+    private static void enqueue(ExecutorService executor, PriorityBulkheadGate gate, RequestPriority priority,
+                                int count, List<RequestPriority> order) throws InterruptedException {
+        int expected = gate.queuedCalls(priority) + count;
+        for (int i = 0; i < count; i++) {
+            executor.execute(() -> {
+                gate.acquirePermission(priority);
+                order.add(priority);
+                gate.releasePermission();
+            });
+        }
+        while (gate.queuedCalls(priority) < expected) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitQueued(PriorityBulkheadGate gate, int expected) throws InterruptedException {
+        while (gate.queuedCalls() < expected) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.hig.boilerplate.core.bulkhead;
+
+import com.hig.boilerplate.core.deadline.RequestDeadline;
+import com.hig.boilerplate.core.exception.DeadlineExceededException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class PriorityBulkheadSchedulerTest {
+
+    @SuppressWarnings("unchecked")
+    private final PriorityBulkheadScheduler scheduler = new PriorityBulkheadScheduler(
+        new BulkheadProperties(BulkheadProperties.PermitMode.METHOD, "orderDatabase", "replicaDatabase", "reservedDatabase",
+            new BulkheadProperties.Adaptive(false, 4, 0, Duration.ofSeconds(1), 1.5, 0.2),
+            new BulkheadProperties.Priority(true, 6, 3, 1, "X-Request-Priority", RequestPriority.INTERACTIVE),
+            new BulkheadProperties.CoDel(false, Duration.ofMillis(10), Duration.ofMillis(100)),
+            new BulkheadProperties.Watchdog(false, Duration.ofSeconds(5), Duration.ofSeconds(1), Duration.ZERO),
+            BulkheadProperties.ForkedPermitPolicy.LEND),
+        mock(ObjectProvider.class));
+
+    private final Bulkhead bulkhead = Bulkhead.of("orderDatabase", BulkheadConfig.custom()
+        .maxConcurrentCalls(1)
+        .maxWaitDuration(Duration.ofSeconds(5))
+        .build());
+
+    @Test
+    @DisplayName("처리 시한이 이미 지난 요청은 퍼밋을 기다리지 않고 거절되어야 한다")
+    void shouldRejectExpiredDeadline() {
+        RequestDeadline deadline = RequestDeadline.after(Duration.ZERO);
+
+        assertThrows(DeadlineExceededException.class, () -> deadline.bind().run(
+            () -> scheduler.acquirePermission(bulkhead, RequestPriority.INTERACTIVE)));
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("남은 처리 시간이 maxWaitDuration 보다 짧으면 남은 시간만큼만 기다려야 한다")
+    void shouldWaitOnlyForRemainingBudget() {
+        scheduler.acquirePermission(bulkhead, RequestPriority.INTERACTIVE);
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(50));
+
+        long startedAt = System.nanoTime();
+        assertThrows(BulkheadFullException.class, () -> deadline.bind().run(
+            () -> scheduler.acquirePermission(bulkhead, RequestPriority.INTERACTIVE)));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(1));
+        scheduler.releasePermission(bulkhead);
+    }
+}
@@ -0,0 +1,145 @@
+package com.hig.boilerplate.core.cluster;
+
+import com.hig.boilerplate.core.bulkhead.AdaptiveBulkheadLimiter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClusterConnectionBudgetTest {
+
+    private final HikariDataSource pool = mock(HikariDataSource.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Bulkhead bulkhead = Bulkhead.of("orderDatabase", BulkheadConfig.custom()
+        .maxConcurrentCalls(8)
+        .maxWaitDuration(Duration.ofMillis(100))
+        .build());
+    // 풀 크기를 바꾸는 시점의 Bulkhead 한도
+    private final List<Integer> limitsAtPoolResize = new ArrayList<>();
+    private ClusterConnectionBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        when(pool.getMaximumPoolSize()).thenReturn(10);
+        when(pool.getMinimumIdle()).thenReturn(10);
+        doAnswer(invocation -> limitsAtPoolResize.add(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()))
+            .when(pool).setMaximumPoolSize(anyInt());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (budget != null) {
+            budget.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("노드들의 몫의 합은 예산과 같아야 한다")
+    void shouldDivideWholeBudget() {
+        List<String> nodes = List.of("node-a", "node-b", "node-c");
+
+        int total = nodes.stream()
+            .mapToInt(node -> ClusterConnectionBudget.share(80, nodes, node))
+            .sum();
+
+        assertThat(total).isEqualTo(80);
+        assertThat(ClusterConnectionBudget.share(80, nodes, "node-a")).isEqualTo(27);
+        assertThat(ClusterConnectionBudget.share(80, nodes, "node-c")).isEqualTo(26);
+    }
+
+    @Test
+    @DisplayName("자신의 생존 신호가 아직 보이지 않으면 나머지를 받지 않아야 한다")
+    void shouldNotTakeRemainderWhenNotListed() {
+        assertThat(ClusterConnectionBudget.share(80, List.of("node-a", "node-b", "node-c"), "node-d")).isEqualTo(26);
+        assertThat(ClusterConnectionBudget.share(80, List.of(), "node-a")).isEqualTo(80);
+    }
+
+    @Test
+    @DisplayName("줄일 때는 Bulkhead 를 풀보다 먼저 줄이고, 늘릴 때는 풀을 Bulkhead 보다 먼저 늘려야 한다")
+    void shouldOrderBulkheadAndPoolResize() {
+        budget = budget(10, null);
+
+        liveNodes("node-a", "node-b");
+        budget.rebalance();
+
+        assertThat(budget.currentPoolSize()).isEqualTo(5);
+        verify(pool).setMinimumIdle(5);
+        // 시작 시의 여유분(10 - 8)을 유지
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(3);
+        // 운영자가 바꾼 다른 값은 유지
+        assertThat(bulkhead.getBulkheadConfig().getMaxWaitDuration()).isEqualTo(Duration.ofMillis(100));
+
+        liveNodes("node-a");
+        budget.rebalance();
+
+        assertThat(budget.currentPoolSize()).isEqualTo(10);
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(8);
+        // 줄일 때는 풀을 줄이기 전에 이미 Bulkhead 가 줄어 있고, 늘릴 때는 풀을 늘린 뒤에 Bulkhead 를 늘림
+        assertThat(limitsAtPoolResize).containsExactly(3, 3);
+    }
+
+    @Test
+    @DisplayName("몫은 min-pool-size 와 설정된 풀 크기 사이로 제한되어야 한다")
+    void shouldClampShareToPoolSizeRange() {
+        budget = budget(100, null);
+
+        liveNodes("node-a");
+        budget.rebalance();
+
+        // 예산이 커도 설정된 풀 크기를 넘지 않음
+        assertThat(budget.currentPoolSize()).isEqualTo(10);
+        verify(pool, never()).setMaximumPoolSize(anyInt());
+
+        // 예산(100)보다 노드가 많아 몫이 0 또는 1
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any()))
+            .thenReturn(IntStream.range(0, 150).mapToObj(i -> "node-" + i).toList());
+        budget.rebalance();
+
+        // 노드가 많아도 min-pool-size 는 남기고, Bulkhead 한도는 최소 1
+        assertThat(budget.currentPoolSize()).isEqualTo(2);
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("적응형 한도를 사용하면 Bulkhead 한도 대신 여유분을 뺀 상한을 Limiter 에 넘겨야 한다")
+    void shouldHandOverCeilingToAdaptiveLimiter() {
+        AdaptiveBulkheadLimiter adaptiveLimiter = mock(AdaptiveBulkheadLimiter.class);
+        budget = budget(10, adaptiveLimiter);
+
+        liveNodes("node-a", "node-b");
+        budget.rebalance();
+
+        verify(adaptiveLimiter).changeCeiling("orderDatabase", 3);
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(8);
+        assertThat(budget.currentPoolSize()).isEqualTo(5);
+    }
+
+    private ClusterConnectionBudget budget(int total, AdaptiveBulkheadLimiter adaptiveLimiter) {
+        return new ClusterConnectionBudget(pool, jdbcTemplate, bulkhead, adaptiveLimiter,
+            new ClusterBudgetProperties(true, total, 2, Duration.ofSeconds(1), Duration.ofSeconds(45), "node-a"));
+    }
+
+    private void liveNodes(String... nodes) {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any())).thenReturn(List.of(nodes));
+    }
+}
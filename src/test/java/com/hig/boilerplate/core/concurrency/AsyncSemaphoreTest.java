@@ -0,0 +1,156 @@
+package com.hig.boilerplate.core.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncSemaphoreTest {
+
+    @Test
+    @DisplayName("허가가 없으면 대기 Future 를 반환하고, 반납 시 대기 순서대로 완료해야 한다")
+    void shouldGrantWaitersInOrderOnRelease() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(new Semaphore(1));
+
+        CompletableFuture<Void> first = semaphore.acquireAsync();
+        CompletableFuture<Void> second = semaphore.acquireAsync();
+        CompletableFuture<Void> third = semaphore.acquireAsync();
+
+        assertThat(first).isCompleted();
+        assertThat(second).isNotDone();
+        assertThat(third).isNotDone();
+
+        semaphore.release();
+        assertThat(second).isCompleted();
+        assertThat(third).isNotDone();
+
+        semaphore.release();
+        assertThat(third).isCompleted();
+
+        semaphore.release();
+        assertThat(semaphore.availablePermits()).isEqualTo(1);
+        assertThat(semaphore.queuedWaiters()).isZero();
+    }
+
+    @Test
+    @DisplayName("취소된 대기자는 허가를 소모하지 않고 대기열에서 제외되어야 한다")
+    void shouldSkipCancelledWaiters() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(new Semaphore(1));
+        semaphore.acquireAsync();
+
+        CompletableFuture<Void> cancelled = semaphore.acquireAsync();
+        CompletableFuture<Void> next = semaphore.acquireAsync();
+        cancelled.cancel(false);
+
+        semaphore.release();
+
+        assertThat(next).isCompleted();
+        assertThat(semaphore.availablePermits()).isZero();
+        assertThat(semaphore.queuedWaiters()).isZero();
+    }
+
+    @Test
+    @DisplayName("최대 대기 시간 안에 허가를 얻지 못하면 TimeoutException 으로 실패하고 허가를 소모하지 않아야 한다")
+    void shouldTimeOutWithoutConsumingPermit() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(new Semaphore(1));
+        semaphore.acquireAsync();
+
+        CompletableFuture<Void> immediate = semaphore.acquireAsync(Duration.ZERO);
+        CompletableFuture<Void> timed = semaphore.acquireAsync(Duration.ofMillis(50));
+
+        assertThat(immediate).isCompletedExceptionally();
+        assertThatThrownBy(timed::join).hasCauseInstanceOf(TimeoutException.class);
+
+        semaphore.release();
+        assertThat(semaphore.availablePermits()).isEqualTo(1);
+        assertThat(semaphore.queuedWaiters()).isZero();
+    }
+
+    @Test
+    @DisplayName("대기열 맨 앞의 가중치 요청이 타임아웃되면 반납을 기다리지 않고 뒤의 대기자와 tryAcquire 가 허가를 얻어야 한다")
+    void shouldUnblockQueueWhenWeightedHeadTimesOut() throws Exception {
+        AsyncSemaphore semaphore = new AsyncSemaphore(new Semaphore(4));
+        assertThat(semaphore.tryAcquire(2)).isTrue();
+
+        CompletableFuture<Void> batch = semaphore.acquireAsync(4, Duration.ofMillis(50));
+        CompletableFuture<Void> single = semaphore.acquireAsync();
+
+        assertThat(single).isNotDone();
+        assertThat(semaphore.tryAcquire()).isFalse();
+
+        assertThatThrownBy(batch::join).hasCauseInstanceOf(TimeoutException.class);
+        single.get(1, TimeUnit.SECONDS);
+
+        assertThat(semaphore.queuedWaiters()).isZero();
+        assertThat(semaphore.tryAcquire()).isTrue();
+        assertThat(semaphore.availablePermits()).isZero();
+    }
+
+    @Test
+    @DisplayName("가중치 요청은 허가가 모두 모일 때까지 대기하며, 뒤에 온 작은 요청이 추월하지 않아야 한다")
+    void shouldGrantWeightedWaitersInOrder() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(new Semaphore(4));
+        semaphore.acquireAsync(3);
+
+        CompletableFuture<Void> batch = semaphore.acquireAsync(4);
+        CompletableFuture<Void> single = semaphore.acquireAsync();
+
+        assertThat(batch).isNotDone();
+        assertThat(single).isNotDone();
+
+        semaphore.release(3);
+        assertThat(batch).isCompleted();
+        assertThat(single).isNotDone();
+
+        semaphore.release(4);
+        assertThat(single).isCompleted();
+        assertThat(semaphore.availablePermits()).isEqualTo(3);
+        assertThat(semaphore.capacity()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("사용 중인 허가보다 작게 줄이면 반납되는 허가로 회수하고, 새 크기 아래로 내려간 뒤에만 허가해야 한다")
+    void shouldShrinkWhilePermitsInUse() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(new Semaphore(4));
+        for (int i = 0; i < 3; i++) {
+            assertThat(semaphore.tryAcquire()).isTrue();
+        }
+
+        semaphore.resize(2);
+        assertThat(semaphore.capacity()).isEqualTo(2);
+        assertThat(semaphore.availablePermits()).isZero();
+        assertThat(semaphore.pendingShrink()).isEqualTo(1);
+
+        CompletableFuture<Void> waiter = semaphore.acquireAsync();
+        semaphore.release();
+        assertThat(waiter).isNotDone();
+        assertThat(semaphore.pendingShrink()).isZero();
+
+        semaphore.release();
+        assertThat(waiter).isCompleted();
+    }
+
+    @Test
+    @DisplayName("줄인 뒤 다시 늘리면 회수하지 못한 허가부터 탕감해야 한다")
+    void shouldForgiveDebtWhenGrowing() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(new Semaphore(2));
+        assertThat(semaphore.tryAcquire(2)).isTrue();
+
+        semaphore.resize(1);
+        assertThat(semaphore.pendingShrink()).isEqualTo(1);
+
+        semaphore.resize(3);
+        assertThat(semaphore.pendingShrink()).isZero();
+        assertThat(semaphore.availablePermits()).isEqualTo(1);
+
+        semaphore.release(2);
+        assertThat(semaphore.availablePermits()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,58 @@
+package com.hig.boilerplate.core.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyedSemaphoresTest {
+
+    @Test
+    @DisplayName("키별로 독립된 허가를 가지며, 한 키가 포화되어도 다른 키는 허가를 얻어야 한다")
+    void shouldIsolatePermitsPerKey() {
+        KeyedSemaphores semaphores = new KeyedSemaphores(1, 100);
+
+        KeyedSemaphores.Lease noisy = semaphores.lease("tenant-a");
+        KeyedSemaphores.Lease noisyAgain = semaphores.lease("tenant-a");
+        KeyedSemaphores.Lease other = semaphores.lease("tenant-b");
+
+        assertThat(noisy.semaphore()).isSameAs(noisyAgain.semaphore());
+        assertThat(noisy.semaphore().tryAcquire()).isTrue();
+        assertThat(noisyAgain.semaphore().tryAcquire()).isFalse();
+        assertThat(other.semaphore().tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("사용권이 모두 반납되면 키의 Semaphore 가 제거되어야 한다")
+    void shouldEvictIdleKeys() {
+        KeyedSemaphores semaphores = new KeyedSemaphores(1, 100);
+
+        KeyedSemaphores.Lease first = semaphores.lease("tenant-a");
+        KeyedSemaphores.Lease second = semaphores.lease("tenant-a");
+        assertThat(semaphores.size()).isEqualTo(1);
+
+        first.close();
+        first.close();
+        assertThat(semaphores.size()).isEqualTo(1);
+
+        second.close();
+        assertThat(semaphores.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("추적 중인 키가 한도에 도달하면 새로운 키의 사용권을 거절해야 한다")
+    void shouldRejectNewKeysWhenFull() {
+        // stripe 당 1개 (16 stripes)
+        KeyedSemaphores semaphores = new KeyedSemaphores(1, 16);
+
+        int granted = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (semaphores.lease("tenant-" + i) != null) {
+                granted++;
+            }
+        }
+
+        assertThat(granted).isEqualTo(16);
+        assertThat(semaphores.size()).isEqualTo(16);
+    }
+}
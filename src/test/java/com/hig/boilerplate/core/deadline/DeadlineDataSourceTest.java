@@ -0,0 +1,110 @@
+package com.hig.boilerplate.core.deadline;
+
+import com.hig.boilerplate.core.exception.DeadlineExceededException;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeadlineDataSourceTest {
+
+    private final HikariDataSource pool = mock(HikariDataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final Statement statement = mock(Statement.class);
+    private final DeadlineDataSource dataSource = new DeadlineDataSource(pool);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.createStatement()).thenReturn(statement);
+        when(pool.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    @DisplayName("시한이 이미 지났으면 커넥션을 빌리지 않고 실패해야 한다")
+    void shouldFailAtCheckoutWhenExpired() throws SQLException {
+        RequestDeadline expired = RequestDeadline.after(Duration.ZERO);
+
+        assertThatThrownBy(() -> expired.bind().call(dataSource::getConnection))
+            .isInstanceOf(DeadlineExceededException.class);
+        verify(pool, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("빌릴 때 남은 시간을 statement_timeout 으로 설정하고, 닫을 때 한 번만 RESET 한 뒤 풀에 돌려주어야 한다")
+    void shouldResetStatementTimeoutOnClose() throws Exception {
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        Connection borrowed = RequestDeadline.after(Duration.ofSeconds(5)).bind().call(dataSource::getConnection);
+        verify(statement).execute(startsWith("SET statement_timeout = "));
+
+        borrowed.close();
+        borrowed.close();
+
+        verify(statement).execute("RESET statement_timeout");
+        verify(connection).close();
+        verify(pool, never()).evictConnection(any());
+    }
+
+    @Test
+    @DisplayName("autoCommit 을 끈 트랜잭션이 끝나지 않은 채 닫히면 RESET 하지 않고 풀에서 제거해야 한다")
+    void shouldEvictConnectionClosedInsideTransaction() throws Exception {
+        when(connection.getAutoCommit()).thenReturn(true);
+        Connection borrowed = RequestDeadline.after(Duration.ofSeconds(5)).bind().call(dataSource::getConnection);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        borrowed.close();
+
+        verify(pool).evictConnection(connection);
+        verify(statement, never()).execute("RESET statement_timeout");
+        verify(connection, never()).close();
+    }
+
+    @Test
+    @DisplayName("풀이 auto-commit=false 로 설정되어 있으면 롤백 후 RESET 을 커밋하고 제거하지 않아야 한다")
+    void shouldResetWithoutEvictingWhenPoolDisablesAutoCommit() throws Exception {
+        when(connection.getAutoCommit()).thenReturn(false);
+        Connection borrowed = RequestDeadline.after(Duration.ofSeconds(5)).bind().call(dataSource::getConnection);
+
+        borrowed.close();
+
+        InOrder order = inOrder(connection, statement);
+        order.verify(connection).rollback();
+        order.verify(statement).execute("RESET statement_timeout");
+        order.verify(connection).commit();
+        order.verify(connection).close();
+        verify(pool, never()).evictConnection(any());
+    }
+
+    @Test
+    @DisplayName("RESET 에 실패하면 짧은 timeout 이 남은 커넥션을 풀에서 제거해야 한다")
+    void shouldEvictWhenResetFails() throws Exception {
+        when(connection.getAutoCommit()).thenReturn(true);
+        Connection borrowed = RequestDeadline.after(Duration.ofSeconds(5)).bind().call(dataSource::getConnection);
+        when(statement.execute("RESET statement_timeout")).thenThrow(new SQLException("connection broken"));
+
+        borrowed.close();
+
+        verify(pool, times(1)).evictConnection(connection);
+        verify(connection, never()).close();
+    }
+}
@@ -0,0 +1,80 @@
+package com.hig.boilerplate.core.exception;
+
+import com.hig.boilerplate.core.shedding.SaturationMonitor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BackpressureExceptionHandlerTest {
+
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+        .maxConcurrentCalls(4)
+        .build());
+    private final SaturationMonitor saturationMonitor = mock(SaturationMonitor.class);
+
+    private Bulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        when(saturationMonitor.retryAfterSeconds(anyDouble())).thenReturn(3L);
+        bulkhead = bulkheadRegistry.bulkhead("orderDatabase");
+        bulkhead.acquirePermission();
+        bulkhead.acquirePermission();
+        bulkhead.acquirePermission();
+    }
+
+    @Test
+    @DisplayName("Bulkhead 거절은 Retry-After 를 포함한 503 으로 응답하고, 내부 구성은 드러내지 않아야 한다")
+    void shouldRespondServiceUnavailableWithoutInternals() {
+        BackpressureExceptionHandler handler = new BackpressureExceptionHandler(bulkheadRegistry, saturationMonitor, false);
+
+        ResponseEntity<ProblemDetail> response = handler.handleBulkheadRejected(rejected());
+
+        assertThat(response.getStatusCode().value()).isEqualTo(503);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("3");
+        assertThat(response.getHeaders().headerNames()).noneMatch(name -> name.startsWith("X-Bulkhead-"));
+        assertThat(response.getBody().getDetail()).doesNotContain("orderDatabase");
+    }
+
+    @Test
+    @DisplayName("expose-details 를 켜면 Bulkhead 이름과 사용률 헤더를 함께 보내야 한다")
+    void shouldExposeUtilizationWhenEnabled() {
+        BackpressureExceptionHandler handler = new BackpressureExceptionHandler(bulkheadRegistry, saturationMonitor, true);
+
+        ResponseEntity<ProblemDetail> response = handler.handleBulkheadRejected(rejected());
+
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("3");
+        assertThat(response.getHeaders().getFirst("X-Bulkhead-Name")).isEqualTo("orderDatabase");
+        assertThat(response.getHeaders().getFirst("X-Bulkhead-Limit")).isEqualTo("4");
+        assertThat(response.getHeaders().getFirst("X-Bulkhead-In-Flight")).isEqualTo("3");
+        assertThat(response.getHeaders().getFirst("X-Bulkhead-Utilization")).isEqualTo("0.75");
+    }
+
+    @Test
+    @DisplayName("Bulkhead 를 직접 사용해 발생한 BulkheadFullException 도 원래 메시지 없이 503 으로 응답해야 한다")
+    void shouldRespondServiceUnavailableForRawBulkheadFull() {
+        BackpressureExceptionHandler handler = new BackpressureExceptionHandler(bulkheadRegistry, saturationMonitor, true);
+
+        ResponseEntity<ProblemDetail> response =
+            handler.handleBulkheadFull(BulkheadFullException.createBulkheadFullException(bulkhead));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(503);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("3");
+        assertThat(response.getBody().getDetail()).doesNotContain("orderDatabase");
+    }
+
+    private BulkheadRejectedException rejected() {
+        return new BulkheadRejectedException(bulkhead.getName(), BulkheadFullException.createBulkheadFullException(bulkhead));
+    }
+}
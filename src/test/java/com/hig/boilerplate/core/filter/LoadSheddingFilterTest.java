@@ -0,0 +1,55 @@
+package com.hig.boilerplate.core.filter;
+
+import com.hig.boilerplate.core.shedding.LoadSheddingProperties;
+import com.hig.boilerplate.core.shedding.SaturationMonitor;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoadSheddingFilterTest {
+
+    private final SaturationMonitor saturationMonitor = mock(SaturationMonitor.class);
+    private final LoadSheddingFilter filter = new LoadSheddingFilter(saturationMonitor, new LoadSheddingProperties(
+        true, 32, 10, 0.9, Duration.ofSeconds(2), Duration.ofSeconds(10), List.of("/actuator/**")));
+
+    @Test
+    @DisplayName("임계값을 넘으면 요청을 처리하지 않고 Retry-After 와 함께 503 으로 응답해야 한다")
+    void shouldShedWhenSaturated() throws Exception {
+        when(saturationMonitor.pressure()).thenReturn(2.5);
+        when(saturationMonitor.retryAfterSeconds(2.5)).thenReturn(5L);
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/orders"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("5");
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("포화 상태여도 제외 경로는 차단하지 않아야 한다")
+    void shouldNotShedExcludedPaths() throws Exception {
+        when(saturationMonitor.pressure()).thenReturn(2.5);
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        verify(chain).doFilter(request, response);
+    }
+}
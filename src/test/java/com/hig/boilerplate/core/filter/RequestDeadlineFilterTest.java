@@ -0,0 +1,87 @@
+package com.hig.boilerplate.core.filter;
+
+import com.hig.boilerplate.core.deadline.DeadlineProperties;
+import com.hig.boilerplate.core.deadline.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestDeadlineFilterTest {
+
+    private final RequestDeadlineFilter filter = new RequestDeadlineFilter(new DeadlineProperties(true, "X-Request-Timeout",
+        Duration.ofSeconds(2), List.of(new DeadlineProperties.Endpoint("/api/reports/**", Duration.ofSeconds(30))), true));
+
+    @Test
+    @DisplayName("헤더로 요청한 시한이 설정값보다 짧으면 헤더의 시한을 적용해야 한다")
+    void shouldShortenDeadlineByHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("X-Request-Timeout", "500ms");
+
+        Duration remaining = remainingOf(request);
+
+        assertThat(remaining).isPositive().isLessThanOrEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    @DisplayName("헤더로 설정값보다 긴 시한을 요청해도 설정값으로 제한해야 한다")
+    void shouldClampHeaderToConfiguredDeadline() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("X-Request-Timeout", "60s");
+
+        Duration remaining = remainingOf(request);
+
+        assertThat(remaining).isGreaterThan(Duration.ofSeconds(1)).isLessThanOrEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("경로에 맞는 엔드포인트 설정이 있으면 기본값 대신 사용하고, 헤더도 그 값 안에서만 적용해야 한다")
+    void shouldUseEndpointDeadline() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/monthly");
+        request.addHeader("X-Request-Timeout", "60000");
+
+        Duration remaining = remainingOf(request);
+
+        assertThat(remaining).isGreaterThan(Duration.ofSeconds(29)).isLessThanOrEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("헤더 값이 올바르지 않거나 음수이면 무시하고 설정값을 적용해야 한다")
+    void shouldIgnoreInvalidHeader() throws Exception {
+        for (String value : List.of("soon", "-100ms")) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+            request.addHeader("X-Request-Timeout", value);
+
+            assertThat(remainingOf(request)).isGreaterThan(Duration.ofSeconds(1)).isLessThanOrEqualTo(Duration.ofSeconds(2));
+        }
+    }
+
+    @Test
+    @DisplayName("설정된 시한과 헤더가 모두 없으면 시한을 바인딩하지 않아야 한다")
+    void shouldNotBindWithoutDeadline() throws Exception {
+        RequestDeadlineFilter unbounded = new RequestDeadlineFilter(
+            new DeadlineProperties(true, "X-Request-Timeout", Duration.ZERO, List.of(), true));
+        AtomicReference<RequestDeadline> deadline = new AtomicReference<>();
+
+        unbounded.doFilter(new MockHttpServletRequest("GET", "/api/orders"), new MockHttpServletResponse(),
+            (req, res) -> deadline.set(RequestDeadline.current()));
+
+        assertThat(deadline.get()).isNull();
+    }
+
+    private Duration remainingOf(MockHttpServletRequest request) throws Exception {
+        AtomicReference<Duration> remaining = new AtomicReference<>();
+        FilterChain chain = (req, res) -> remaining.set(RequestDeadline.current().remaining());
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        return remaining.get();
+    }
+}
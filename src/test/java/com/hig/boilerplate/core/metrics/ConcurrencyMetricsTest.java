@@ -0,0 +1,105 @@
+package com.hig.boilerplate.core.metrics;
+
+import com.hig.boilerplate.core.annotation.BoundedConcurrency;
+import com.hig.boilerplate.core.aop.BoundedConcurrencyAspect;
+import com.hig.boilerplate.core.aop.BoundedConcurrencyRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ConcurrencyMetrics metrics = new ConcurrencyMetrics(
+        new StaticListableBeanFactory(Map.of("meterRegistry", registry)).getBeanProvider(MeterRegistry.class));
+
+    @Test
+    @DisplayName("같은 이름과 호출 위치는 같은 지표를 재사용해야 한다")
+    void shouldReuseMeters() {
+        PermitMeters meters = metrics.bulkhead("orderDatabase", "OrderService.placeOrder");
+
+        assertThat(metrics.bulkhead("orderDatabase", "OrderService.placeOrder")).isSameAs(meters);
+        assertThat(metrics.bulkhead("orderDatabase", "OrderService.cancel")).isNotSameAs(meters);
+        assertThat(metrics.semaphore("orderDatabase", "OrderService.placeOrder")).isNotSameAs(meters);
+    }
+
+    @Test
+    @DisplayName("퍼밋 대기 / 점유 시간과 실행 중인 호출 수를 태그별로 기록해야 한다")
+    void shouldRecordPermitLifecycle() {
+        PermitMeters meters = metrics.bulkhead("orderDatabase", "OrderService.placeOrder");
+
+        meters.acquired(TimeUnit.MILLISECONDS.toNanos(3));
+        assertThat(registry.get("bulkhead.permit.in.flight")
+            .tags("bulkhead", "orderDatabase", "method", "OrderService.placeOrder").gauge().value()).isEqualTo(1);
+
+        meters.released(TimeUnit.MILLISECONDS.toNanos(20));
+        meters.rejected();
+        meters.interrupted();
+
+        Timer wait = registry.get("bulkhead.permit.wait").tags("bulkhead", "orderDatabase").timer();
+        Timer hold = registry.get("bulkhead.permit.hold").tags("method", "OrderService.placeOrder").timer();
+        assertThat(wait.count()).isEqualTo(1);
+        assertThat(wait.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(3);
+        assertThat(hold.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(20);
+        assertThat(registry.get("bulkhead.permit.in.flight").gauge().value()).isZero();
+        assertThat(registry.get("bulkhead.permit.rejected").counter().count()).isEqualTo(1);
+        assertThat(registry.get("bulkhead.permit.interrupted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Semaphore 지표는 semaphore 태그로 구분해야 한다")
+    void shouldTagSemaphoreMeters() {
+        metrics.semaphore("cpuBoundExecutorSemaphore", "ReportService.render").rejected();
+
+        assertThat(registry.get("bounded.concurrency.permit.rejected")
+            .tags("semaphore", "cpuBoundExecutorSemaphore", "method", "ReportService.render").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("키 / 가중치가 지정된 @BoundedConcurrency 호출도 반납 시 실행 중인 호출 수를 되돌리고 점유 시간을 기록해야 한다")
+    void shouldRecordKeyedAndWeightedRelease() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("concurrencyMetrics", metrics);
+        beanFactory.registerSingleton("reportSemaphore", new Semaphore(4));
+        BoundedConcurrencyRegistry concurrencyRegistry = new BoundedConcurrencyRegistry();
+        concurrencyRegistry.setBeanFactory(beanFactory);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new ReportService());
+        proxyFactory.addAspect(new BoundedConcurrencyAspect(concurrencyRegistry));
+        ReportService reportService = proxyFactory.getProxy();
+
+        assertThat(reportService.renderForTenant("tenant-a")).isEqualTo("tenant-a");
+        assertThat(reportService.renderPages(3)).isEqualTo(3);
+
+        Collection<Gauge> inFlight = registry.get("bounded.concurrency.permit.in.flight").tags("semaphore", "reportSemaphore").gauges();
+        Collection<Timer> hold = registry.get("bounded.concurrency.permit.hold").tags("semaphore", "reportSemaphore").timers();
+        assertThat(inFlight).hasSize(2).allSatisfy(gauge -> assertThat(gauge.value()).isZero());
+        assertThat(hold).hasSize(2).allSatisfy(timer -> assertThat(timer.count()).isEqualTo(1));
+    }
+
+    static class ReportService {
+
+        @BoundedConcurrency(value = "reportSemaphore", key = "#tenantId", permitsPerKey = 1)
+        public String renderForTenant(String tenantId) {
+            return tenantId;
+        }
+
+        @BoundedConcurrency(value = "reportSemaphore", weight = "#pages")
+        public int renderPages(int pages) {
+            return pages;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.hig.boilerplate.core.shedding;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SaturationMonitorTest {
+
+    private final ListableBeanFactory beanFactory = mock(ListableBeanFactory.class);
+    private final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10));
+    private final CountDownLatch blocker = new CountDownLatch(1);
+
+    @SuppressWarnings("unchecked")
+    private final SaturationMonitor monitor = new SaturationMonitor(beanFactory, mock(BulkheadRegistry.class),
+        mock(ObjectProvider.class), new LoadSheddingProperties(
+            true, 32, 10, 0.5, Duration.ofSeconds(2), Duration.ofSeconds(10), List.of()));
+
+    @AfterEach
+    void tearDown() {
+        blocker.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Executor 대기열 사용률을 임계값으로 나눈 값을 pressure 로 사용해야 한다")
+    void shouldMeasureExecutorQueueUtilization() {
+        when(beanFactory.getBeansOfType(eq(Executor.class), eq(false), eq(false)))
+            .thenReturn(Map.of("executor", executor));
+        monitor.afterSingletonsInstantiated();
+
+        executor.execute(this::block);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(this::block);
+        }
+
+        // 대기열 5/10 = 0.5, 임계값 0.5 대비 1.0
+        assertThat(monitor.pressure()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Retry-After 는 pressure 에 비례하되 설정된 범위를 벗어나지 않아야 한다")
+    void shouldScaleRetryAfterWithinBounds() {
+        assertThat(monitor.retryAfterSeconds(0.3)).isEqualTo(2);
+        assertThat(monitor.retryAfterSeconds(2.5)).isEqualTo(5);
+        assertThat(monitor.retryAfterSeconds(100)).isEqualTo(10);
+    }
+
+    private void block() {
+        try {
+            blocker.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
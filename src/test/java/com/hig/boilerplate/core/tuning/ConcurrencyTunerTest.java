@@ -0,0 +1,152 @@
+package com.hig.boilerplate.core.tuning;
+
+import com.hig.boilerplate.core.aop.BoundedConcurrencyRegistry;
+import com.hig.boilerplate.core.bulkhead.AdaptiveBulkheadLimiter;
+import com.hig.boilerplate.core.bulkhead.BulkheadConfigChanges;
+import com.hig.boilerplate.core.concurrency.AsyncSemaphore;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.audit.listener.AuditApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyTunerTest {
+
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+        .maxConcurrentCalls(4)
+        .maxWaitDuration(Duration.ZERO)
+        .build());
+    private final BoundedConcurrencyRegistry concurrencyRegistry = mock(BoundedConcurrencyRegistry.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ConcurrencyTuner tuner = new ConcurrencyTuner(bulkheadRegistry, concurrencyRegistry, null, "reserved", null,
+        eventPublisher, new ConcurrencyTuningProperties("CONCURRENCY_ADMIN", false, Duration.ofMillis(100)));
+
+    @AfterEach
+    void tearDown() {
+        tuner.stop();
+    }
+
+    @Test
+    @DisplayName("Bulkhead 한도를 줄이면 사용 중인 퍼밋이 반납된 뒤에 적용되어야 한다")
+    void shouldApplyBulkheadShrinkAfterPermitsReleased() throws InterruptedException {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("orderDatabase");
+        for (int i = 0; i < 4; i++) {
+            bulkhead.acquirePermission();
+        }
+
+        ConcurrencyTuner.Change<ConcurrencyTuner.BulkheadLimits> change =
+            tuner.changeBulkhead("orderDatabase", 2, null, "operator");
+
+        // 4개 모두 사용 중이므로 apply-timeout 안에 적용하지 못함
+        assertThat(change.applied()).isFalse();
+        assertThat(change.before().maxConcurrentCalls()).isEqualTo(4);
+        verify(eventPublisher).publishEvent(any(AuditApplicationEvent.class));
+
+        for (int i = 0; i < 4; i++) {
+            bulkhead.onComplete();
+        }
+        for (int i = 0; i < 50 && bulkhead.getBulkheadConfig().getMaxConcurrentCalls() != 2; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(2);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("적용 중인 설정 변경이 끝나기 전에는 다른 변경이 끼어들지 못하고, 이후 변경도 최대 대기 시간을 되돌리지 않아야 한다")
+    void shouldSerializeBulkheadConfigChanges() throws InterruptedException {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("orderDatabase");
+        for (int i = 0; i < 4; i++) {
+            bulkhead.acquirePermission();
+        }
+
+        ConcurrencyTuner.Change<ConcurrencyTuner.BulkheadLimits> change =
+            tuner.changeBulkhead("orderDatabase", 2, Duration.ofMillis(100), "operator");
+
+        assertThat(change.applied()).isFalse();
+        // 적응형 Limiter 처럼 기다리지 않는 쪽은 적용 중인 변경이 끝날 때까지 건너뜀
+        assertThat(BulkheadConfigChanges.tryApply(bulkhead, config -> BulkheadConfig.from(config).maxConcurrentCalls(3).build()))
+            .isFalse();
+
+        for (int i = 0; i < 4; i++) {
+            bulkhead.onComplete();
+        }
+        for (int i = 0; i < 50 && bulkhead.getBulkheadConfig().getMaxConcurrentCalls() != 2; i++) {
+            Thread.sleep(20);
+        }
+        BulkheadConfigChanges.apply(bulkhead, config -> BulkheadConfig.from(config).maxConcurrentCalls(3).build());
+
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(3);
+        assertThat(bulkhead.getBulkheadConfig().getMaxWaitDuration()).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    @DisplayName("적응형 한도를 사용하는 Bulkhead 는 상한만 바꾸고, 변경 후 한도로 새 상한을 반환해야 한다")
+    void shouldReportCeilingForAdaptiveBulkhead() {
+        AdaptiveBulkheadLimiter adaptiveLimiter = mock(AdaptiveBulkheadLimiter.class);
+        ConcurrencyTuner adaptiveTuner = new ConcurrencyTuner(bulkheadRegistry, concurrencyRegistry, adaptiveLimiter, "reserved", null,
+            eventPublisher, new ConcurrencyTuningProperties("CONCURRENCY_ADMIN", false, Duration.ofMillis(100)));
+        try {
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead("orderDatabase");
+
+            ConcurrencyTuner.Change<ConcurrencyTuner.BulkheadLimits> change =
+                adaptiveTuner.changeBulkhead("orderDatabase", 2, null, "operator");
+
+            verify(adaptiveLimiter).changeCeiling("orderDatabase", 2);
+            assertThat(change.before().maxConcurrentCalls()).isEqualTo(4);
+            assertThat(change.after().maxConcurrentCalls()).isEqualTo(2);
+            assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(4);
+        } finally {
+            adaptiveTuner.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Semaphore 크기를 변경하고 변경 전후 한도를 반환해야 한다")
+    void shouldResizeSemaphore() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(new Semaphore(4));
+        when(concurrencyRegistry.semaphores()).thenReturn(Map.of("reportSemaphore", semaphore));
+        assertThat(semaphore.tryAcquire(3)).isTrue();
+
+        ConcurrencyTuner.Change<ConcurrencyTuner.SemaphoreLimits> change =
+            tuner.changeSemaphore("reportSemaphore", 2, "operator");
+
+        assertThat(change.applied()).isTrue();
+        assertThat(change.persisted()).isFalse();
+        assertThat(change.before().permits()).isEqualTo(4);
+        assertThat(change.after().permits()).isEqualTo(2);
+        // 남은 1개는 바로 회수하고 나머지 1개는 사용 중인 허가가 반납될 때 회수
+        assertThat(change.after().pendingShrink()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("없는 대상이나 잘못된 값은 변경하지 않고 거절해야 한다")
+    void shouldRejectInvalidChange() {
+        bulkheadRegistry.bulkhead("orderDatabase");
+
+        assertThatThrownBy(() -> tuner.changeBulkhead("unknown", 2, null, "operator"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tuner.changeBulkhead("orderDatabase", 0, null, "operator"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tuner.changeSemaphore("unknown", 2, "operator"))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(bulkheadRegistry.bulkhead("orderDatabase").getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(4);
+        verify(eventPublisher, never()).publishEvent(any(AuditApplicationEvent.class));
+    }
+}